@@ -0,0 +1,41 @@
+package frc.robot.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import frc.robot.util.CommandDetails;
+
+/**
+ * Parsing the command strings queued by autons and buttons
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CommandDetailsBenchmark {
+
+	@Param({
+		"start_path -s",
+		"delayed_to_position -p 5,100,1.5",
+		"add_forwards_spline -p -4.2,24,270,6,-6.5,5,270,6,7,12,0,5",
+		"extake -t 0.5"
+	})
+	public String command;
+
+	@Benchmark
+	public CommandDetails parse() {
+		return new CommandDetails(command);
+	}
+}
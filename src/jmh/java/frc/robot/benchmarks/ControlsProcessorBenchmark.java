@@ -0,0 +1,112 @@
+package frc.robot.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import frc.robot.util.CommandDetails;
+import frc.robot.util.ControlsProcessor;
+import frc.robot.util.Logger;
+import frc.robot.util.SubsystemCommand;
+import frc.robot.util.SubsystemModule;
+import frc.robot.util.TelemetryRecorder;
+
+/**
+ * Command queue processing with as many subsystems and commands registered as the robot has.
+ * Commands run every tick here so a called command has finished before the next one is queued.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ControlsProcessorBenchmark {
+
+	private static final String[] kSubsystems = { "DriveTrain", "Arm", "Intake", "Climber" };
+	private static final int kCommandsPerSubsystem = 25;
+
+	private ControlsProcessor controlsProcessor;
+	private long timestamp = 0;
+
+	private CommandDetails parallelCommand;
+	private CommandDetails seriesCommand;
+
+	/**
+	 * Subsystem with commands that finish as soon as they are called
+	 */
+	private static class BenchmarkSubsystem extends SubsystemModule {
+		private String name;
+
+		BenchmarkSubsystem(String name) {
+			this.name = name;
+			registerCommands();
+		}
+
+		@Override
+		public void run() {}
+
+		@Override
+		public void registerCommands() {
+			for (int i = 0; i < kCommandsPerSubsystem; i++) {
+				new SubsystemCommand(this.registeredCommands, name + "_command_" + i) {};
+			}
+		}
+
+		@Override
+		public void init() {}
+
+		@Override
+		public void destruct() {}
+	}
+
+	@Setup
+	public void setup() {
+		Logger.setLevel("ControlsProcessor", Logger.Level.WARN);
+		TelemetryRecorder.setInstance(new TelemetryRecorder(null));
+
+		controlsProcessor = new ControlsProcessor(10000000, 1, false) {
+			@Override
+			public void registerOperatorControls() {}
+		};
+
+		for (String name : kSubsystems) {
+			controlsProcessor.registerController(name, new BenchmarkSubsystem(name));
+		}
+
+		parallelCommand = new CommandDetails("Arm_command_3 -p");
+		seriesCommand = new CommandDetails("Intake_command_7 -s 1,2");
+	}
+
+	// Nothing queued, the running check still walks every command
+	@Benchmark
+	public void processIdleQueue() {
+		controlsProcessor.processCommandQueue();
+	}
+
+	@Benchmark
+	public void tickIdle() {
+		controlsProcessor.tick(timestamp += 10000000);
+	}
+
+	@Benchmark
+	public void tickWithParallelCommand() {
+		controlsProcessor.addToQueue(parallelCommand);
+		controlsProcessor.tick(timestamp += 10000000);
+	}
+
+	@Benchmark
+	public void tickWithSeriesCommand() {
+		controlsProcessor.addToQueue(seriesCommand);
+		controlsProcessor.tick(timestamp += 10000000);
+	}
+}
@@ -0,0 +1,57 @@
+package frc.robot.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import frc.robot.util.CurrentFilter;
+
+/**
+ * Intake's cargo and pump current filtering, fed a roller current that stalls on a ball
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CurrentFilterBenchmark {
+
+	// Window sizes used by Intake
+	private CurrentFilter cargoCurrents = new CurrentFilter(50);
+	private CurrentFilter pumpCurrents = new CurrentFilter(100);
+
+	private double[] currents = new double[1024];
+	private int index = 0;
+
+	@Setup
+	public void setup() {
+		for (int i = 0; i < currents.length; i++) {
+			// Free spinning roller, then stalled on a ball for the second half
+			currents[i] = (i < currents.length / 2 ? 10 : 45) + Math.sin(i) * 2;
+		}
+	}
+
+	@Benchmark
+	public double cargo() {
+		index = (index + 1) & (currents.length - 1);
+		cargoCurrents.add(currents[index]);
+		return cargoCurrents.getAverage();
+	}
+
+	@Benchmark
+	public double pump() {
+		index = (index + 1) & (currents.length - 1);
+		pumpCurrents.add(currents[index]);
+		return pumpCurrents.getAverage();
+	}
+}
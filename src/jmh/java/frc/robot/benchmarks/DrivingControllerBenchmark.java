@@ -0,0 +1,76 @@
+package frc.robot.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import frc.robot.util.DrivingController;
+import frc.robot.util.Logger;
+import frc.robot.util.TelemetryRecorder;
+
+/**
+ * One tick of the path follower, run by DriveTrain every controls processor period
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DrivingControllerBenchmark {
+
+	private DrivingController drivingController;
+
+	// Pose fed to the controller, moves a little every tick so nothing is constant folded
+	private double x, y, angle;
+
+	private double power, pivot;
+
+	// A new controller each iteration, the path index is never reset by clearControlPath
+	@Setup(Level.Iteration)
+	public void setup() {
+		Logger.setLevel("DrivingController", Logger.Level.WARN);
+		TelemetryRecorder.setInstance(new TelemetryRecorder(null));
+
+		drivingController = new DrivingController(0.01) {
+			@Override
+			public void updateVariables() {
+				this.currentX = x;
+				this.currentY = y;
+				this.currentAngle = angle;
+				this.currentAverageVelocity = 5;
+			}
+
+			@Override
+			public void driveRobot(double power, double pivot) {
+				DrivingControllerBenchmark.this.power = power;
+				DrivingControllerBenchmark.this.pivot = pivot;
+			}
+		};
+		drivingController.addBackwardsSpline(0, 0, 270, 7, -4.5, 24, 270, 5, 6, 12, 0, 0);
+
+		x = 0;
+		y = 0;
+		angle = 270;
+	}
+
+	@Benchmark
+	public double run() {
+		x -= 0.0001;
+		y += 0.001;
+		angle += 0.0001;
+
+		drivingController.run();
+		return power + pivot;
+	}
+}
@@ -0,0 +1,49 @@
+package frc.robot.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import frc.robot.util.MotionPose;
+
+/**
+ * Error calculations the path follower makes against its reference point every tick
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MotionPoseBenchmark {
+
+	private MotionPose reference = new MotionPose(250, 9, -2.1, 11.5);
+
+	private double x = -2.3, y = 11.2, angle = 247;
+
+	@Benchmark
+	public double orthogonalDisplacement() {
+		x += 1e-6;
+		return reference.getOrthogonalDisplacement(x, y);
+	}
+
+	@Benchmark
+	public double tangentialDisplacement() {
+		y += 1e-6;
+		return reference.getTangentialDisplacement(x, y);
+	}
+
+	@Benchmark
+	public double angularDisplacement() {
+		angle += 1e-6;
+		return reference.getAngularDisplacement(angle);
+	}
+}
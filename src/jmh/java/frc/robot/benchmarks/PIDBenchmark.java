@@ -0,0 +1,50 @@
+package frc.robot.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import frc.robot.util.PID;
+
+/**
+ * PID.getOutput with the samson controller's gains
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PIDBenchmark {
+
+	private PID pid;
+
+	// Error signal cycled through so the integral and output limits are exercised
+	private double[] inputs = new double[1024];
+	private int index = 0;
+
+	@Setup
+	public void setup() {
+		pid = new PID(0.06, 0.0001, 0.0);
+		pid.setMaxIOutput(0.15);
+
+		for (int i = 0; i < inputs.length; i++) {
+			inputs[i] = 20 * Math.sin(2 * Math.PI * i / inputs.length);
+		}
+	}
+
+	@Benchmark
+	public double getOutput() {
+		index = (index + 1) & (inputs.length - 1);
+		return pid.getOutput(inputs[index], 0);
+	}
+}
@@ -0,0 +1,60 @@
+package frc.robot.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import frc.robot.util.DrivingController;
+import frc.robot.util.Logger;
+
+/**
+ * Generating the autonomous splines, done in robotInit and by the add_*_spline commands
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SplineBenchmark {
+
+	private DrivingController drivingController;
+
+	@Setup
+	public void setup() {
+		Logger.setLevel("DrivingController", Logger.Level.WARN);
+
+		drivingController = new DrivingController(0.01) {
+			@Override
+			public void updateVariables() {}
+
+			@Override
+			public void driveRobot(double power, double pivot) {}
+		};
+	}
+
+	// First spline of LeftRocket
+	@Benchmark
+	public int backwardsSpline() {
+		drivingController.clearControlPath();
+		drivingController.addBackwardsSpline(0, 0, 270, 7, -4.5, 24, 270, 5, 6, 12, 0, 0);
+		return drivingController.getControlPath().size();
+	}
+
+	// Drive back to the loading station in LeftRocket
+	@Benchmark
+	public int forwardSpline() {
+		drivingController.clearControlPath();
+		drivingController.addForwardSpline(-4.2, 24, 270, 6, -6.5, 5, 270, 6, 7, 12, 0, 5);
+		return drivingController.getControlPath().size();
+	}
+}
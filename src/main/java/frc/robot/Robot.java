@@ -1,15 +1,19 @@
 package frc.robot;
 
-import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj.command.Command;
 import edu.wpi.first.wpilibj.command.Scheduler;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import frc.robot.autontasks.*;
+import frc.robot.hal.Devices;
+import frc.robot.hal.Limelight;
+import frc.robot.hal.MotorHealthMonitor;
+import frc.robot.hal.StatusFramePlanner;
 import frc.robot.subsystems.Arm;
 import frc.robot.subsystems.Climber;
 import frc.robot.subsystems.DriveTrain;
 import frc.robot.util.AutonTask;
+import frc.robot.util.CommandGroup;
 import frc.robot.util.ControlsProcessor;
 
 /*
@@ -35,6 +39,9 @@ public class Robot extends TimedRobot {
 	// Initialize robot control systems
 	private ControlsProcessor controlsProcessor;
 
+	// Runs the drivetrain on the second core alongside the arm, intake and climber
+	private static final boolean kParallelSubsystems = true;
+
 	// Init and Periodic functions
 	@Override
 	public void robotInit() {
@@ -53,55 +60,35 @@ public class Robot extends TimedRobot {
 				append("start_position -p", this.startPositionButton);
 
 				// Intake cargo from ground
-				append("floor_cargo_position -p", this.launchpad.getButtonInstance(0, 7));
-				append("cargo_intake -s", this.launchpad.getButtonInstance(0, 7));
-				append("floor_cargo_position -p", this.launchpad.getButtonInstance(0, 8));
-				append("cargo_intake -s", this.launchpad.getButtonInstance(0, 8));
-				append("floor_cargo_position -p", this.launchpad.getButtonInstance(1, 7));
-				append("cargo_intake -s", this.launchpad.getButtonInstance(1, 7));
-				append("floor_cargo_position -p", this.launchpad.getButtonInstance(1, 8));
-				append("cargo_intake -s", this.launchpad.getButtonInstance(1, 8));
-				append("floor_cargo_position -p", this.cargoFloorButton);
-				append("cargo_intake -s", this.cargoFloorButton);
+				CommandGroup floorCargo = CommandGroup.parallel("floor_cargo_position", "cargo_intake");
+				append(floorCargo, this.launchpad.getButtonInstance(0, 7));
+				append(floorCargo, this.launchpad.getButtonInstance(0, 8));
+				append(floorCargo, this.launchpad.getButtonInstance(1, 7));
+				append(floorCargo, this.launchpad.getButtonInstance(1, 8));
+				append(floorCargo, this.cargoFloorButton);
 
 				// Intake hatch from ground
-				append("floor_hatch_position -p", this.launchpad.getButtonInstance(3, 7));
-				append("hatch_station_intake -s", this.launchpad.getButtonInstance(3, 7));
-				append("floor_hatch_position -p", this.launchpad.getButtonInstance(3, 8));
-				append("hatch_station_intake -s", this.launchpad.getButtonInstance(3, 8));
-				append("floor_hatch_position -p", this.launchpad.getButtonInstance(4, 7));
-				append("hatch_station_intake -s", this.launchpad.getButtonInstance(4, 7));
-				append("floor_hatch_position -p", this.launchpad.getButtonInstance(4, 8));
-				append("hatch_station_intake -s", this.launchpad.getButtonInstance(4, 8));
+				CommandGroup floorHatch = CommandGroup.parallel("floor_hatch_position", "hatch_station_intake");
+				append(floorHatch, this.launchpad.getButtonInstance(3, 7));
+				append(floorHatch, this.launchpad.getButtonInstance(3, 8));
+				append(floorHatch, this.launchpad.getButtonInstance(4, 7));
+				append(floorHatch, this.launchpad.getButtonInstance(4, 8));
 
 				// Intake cargo from station
-				append("station_position -p", this.launchpad.getButtonInstance(0, 4));
-				append("cargo_intake -s", this.launchpad.getButtonInstance(0, 4));
-				append("station_position -p", this.launchpad.getButtonInstance(0, 5));
-				append("cargo_intake -s", this.launchpad.getButtonInstance(0, 5));
-				append("station_position -p", this.launchpad.getButtonInstance(1, 4));
-				append("cargo_intake -s", this.launchpad.getButtonInstance(1, 4));
-				append("station_position -p", this.launchpad.getButtonInstance(1, 5));
-				append("cargo_intake -s", this.launchpad.getButtonInstance(1, 5));
-				append("station_position -p", this.cargoStationPositionButton);
-				append("cargo_intake -s", this.cargoStationPositionButton);
+				CommandGroup stationCargo = CommandGroup.parallel("station_position", "cargo_intake");
+				append(stationCargo, this.launchpad.getButtonInstance(0, 4));
+				append(stationCargo, this.launchpad.getButtonInstance(0, 5));
+				append(stationCargo, this.launchpad.getButtonInstance(1, 4));
+				append(stationCargo, this.launchpad.getButtonInstance(1, 5));
+				append(stationCargo, this.cargoStationPositionButton);
 
 				// Intake hatch from station
-				append("station_position -p", this.launchpad.getButtonInstance(3, 4));
-				append("hatch_station_intake -s", this.launchpad.getButtonInstance(3, 4));
-				append("valve_off -s", this.launchpad.getButtonInstance(3, 4));
-				append("station_position -p", this.launchpad.getButtonInstance(3, 5));
-				append("hatch_station_intake -s", this.launchpad.getButtonInstance(3, 5));
-				append("valve_off -s", this.launchpad.getButtonInstance(3, 5));
-				append("station_position -p", this.launchpad.getButtonInstance(4, 4));
-				append("hatch_station_intake -s", this.launchpad.getButtonInstance(4, 4));
-				append("valve_off -s", this.launchpad.getButtonInstance(4, 4));
-				append("station_position -p", this.launchpad.getButtonInstance(4, 5));
-				append("hatch_station_intake -s", this.launchpad.getButtonInstance(4, 5));
-				append("valve_off -s", this.launchpad.getButtonInstance(4, 5));
-				append("station_position -p",  this.hatchStationPositionButton);
-				append("hatch_station_intake -s", this.hatchStationPositionButton);
-				append("valve_off -s", this.hatchStationPositionButton);
+				CommandGroup stationHatch = CommandGroup.parallel("station_position", "hatch_station_intake", "valve_off");
+				append(stationHatch, this.launchpad.getButtonInstance(3, 4));
+				append(stationHatch, this.launchpad.getButtonInstance(3, 5));
+				append(stationHatch, this.launchpad.getButtonInstance(4, 4));
+				append(stationHatch, this.launchpad.getButtonInstance(4, 5));
+				append(stationHatch, this.hatchStationPositionButton);
 
 
 				// Score positions
@@ -145,12 +132,11 @@ public class Robot extends TimedRobot {
 				append("break_mode -s", this.rb);
 
 				// Climber
-				append("climber_up -s", this.launchpad.getButtonInstance(0, 0));
-				append("climber_pump -p", this.launchpad.getButtonInstance(0, 0));
+				CommandGroup climb = CommandGroup.parallel("climber_up", "climber_pump");
+				append(climb, this.launchpad.getButtonInstance(0, 0));
 				append("climber_down -s", this.launchpad.getButtonInstance(1, 0));
 
-				append("climber_up -s", this.climberUpButton);
-				append("climber_pump -p", this.climberUpButton);
+				append(climb, this.climberUpButton);
 				append("climber_down -s", this.climberDownButton);
 
 				// Zero the arm
@@ -172,11 +158,16 @@ public class Robot extends TimedRobot {
 		climber = new Climber();
 
 		// Required to register all subsystems in order to be processed. 
-		controlsProcessor.registerController("DriveTrain", drivetrain);
+		// The drivetrain shares no state with the others so it can have its own partition
+		controlsProcessor.registerController("DriveTrain", drivetrain, kParallelSubsystems ? 1 : 0);
 		controlsProcessor.registerController("Arm", arm);
 		controlsProcessor.registerController("Climber", climber);
 
 		controlsProcessor.start();
+		MotorHealthMonitor.getInstance().start();
+
+		// Every subsystem has declared what it reads from its SparkMaxes by now
+		StatusFramePlanner.getInstance().apply();
 		
 		arm.init();
 
@@ -187,7 +178,7 @@ public class Robot extends TimedRobot {
 				switch (auton_mode){
 					case CARGO:
 						System.out.println("GENERATING LEFT CARGO SPLINE ");
-						NetworkTableInstance.getDefault().getTable("limelight").getEntry("pipeline").setNumber(2);
+						Limelight.getInstance().setPipeline(2);
 						drivetrain.addBackwardsSpline(0, 0, 270, 7, -6,19.9,0, 4,6,12,0,0);
 						break;
 					case ROCKET:
@@ -205,7 +196,7 @@ public class Robot extends TimedRobot {
 			case RIGHT:
 				switch (auton_mode){
 					case CARGO:
-						NetworkTableInstance.getDefault().getTable("limelight").getEntry("pipeline").setNumber(1);
+						Limelight.getInstance().setPipeline(1);
 						drivetrain.addBackwardsSpline(0, 0, 270, 7, 6,19.9,180, 4,6,12,0,0);
 						break;
 					case ROCKET:
@@ -245,6 +236,7 @@ public class Robot extends TimedRobot {
 			controlsProcessor.disable();
 		}
 
+		Devices.getInstance().logOutputWrites();
 	}
 
 	/**
@@ -281,8 +273,7 @@ public class Robot extends TimedRobot {
 	public void autonomousInit() {
 		drivetrain.odometer.reset();
 
-		NetworkTableInstance.getDefault().getTable("limelight").getEntry("camMode").setNumber(0);
-		NetworkTableInstance.getDefault().getTable("limelight").getEntry("ledMode").setNumber(3);
+		Limelight.getInstance().enableVision();
 
 		generalInit();
 		
@@ -339,9 +330,8 @@ public class Robot extends TimedRobot {
 	 */
 	@Override
 	public void teleopInit() {
-		NetworkTableInstance.getDefault().getTable("limelight").getEntry("pipeline").setNumber(0);
-		NetworkTableInstance.getDefault().getTable("limelight").getEntry("camMode").setNumber(1);
-		NetworkTableInstance.getDefault().getTable("limelight").getEntry("ledMode").setNumber(1);
+		Limelight.getInstance().setPipeline(0);
+		Limelight.getInstance().disableVision();
 		if (autonomousCommand != null)
 			autonomousCommand.cancel();
 
@@ -365,8 +355,7 @@ public class Robot extends TimedRobot {
 	 */
 	@Override
 	public void testInit(){
-		NetworkTableInstance.getDefault().getTable("limelight").getEntry("ledMode").setNumber(3);
-		NetworkTableInstance.getDefault().getTable("limelight").getEntry("camMode").setNumber(0);
+		Limelight.getInstance().enableVision();
 	}
 
 	/**
@@ -13,33 +13,33 @@ public class LeftRocket extends AutonTask {
 		super(controlsProcessor);
 
 
-		queueTask("set_angular_offset -s -180");
-		queueTask("hatch_intake -p");
-		queueTask("hatch_true -p");
+		step("offset", "set_angular_offset -180");
+		step("hatch_intake", "hatch_intake").with("offset");
+		step("hatch_true", "hatch_true").with("hatch_intake");
 
-		queueTask("start_path -s");
-		queueTask("delayed_to_position -p 5,100,1.5");
+		step("path_to_rocket", "start_path").after("offset");
+		step("raise_arm", "delayed_to_position 5,100,1.5").with("path_to_rocket");
 
-		queueTask("turn_to_angle_setpoint -s 240");
+		step("face_rocket", "turn_to_angle_setpoint 240").after("path_to_rocket");
 
-		queueTask("auton_vision_align -s 3.64");
-		queueTask("upper_score -p");
-		queueTask("add_backwards_line -p -6.75,21.4,-4.2,24,5,5,0,0");
+		step("align_rocket", "auton_vision_align 3.64").after("face_rocket");
+		step("upper_score", "upper_score").with("align_rocket");
+		step("line_back", "add_backwards_line -6.75,21.4,-4.2,24,5,5,0,0").with("align_rocket");
 
-		queueTask("extake -s");
+		step("extake", "extake").after("align_rocket", "upper_score");
 
-		queueTask("start_path -s");
+		step("path_back", "start_path").after("extake", "line_back");
 
-		queueTask("turn_to_angle_setpoint -s 270");
-		queueTask("add_forwards_spline -p -4.2,24,270,6,-6.5,5,270,6,7,12,0,5");
+		step("face_station", "turn_to_angle_setpoint 270").after("path_back");
+		step("spline_station", "add_forwards_spline -4.2,24,270,6,-6.5,5,270,6,7,12,0,5").with("face_station");
 
-		queueTask("set_current_position -s -4.2,24.4");
+		step("set_position", "set_current_position -4.2,24.4").after("face_station", "spline_station");
 
-		queueTask("start_endless_path -s");
-		queueTask("station_position -p");
+		step("path_to_station", "start_endless_path").after("set_position");
+		step("station_position", "station_position").with("path_to_station");
 
-		queueTask("hatch_station_intake -s");
-		queueTask("auton_vision_align -p 4.2");  // Old: 3.5
+		step("station_intake", "hatch_station_intake").after("path_to_station");
+		step("align_station", "auton_vision_align 4.2").with("station_intake");  // Old: 3.5
 
 	}
 }
@@ -0,0 +1,23 @@
+package frc.robot.hal;
+
+import com.revrobotics.CANError;
+import com.revrobotics.ControlType;
+
+/**
+ * PID loop running on a motor controller
+ */
+public interface ClosedLoopController {
+
+	/**
+	 * @param value Setpoint in the units of the control type
+	 * @param controlType Position, velocity, voltage or duty cycle
+	 */
+	CANError setReference(double value, ControlType controlType);
+
+	CANError setP(double gain);
+	CANError setI(double gain);
+	CANError setD(double gain);
+	CANError setIZone(double zone);
+	CANError setFF(double gain);
+	CANError setOutputRange(double min, double max);
+}
@@ -0,0 +1,103 @@
+package frc.robot.hal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.revrobotics.CANSparkMaxLowLevel.MotorType;
+
+import frc.robot.util.Logger;
+
+/**
+ * Creates the devices used by the subsystems. The robot gets the real hardware, simulations
+ * install SimulatedDevices before the subsystems are created so they run without a roboRIO.
+ */
+public abstract class Devices {
+
+	private static final Logger log = Logger.getLogger("Devices");
+
+	// Longest an output goes without its value being sent again
+	private static final long kKeepAliveNanoseconds = 100000000;
+
+	private static Devices instance;
+
+	// Filter of every output created, for the write counts
+	private final ArrayList<OutputFilter> outputFilters = new ArrayList<>();
+
+	/**
+	 * @return Devices the subsystems are built from, the real hardware unless replaced
+	 */
+	public static synchronized Devices getInstance() {
+		if (instance == null) {
+			instance = new RealDevices();
+		}
+		return instance;
+	}
+
+	/**
+	 * Replaces the devices, has to be called before the subsystems are created
+	 * @param devices Devices the subsystems will use
+	 */
+	public static synchronized void setInstance(Devices devices) {
+		instance = devices;
+	}
+
+	/**
+	 * @param deviceId CAN id
+	 * @param type Brushed or brushless
+	 */
+	public abstract MotorController sparkMax(int deviceId, MotorType type);
+
+	/**
+	 * @param channelA DIO channel of the A phase
+	 * @param channelB DIO channel of the B phase
+	 * @param reversed True to invert the counting direction
+	 */
+	public abstract Encoder shaftEncoder(int channelA, int channelB, boolean reversed);
+
+	/**
+	 * @return navX on the MXP port
+	 */
+	public abstract Gyro navX();
+
+	/**
+	 * @param channel PWM channel
+	 */
+	public abstract PWMOutput servo(int channel);
+
+	/**
+	 * @param channel PWM channel
+	 */
+	public abstract PWMOutput spark(int channel);
+
+	/**
+	 * Creates the filter that skips unchanged writes to an output
+	 * @param name Name of the device in the write counts
+	 */
+	protected synchronized OutputFilter outputFilter(String name) {
+		OutputFilter filter = new OutputFilter(name, kKeepAliveNanoseconds);
+		outputFilters.add(filter);
+		return filter;
+	}
+
+	/**
+	 * @return Filters of every output created so far
+	 */
+	public synchronized List<OutputFilter> getOutputFilters() {
+		return new ArrayList<>(outputFilters);
+	}
+
+	/**
+	 * Logs how many writes each output sent and skipped
+	 */
+	public void logOutputWrites() {
+		long writes = 0;
+		long skipped = 0;
+
+		for (OutputFilter filter : getOutputFilters()) {
+			log.info("{} writes sent {}, skipped {}", filter.getName(), filter.getWrites(), filter.getSkipped());
+			writes += filter.getWrites();
+			skipped += filter.getSkipped();
+		}
+		log.info("Output writes sent {}, skipped {}", writes, skipped);
+	}
+}
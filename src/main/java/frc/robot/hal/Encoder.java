@@ -0,0 +1,27 @@
+package frc.robot.hal;
+
+/**
+ * Position sensor, either a motor's built in encoder or a shaft encoder on the DIO ports
+ */
+public interface Encoder {
+
+	/**
+	 * @return Position scaled by the conversion factor
+	 */
+	double getPosition();
+
+	/**
+	 * @return Velocity, in conversion factor units per second for shaft encoders and RPM for motor encoders
+	 */
+	double getVelocity();
+
+	/**
+	 * Sets the current position, shaft encoders can only be reset so the offset is kept in software
+	 */
+	void setPosition(double position);
+
+	/**
+	 * @param factor Distance per pulse for shaft encoders, units per rotation for motor encoders
+	 */
+	void setPositionConversionFactor(double factor);
+}
@@ -0,0 +1,29 @@
+package frc.robot.hal;
+
+/**
+ * Heading sensor with the navX conventions
+ */
+public interface Gyro {
+
+	/**
+	 * @return Yaw in degrees between -180 and 180, clockwise positive
+	 */
+	double getYaw();
+
+	/**
+	 * @return Yaw rate in degrees per second, clockwise positive
+	 */
+	double getRate();
+
+	/**
+	 * Makes the current heading read as a yaw of zero
+	 */
+	void zeroYaw();
+
+	/**
+	 * Resets the gyro, also zeroes the yaw
+	 */
+	void reset();
+
+	boolean isConnected();
+}
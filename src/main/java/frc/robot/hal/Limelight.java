@@ -0,0 +1,207 @@
+package frc.robot.hal;
+
+import edu.wpi.first.networktables.EntryListenerFlags;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableEntry;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import frc.robot.util.Clock;
+
+/**
+ * Client for the limelight's NetworkTables interface. Entries are looked up once, and every
+ * camera frame is published as one immutable Target by listeners on the NetworkTables thread.
+ * Reading the target never touches NetworkTables.
+ */
+public class Limelight {
+
+	// Time from the start of the exposure to the start of the pipeline, from the limelight docs
+	private static final double kCaptureLatency = 0.011;
+
+	private static final int kLedOff = 1;
+	private static final int kLedOn = 3;
+	private static final int kCamVision = 0;
+	private static final int kCamDriver = 1;
+
+	private static Limelight instance;
+
+	/**
+	 * One published measurement
+	 */
+	public static class Target {
+		private final boolean valid;
+		private final double tx;
+		private final double ty;
+		private final double ta;
+		private final double latency;
+		private final long timestamp;
+		private final long frame;
+
+		Target(boolean valid, double tx, double ty, double ta, double latency, long timestamp, long frame) {
+			this.valid = valid;
+			this.tx = tx;
+			this.ty = ty;
+			this.ta = ta;
+			this.latency = latency;
+			this.timestamp = timestamp;
+			this.frame = frame;
+		}
+
+		/**
+		 * @return True if the limelight sees a target
+		 */
+		public boolean isValid() {
+			return valid;
+		}
+
+		/**
+		 * @return Horizontal offset to the target in degrees
+		 */
+		public double getTx() {
+			return tx;
+		}
+
+		/**
+		 * @return Vertical offset to the target in degrees
+		 */
+		public double getTy() {
+			return ty;
+		}
+
+		/**
+		 * @return Target area in percent of the image
+		 */
+		public double getTa() {
+			return ta;
+		}
+
+		/**
+		 * @return Seconds from the image being captured to the measurement being received
+		 */
+		public double getLatency() {
+			return latency;
+		}
+
+		/**
+		 * @return Clock time when the measurement was received, 0 if nothing has been
+		 */
+		public long getTimestamp() {
+			return timestamp;
+		}
+
+		/**
+		 * @return Clock time when the image was captured
+		 */
+		public long getCaptureTime() {
+			return timestamp - (long) (latency * 1e9);
+		}
+
+		/**
+		 * @return Number of the frame counted from 1, 0 if nothing has been received
+		 */
+		public long getFrame() {
+			return frame;
+		}
+	}
+
+	private final NetworkTableEntry tv;
+	private final NetworkTableEntry tx;
+	private final NetworkTableEntry ty;
+	private final NetworkTableEntry ta;
+	private final NetworkTableEntry tl;
+	private final NetworkTableEntry ledMode;
+	private final NetworkTableEntry camMode;
+	private final NetworkTableEntry pipeline;
+
+	private final Clock clock = Clock.getInstance();
+
+	private volatile Target target = new Target(false, 0, 0, 0, 0, 0, 0);
+
+	// Frames received and the values of the last one, only used on the NetworkTables thread
+	private long frames = 0;
+	private double lastTv = Double.NaN;
+	private double lastTx = Double.NaN;
+	private double lastTy = Double.NaN;
+	private double lastTa = Double.NaN;
+	private double lastTl = Double.NaN;
+
+	/**
+	 * @return The robot's limelight, created on first use so nothing needs NetworkTables until then
+	 */
+	public static synchronized Limelight getInstance() {
+		if (instance == null) {
+			instance = new Limelight(NetworkTableInstance.getDefault().getTable("limelight"));
+		}
+		return instance;
+	}
+
+	/**
+	 * @param table Table the limelight publishes to
+	 */
+	public Limelight(NetworkTable table) {
+		tv = table.getEntry("tv");
+		tx = table.getEntry("tx");
+		ty = table.getEntry("ty");
+		ta = table.getEntry("ta");
+		tl = table.getEntry("tl");
+		ledMode = table.getEntry("ledMode");
+		camMode = table.getEntry("camMode");
+		pipeline = table.getEntry("pipeline");
+
+		// NetworkTables only notifies an entry whose value changed, so any of them can be the one
+		// that marks a new frame. A frame's values are all stored before its notifications are
+		// delivered, the first one publishes the frame and the others find nothing new.
+		for (NetworkTableEntry entry : new NetworkTableEntry[] {tv, tx, ty, ta, tl}) {
+			entry.addListener(notification -> update(),
+					EntryListenerFlags.kImmediate | EntryListenerFlags.kNew | EntryListenerFlags.kUpdate);
+		}
+	}
+
+	/**
+	 * Publishes the frame that has just been received as one Target, unless it was already
+	 */
+	private void update() {
+		double valid = tv.getDouble(0);
+		double x = tx.getDouble(0);
+		double y = ty.getDouble(0);
+		double area = ta.getDouble(0);
+		double pipelineLatency = tl.getDouble(0);
+
+		if (valid == lastTv && x == lastTx && y == lastTy && area == lastTa && pipelineLatency == lastTl) {
+			return;
+		}
+		lastTv = valid;
+		lastTx = x;
+		lastTy = y;
+		lastTa = area;
+		lastTl = pipelineLatency;
+
+		frames++;
+		target = new Target(valid != 0, x, y, area, pipelineLatency / 1000 + kCaptureLatency, clock.nanoTime(), frames);
+	}
+
+	/**
+	 * @return Latest measurement, never null
+	 */
+	public Target getTarget() {
+		return target;
+	}
+
+	/**
+	 * Turns the LEDs on and runs the vision pipeline
+	 */
+	public void enableVision() {
+		ledMode.setNumber(kLedOn);
+		camMode.setNumber(kCamVision);
+	}
+
+	/**
+	 * Turns the LEDs off and switches to the driver camera
+	 */
+	public void disableVision() {
+		camMode.setNumber(kCamDriver);
+		ledMode.setNumber(kLedOff);
+	}
+
+	public void setPipeline(int index) {
+		pipeline.setNumber(index);
+	}
+}
@@ -0,0 +1,46 @@
+package frc.robot.hal;
+
+import com.revrobotics.CANError;
+import com.revrobotics.CANSparkMax;
+import com.revrobotics.CANSparkMaxLowLevel;
+
+import edu.wpi.first.wpilibj.SpeedController;
+
+/**
+ * SparkMax motor controller, implemented by the real CAN device and by SimulatedMotor
+ */
+public interface MotorController extends SpeedController {
+
+	int getDeviceId();
+
+	/**
+	 * Makes this controller mirror the output of the leader
+	 */
+	CANError follow(MotorController leader);
+
+	CANError setIdleMode(CANSparkMax.IdleMode mode);
+	CANError setSmartCurrentLimit(int limit);
+	CANError enableVoltageCompensation(double nominalVoltage);
+	CANError setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame frame, int periodMs);
+
+	double getOutputCurrent();
+	double getBusVoltage();
+	double getMotorTemperature();
+	double getAppliedOutput();
+
+	boolean getFault(CANSparkMax.FaultID faultID);
+	boolean getStickyFault(CANSparkMax.FaultID faultID);
+	short getFaults();
+	short getStickyFaults();
+	CANError clearFaults();
+
+	/**
+	 * @return Encoder built into the motor
+	 */
+	Encoder getEncoder();
+
+	/**
+	 * @return Closed loop controller running on the motor controller
+	 */
+	ClosedLoopController getPIDController();
+}
@@ -0,0 +1,267 @@
+package frc.robot.hal;
+
+import java.util.ArrayList;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.revrobotics.CANSparkMax;
+
+import frc.robot.util.Clock;
+import frc.robot.util.Logger;
+
+/**
+ * Reads the faults, temperature and bus voltage of every registered motor controller on a
+ * background thread at a low rate, so none of those CAN reads happen on the controls processor
+ * thread. Each pass publishes an immutable snapshot, and listeners are told when a sticky fault
+ * is raised or a motor gets hot.
+ */
+public class MotorHealthMonitor extends Thread {
+
+	private static final Logger log = Logger.getLogger("MotorHealthMonitor");
+
+	// Default time between passes over all the motors
+	private static final long kDefaultPeriodMilliseconds = 250;
+
+	// Motor temperature in degrees celsius that raises an overheating event
+	private static final double kTemperatureWarning = 80;
+
+	private static MotorHealthMonitor instance;
+
+	/**
+	 * Health of one motor controller when it was read
+	 */
+	public static class Status {
+		private final String name;
+		private final int deviceId;
+		private final short faults;
+		private final short stickyFaults;
+		private final double temperature;
+		private final double busVoltage;
+		private final double outputCurrent;
+
+		Status(String name, MotorController motor) {
+			this.name = name;
+			this.deviceId = motor.getDeviceId();
+			this.faults = motor.getFaults();
+			this.stickyFaults = motor.getStickyFaults();
+			this.temperature = motor.getMotorTemperature();
+			this.busVoltage = motor.getBusVoltage();
+			this.outputCurrent = motor.getOutputCurrent();
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public int getDeviceId() {
+			return deviceId;
+		}
+
+		public boolean getFault(CANSparkMax.FaultID faultID) {
+			return (faults & (1 << faultID.ordinal())) != 0;
+		}
+
+		public boolean getStickyFault(CANSparkMax.FaultID faultID) {
+			return (stickyFaults & (1 << faultID.ordinal())) != 0;
+		}
+
+		public short getFaults() {
+			return faults;
+		}
+
+		public short getStickyFaults() {
+			return stickyFaults;
+		}
+
+		public double getTemperature() {
+			return temperature;
+		}
+
+		public double getBusVoltage() {
+			return busVoltage;
+		}
+
+		public double getOutputCurrent() {
+			return outputCurrent;
+		}
+	}
+
+	/**
+	 * Health of every registered motor from one pass
+	 */
+	public static class Snapshot {
+		private final long timestamp;
+		private final Status[] motors;
+
+		Snapshot(long timestamp, Status[] motors) {
+			this.timestamp = timestamp;
+			this.motors = motors;
+		}
+
+		/**
+		 * @return Clock time of the pass
+		 */
+		public long getTimestamp() {
+			return timestamp;
+		}
+
+		public int size() {
+			return motors.length;
+		}
+
+		public Status get(int index) {
+			return motors[index];
+		}
+
+		/**
+		 * @return Status of the motor with the CAN id, null if it isn't registered
+		 */
+		public Status getByDeviceId(int deviceId) {
+			for (Status motor : motors) {
+				if (motor.getDeviceId() == deviceId) {
+					return motor;
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * @return Lowest bus voltage seen by any motor controller
+		 */
+		public double getMinimumBusVoltage() {
+			double minimum = Double.MAX_VALUE;
+			for (Status motor : motors) {
+				minimum = Math.min(minimum, motor.getBusVoltage());
+			}
+			return motors.length > 0 ? minimum : 0;
+		}
+	}
+
+	/**
+	 * Told about health changes, called on the monitor thread so it has to be quick
+	 */
+	public static abstract class Listener {
+		/**
+		 * A sticky fault that wasn't set on the last pass is now set
+		 */
+		public void faultRaised(Status motor, CANSparkMax.FaultID fault) {}
+
+		/**
+		 * The motor's temperature has gone over the warning temperature
+		 */
+		public void overheated(Status motor) {}
+	}
+
+	private final long periodMilliseconds;
+
+	private final ArrayList<String> names = new ArrayList<>();
+	private final ArrayList<MotorController> motors = new ArrayList<>();
+	private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+
+	private volatile Snapshot snapshot = new Snapshot(0, new Status[0]);
+
+	/**
+	 * @return The monitor the subsystems register their motors with
+	 */
+	public static synchronized MotorHealthMonitor getInstance() {
+		if (instance == null) {
+			instance = new MotorHealthMonitor(kDefaultPeriodMilliseconds);
+		}
+		return instance;
+	}
+
+	/**
+	 * Replaces the shared monitor, has to be called before the subsystems are created
+	 */
+	public static synchronized void setInstance(MotorHealthMonitor monitor) {
+		instance = monitor;
+	}
+
+	/**
+	 * @param periodMilliseconds Time between passes over all the motors
+	 */
+	public MotorHealthMonitor(long periodMilliseconds) {
+		super("MotorHealthMonitor");
+		setDaemon(true);
+		setPriority(Thread.MIN_PRIORITY);
+
+		this.periodMilliseconds = periodMilliseconds;
+	}
+
+	/**
+	 * Adds a motor to be watched
+	 * @param name Name used in the log
+	 */
+	public synchronized void register(String name, MotorController motor) {
+		names.add(name);
+		motors.add(motor);
+
+		int period = (int) periodMilliseconds;
+		StatusFramePlanner planner = StatusFramePlanner.getInstance();
+		planner.require(name, motor, StatusFramePlanner.Signal.FAULTS, period, "health monitor");
+		planner.require(name, motor, StatusFramePlanner.Signal.TEMPERATURE, period, "health monitor");
+		planner.require(name, motor, StatusFramePlanner.Signal.BUS_VOLTAGE, period, "health monitor");
+		planner.require(name, motor, StatusFramePlanner.Signal.CURRENT, period, "health monitor");
+	}
+
+	public void addListener(Listener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * @return Health from the latest pass, never null
+	 */
+	public Snapshot getSnapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * Reads every motor once, publishes the snapshot and raises events.
+	 * Called by the monitor thread, or directly when the thread isn't running.
+	 */
+	public synchronized void poll() {
+		Snapshot previous = snapshot;
+
+		Status[] statuses = new Status[motors.size()];
+		for (int i = 0; i < statuses.length; i++) {
+			statuses[i] = new Status(names.get(i), motors.get(i));
+		}
+		snapshot = new Snapshot(Clock.getInstance().nanoTime(), statuses);
+
+		for (int i = 0; i < statuses.length; i++) {
+			Status now = statuses[i];
+			Status before = i < previous.size() ? previous.get(i) : null;
+
+			int raised = now.getStickyFaults() & ~(before != null ? before.getStickyFaults() : 0);
+			if (raised != 0) {
+				for (CANSparkMax.FaultID fault : CANSparkMax.FaultID.values()) {
+					if ((raised & (1 << fault.ordinal())) != 0) {
+						log.warn("{} sticky fault {}", now.getName(), fault);
+						for (Listener listener : listeners) {
+							listener.faultRaised(now, fault);
+						}
+					}
+				}
+			}
+
+			if (now.getTemperature() >= kTemperatureWarning && (before == null || before.getTemperature() < kTemperatureWarning)) {
+				log.warn("{} is overheating", now.getName());
+				for (Listener listener : listeners) {
+					listener.overheated(now);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void run() {
+		while (true) {
+			poll();
+
+			try {
+				Thread.sleep(periodMilliseconds);
+			} catch (InterruptedException e) {
+				return;
+			}
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package frc.robot.hal;
+
+import frc.robot.util.Clock;
+
+/**
+ * Remembers the last value sent to an output so writes that wouldn't change anything can be
+ * skipped. An unchanged value is still sent once per keep-alive period so the device never goes
+ * long without hearing from the robot. Counts the writes that were sent and skipped.
+ */
+public class OutputFilter {
+
+	private final String name;
+	private final long keepAliveNanoseconds;
+	private final Clock clock = Clock.getInstance();
+
+	private double lastValue;
+	private int lastMode;
+	private long lastWrite;
+	private boolean valid = false;
+
+	private long writes = 0;
+	private long skipped = 0;
+
+	/**
+	 * @param name Name of the device in the write counts
+	 * @param keepAliveNanoseconds Longest time an unchanged value goes without being sent
+	 */
+	public OutputFilter(String name, long keepAliveNanoseconds) {
+		this.name = name;
+		this.keepAliveNanoseconds = keepAliveNanoseconds;
+	}
+
+	/**
+	 * @param value Value about to be written
+	 * @param mode Anything that changes how the device uses the value, such as the control type
+	 * @return True if the write has to be sent
+	 */
+	public boolean write(double value, int mode) {
+		long now = clock.nanoTime();
+
+		if (valid && value == lastValue && mode == lastMode && now - lastWrite < keepAliveNanoseconds) {
+			skipped++;
+			return false;
+		}
+
+		lastValue = value;
+		lastMode = mode;
+		lastWrite = now;
+		valid = true;
+		writes++;
+		return true;
+	}
+
+	/**
+	 * Forgets the last value so the next write is sent, called when the device's output was
+	 * changed some other way
+	 */
+	public void invalidate() {
+		valid = false;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return Number of writes sent to the device
+	 */
+	public long getWrites() {
+		return writes;
+	}
+
+	/**
+	 * @return Number of writes skipped because nothing changed
+	 */
+	public long getSkipped() {
+		return skipped;
+	}
+}
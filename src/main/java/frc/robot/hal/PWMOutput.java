@@ -0,0 +1,14 @@
+package frc.robot.hal;
+
+/**
+ * PWM device driven by a single value, a servo or the Blinkin LED driver
+ */
+public interface PWMOutput {
+
+	/**
+	 * @param value Servo position from 0 to 1, or speed from -1 to 1 for a speed controller
+	 */
+	void set(double value);
+
+	double get();
+}
@@ -0,0 +1,123 @@
+package frc.robot.hal;
+
+import com.kauailabs.navx.frc.AHRS;
+import com.revrobotics.CANSparkMaxLowLevel.MotorType;
+
+import edu.wpi.first.wpilibj.CounterBase.EncodingType;
+import edu.wpi.first.wpilibj.SPI;
+import edu.wpi.first.wpilibj.Servo;
+import edu.wpi.first.wpilibj.Spark;
+
+/**
+ * The robot's hardware
+ */
+public class RealDevices extends Devices {
+
+	@Override
+	public MotorController sparkMax(int deviceId, MotorType type) {
+		return new SparkMaxController(deviceId, type, outputFilter("SparkMax " + deviceId));
+	}
+
+	@Override
+	public Encoder shaftEncoder(int channelA, int channelB, boolean reversed) {
+		final edu.wpi.first.wpilibj.Encoder encoder = new edu.wpi.first.wpilibj.Encoder(channelA, channelB, reversed, EncodingType.k4X);
+
+		return new Encoder() {
+			// The FPGA counter can only be reset, positions other than zero are an offset
+			private double offset = 0;
+
+			@Override
+			public double getPosition() {
+				return encoder.getDistance() + offset;
+			}
+
+			@Override
+			public double getVelocity() {
+				return encoder.getRate();
+			}
+
+			@Override
+			public void setPosition(double position) {
+				encoder.reset();
+				offset = position;
+			}
+
+			@Override
+			public void setPositionConversionFactor(double factor) {
+				encoder.setDistancePerPulse(factor);
+			}
+		};
+	}
+
+	@Override
+	public Gyro navX() {
+		final AHRS ahrs = new AHRS(SPI.Port.kMXP);
+
+		return new Gyro() {
+			@Override
+			public double getYaw() {
+				return ahrs.getYaw();
+			}
+
+			@Override
+			public double getRate() {
+				return ahrs.getRate();
+			}
+
+			@Override
+			public void zeroYaw() {
+				ahrs.zeroYaw();
+			}
+
+			@Override
+			public void reset() {
+				ahrs.reset();
+			}
+
+			@Override
+			public boolean isConnected() {
+				return ahrs.isConnected();
+			}
+		};
+	}
+
+	@Override
+	public PWMOutput servo(int channel) {
+		final Servo servo = new Servo(channel);
+		final OutputFilter filter = outputFilter("Servo " + channel);
+
+		return new PWMOutput() {
+			@Override
+			public void set(double value) {
+				if (filter.write(value, 0)) {
+					servo.set(value);
+				}
+			}
+
+			@Override
+			public double get() {
+				return servo.get();
+			}
+		};
+	}
+
+	@Override
+	public PWMOutput spark(int channel) {
+		final Spark spark = new Spark(channel);
+		final OutputFilter filter = outputFilter("Spark " + channel);
+
+		return new PWMOutput() {
+			@Override
+			public void set(double value) {
+				if (filter.write(value, 0)) {
+					spark.set(value);
+				}
+			}
+
+			@Override
+			public double get() {
+				return spark.get();
+			}
+		};
+	}
+}
@@ -0,0 +1,127 @@
+package frc.robot.hal;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import com.revrobotics.CANSparkMaxLowLevel.MotorType;
+
+/**
+ * Devices that live in memory, for running the subsystems on a desktop. Every device the robot
+ * code creates is kept so a plant model can look it up by its id or channel, read the outputs
+ * and write the sensors. Sensors are delayed and noisy according to the defaults given here,
+ * individual signals can be changed afterwards.
+ */
+public class SimulatedDevices extends Devices {
+
+	private final double latency;
+	private final double noise;
+	private final Random random;
+
+	// Seconds since the simulation started, moved forward by the harness
+	private double time = 0;
+
+	private final HashMap<Integer, SimulatedMotor> motors = new HashMap<>();
+	private final HashMap<Integer, SimulatedEncoder> shaftEncoders = new HashMap<>();
+	private final HashMap<Integer, SimulatedPWM> pwmOutputs = new HashMap<>();
+	private SimulatedGyro gyro;
+
+	/**
+	 * Ideal sensors with no latency or noise
+	 */
+	public SimulatedDevices() {
+		this(0, 0, 0);
+	}
+
+	/**
+	 * @param latency Seconds between the plant writing a sensor and the robot code seeing it
+	 * @param noise Standard deviation of the noise added to every sensor read, in the sensor's units
+	 * @param seed Seed of the noise so runs are repeatable
+	 */
+	public SimulatedDevices(double latency, double noise, long seed) {
+		this.latency = latency;
+		this.noise = noise;
+		this.random = new Random(seed);
+	}
+
+	/**
+	 * Moves the simulated time forward
+	 * @param seconds Time step
+	 */
+	public void advance(double seconds) {
+		time += seconds;
+	}
+
+	public double getTime() {
+		return time;
+	}
+
+	private SimulatedSignal signal() {
+		return new SimulatedSignal(this, latency, noise, random);
+	}
+
+	@Override
+	public MotorController sparkMax(int deviceId, MotorType type) {
+		SimulatedMotor motor = new SimulatedMotor(deviceId, outputFilter("SparkMax " + deviceId), signal(), new SimulatedEncoder(signal(), signal(), false));
+		motors.put(deviceId, motor);
+		return motor;
+	}
+
+	@Override
+	public Encoder shaftEncoder(int channelA, int channelB, boolean reversed) {
+		SimulatedEncoder encoder = new SimulatedEncoder(signal(), signal(), true);
+		shaftEncoders.put(channelA, encoder);
+		return encoder;
+	}
+
+	@Override
+	public Gyro navX() {
+		if (gyro == null) {
+			gyro = new SimulatedGyro(signal(), signal());
+		}
+		return gyro;
+	}
+
+	@Override
+	public PWMOutput servo(int channel) {
+		return pwm(channel);
+	}
+
+	@Override
+	public PWMOutput spark(int channel) {
+		return pwm(channel);
+	}
+
+	private SimulatedPWM pwm(int channel) {
+		SimulatedPWM output = new SimulatedPWM(outputFilter("PWM " + channel));
+		pwmOutputs.put(channel, output);
+		return output;
+	}
+
+	/**
+	 * @return Motor with the CAN id, null if the robot code hasn't created it
+	 */
+	public SimulatedMotor getMotor(int deviceId) {
+		return motors.get(deviceId);
+	}
+
+	/**
+	 * @return Shaft encoder on the A channel, null if the robot code hasn't created it
+	 */
+	public SimulatedEncoder getShaftEncoder(int channelA) {
+		return shaftEncoders.get(channelA);
+	}
+
+	/**
+	 * @return The navX, null if the robot code hasn't created it
+	 */
+	public SimulatedGyro getGyro() {
+		return gyro;
+	}
+
+	/**
+	 * @return Servo or PWM motor controller on the channel, null if the robot code hasn't created it
+	 */
+	public SimulatedPWM getPWM(int channel) {
+		return pwmOutputs.get(channel);
+	}
+}
@@ -0,0 +1,64 @@
+package frc.robot.hal;
+
+/**
+ * Encoder fed by a plant model. The plant writes native units, motor rotations and RPM or
+ * shaft encoder pulses and pulses per second, which are scaled by the conversion factor on read.
+ * The counting direction is the plant's responsibility.
+ */
+public class SimulatedEncoder implements Encoder {
+
+	private final SimulatedSignal position;
+	private final SimulatedSignal velocity;
+
+	// Shaft encoders scale velocity by the distance per pulse, motor encoders report RPM
+	private final boolean scaleVelocity;
+
+	private double conversionFactor = 1;
+	private double offset = 0;
+
+	SimulatedEncoder(SimulatedSignal position, SimulatedSignal velocity, boolean scaleVelocity) {
+		this.position = position;
+		this.velocity = velocity;
+		this.scaleVelocity = scaleVelocity;
+	}
+
+	/**
+	 * Called by the plant with the true position and velocity
+	 */
+	public void update(double nativePosition, double nativeVelocity) {
+		position.write(nativePosition);
+		velocity.write(nativeVelocity);
+	}
+
+	public double getConversionFactor() {
+		return conversionFactor;
+	}
+
+	public SimulatedSignal getPositionSignal() {
+		return position;
+	}
+
+	public SimulatedSignal getVelocitySignal() {
+		return velocity;
+	}
+
+	@Override
+	public double getPosition() {
+		return position.read() * conversionFactor + offset;
+	}
+
+	@Override
+	public double getVelocity() {
+		return velocity.read() * (scaleVelocity ? conversionFactor : 1);
+	}
+
+	@Override
+	public void setPosition(double newPosition) {
+		offset = newPosition - position.readExact() * conversionFactor;
+	}
+
+	@Override
+	public void setPositionConversionFactor(double factor) {
+		conversionFactor = factor;
+	}
+}
@@ -0,0 +1,73 @@
+package frc.robot.hal;
+
+/**
+ * navX fed by a plant model
+ */
+public class SimulatedGyro implements Gyro {
+
+	private final SimulatedSignal yaw;
+	private final SimulatedSignal rate;
+
+	// Plant yaw that reads as zero
+	private double zero = 0;
+
+	private boolean connected = true;
+
+	SimulatedGyro(SimulatedSignal yaw, SimulatedSignal rate) {
+		this.yaw = yaw;
+		this.rate = rate;
+	}
+
+	/**
+	 * Called by the plant
+	 * @param totalYaw Heading in degrees, clockwise positive and not wrapped
+	 * @param yawRate Degrees per second, clockwise positive
+	 */
+	public void update(double totalYaw, double yawRate) {
+		yaw.write(totalYaw);
+		rate.write(yawRate);
+	}
+
+	public void setConnected(boolean connected) {
+		this.connected = connected;
+	}
+
+	public SimulatedSignal getYawSignal() {
+		return yaw;
+	}
+
+	public SimulatedSignal getRateSignal() {
+		return rate;
+	}
+
+	@Override
+	public double getYaw() {
+		double relative = yaw.read() - zero;
+
+		relative %= 360;
+		if (relative > 180) relative -= 360;
+		if (relative <= -180) relative += 360;
+
+		return relative;
+	}
+
+	@Override
+	public double getRate() {
+		return rate.read();
+	}
+
+	@Override
+	public void zeroYaw() {
+		zero = yaw.readExact();
+	}
+
+	@Override
+	public void reset() {
+		zeroYaw();
+	}
+
+	@Override
+	public boolean isConnected() {
+		return connected;
+	}
+}
@@ -0,0 +1,347 @@
+package frc.robot.hal;
+
+import com.revrobotics.CANError;
+import com.revrobotics.CANSparkMax;
+import com.revrobotics.CANSparkMaxLowLevel;
+import com.revrobotics.ControlType;
+
+/**
+ * SparkMax that records what the robot code asked of it. A plant model reads the commanded
+ * output or closed loop reference and writes back the current and the built-in encoder.
+ */
+public class SimulatedMotor implements MotorController {
+
+	// Output filter mode of set, setReference uses the control type's ordinal
+	private static final int kSetMode = -1;
+
+	private final int deviceId;
+	private final OutputFilter outputFilter;
+
+	private double output = 0;
+	private boolean inverted = false;
+	private SimulatedMotor leader;
+
+	private ControlType controlType = ControlType.kDutyCycle;
+	private double reference = 0;
+	private double appliedOutput = 0;
+
+	private double p, i, d, iZone, ff;
+	private double minOutput = -1, maxOutput = 1;
+
+	private CANSparkMax.IdleMode idleMode = CANSparkMax.IdleMode.kCoast;
+	private int currentLimit = 80;
+	private double nominalVoltage = 0;
+
+	private short faults = 0;
+	private short stickyFaults = 0;
+	private double busVoltage = 12;
+	private double temperature = 25;
+
+	private final SimulatedSignal current;
+	private final SimulatedEncoder encoder;
+
+	private final ClosedLoopController pidController = new ClosedLoopController() {
+		@Override
+		public CANError setReference(double value, ControlType type) {
+			if (!outputFilter.write(value, type.ordinal())) {
+				return CANError.kOK;
+			}
+			reference = value;
+			controlType = type;
+			return CANError.kOK;
+		}
+
+		@Override
+		public CANError setP(double gain) {
+			p = gain;
+			return CANError.kOK;
+		}
+
+		@Override
+		public CANError setI(double gain) {
+			i = gain;
+			return CANError.kOK;
+		}
+
+		@Override
+		public CANError setD(double gain) {
+			d = gain;
+			return CANError.kOK;
+		}
+
+		@Override
+		public CANError setIZone(double zone) {
+			iZone = zone;
+			return CANError.kOK;
+		}
+
+		@Override
+		public CANError setFF(double gain) {
+			ff = gain;
+			return CANError.kOK;
+		}
+
+		@Override
+		public CANError setOutputRange(double min, double max) {
+			minOutput = min;
+			maxOutput = max;
+			return CANError.kOK;
+		}
+	};
+
+	SimulatedMotor(int deviceId, OutputFilter outputFilter, SimulatedSignal current, SimulatedEncoder encoder) {
+		this.deviceId = deviceId;
+		this.outputFilter = outputFilter;
+		this.current = current;
+		this.encoder = encoder;
+	}
+
+	// Plant side
+
+	/**
+	 * @return Control mode of the motor, the leader's if following
+	 */
+	public ControlType getControlType() {
+		return leader != null ? leader.getControlType() : controlType;
+	}
+
+	/**
+	 * @return Closed loop setpoint or duty cycle, the leader's if following
+	 */
+	public double getReference() {
+		return leader != null ? leader.getReference() : reference;
+	}
+
+	/**
+	 * @return Duty cycle commanded by set with inversion applied, the leader's if following
+	 */
+	public double getCommandedOutput() {
+		if (leader != null) {
+			return leader.getCommandedOutput();
+		}
+		return inverted ? -output : output;
+	}
+
+	public SimulatedMotor getLeader() {
+		return leader;
+	}
+
+	public double getP() {
+		return p;
+	}
+
+	public double getI() {
+		return i;
+	}
+
+	public double getD() {
+		return d;
+	}
+
+	public double getIZone() {
+		return iZone;
+	}
+
+	public double getFF() {
+		return ff;
+	}
+
+	public double getMinOutput() {
+		return minOutput;
+	}
+
+	public double getMaxOutput() {
+		return maxOutput;
+	}
+
+	public CANSparkMax.IdleMode getIdleMode() {
+		return idleMode;
+	}
+
+	public int getCurrentLimit() {
+		return currentLimit;
+	}
+
+	public double getNominalVoltage() {
+		return nominalVoltage;
+	}
+
+	public SimulatedSignal getCurrentSignal() {
+		return current;
+	}
+
+	public SimulatedEncoder getSimulatedEncoder() {
+		return encoder;
+	}
+
+	/**
+	 * Called by the plant with the duty cycle a closed loop mode ended up applying
+	 */
+	public void setAppliedOutput(double appliedOutput) {
+		this.appliedOutput = appliedOutput;
+	}
+
+	public void setBusVoltage(double busVoltage) {
+		this.busVoltage = busVoltage;
+	}
+
+	public void setTemperature(double temperature) {
+		this.temperature = temperature;
+	}
+
+	/**
+	 * Raises or clears a fault, raising also sets the sticky fault
+	 */
+	public void setFault(CANSparkMax.FaultID faultID, boolean active) {
+		short bit = (short) (1 << faultID.ordinal());
+		if (active) {
+			faults |= bit;
+			stickyFaults |= bit;
+		} else {
+			faults &= ~bit;
+		}
+	}
+
+	// Robot code side
+
+	@Override
+	public int getDeviceId() {
+		return deviceId;
+	}
+
+	@Override
+	public CANError follow(MotorController leader) {
+		if (!(leader instanceof SimulatedMotor)) {
+			return CANError.kError;
+		}
+		this.leader = (SimulatedMotor) leader;
+		outputFilter.invalidate();
+		return CANError.kOK;
+	}
+
+	@Override
+	public void set(double speed) {
+		if (!outputFilter.write(speed, kSetMode)) {
+			return;
+		}
+		leader = null;
+		output = speed;
+		reference = speed;
+		controlType = ControlType.kDutyCycle;
+	}
+
+	@Override
+	public double get() {
+		return output;
+	}
+
+	@Override
+	public void setInverted(boolean isInverted) {
+		outputFilter.invalidate();
+		inverted = isInverted;
+	}
+
+	@Override
+	public boolean getInverted() {
+		return inverted;
+	}
+
+	@Override
+	public void disable() {
+		outputFilter.invalidate();
+		set(0);
+	}
+
+	@Override
+	public void stopMotor() {
+		outputFilter.invalidate();
+		set(0);
+	}
+
+	@Override
+	public void pidWrite(double output) {
+		set(output);
+	}
+
+	@Override
+	public CANError setIdleMode(CANSparkMax.IdleMode mode) {
+		idleMode = mode;
+		return CANError.kOK;
+	}
+
+	@Override
+	public CANError setSmartCurrentLimit(int limit) {
+		currentLimit = limit;
+		return CANError.kOK;
+	}
+
+	@Override
+	public CANError enableVoltageCompensation(double nominalVoltage) {
+		this.nominalVoltage = nominalVoltage;
+		return CANError.kOK;
+	}
+
+	@Override
+	public CANError setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame frame, int periodMs) {
+		return CANError.kOK;
+	}
+
+	@Override
+	public double getOutputCurrent() {
+		return current.read();
+	}
+
+	@Override
+	public double getBusVoltage() {
+		return busVoltage;
+	}
+
+	@Override
+	public double getMotorTemperature() {
+		return temperature;
+	}
+
+	@Override
+	public double getAppliedOutput() {
+		if (getControlType() == ControlType.kDutyCycle) {
+			return getCommandedOutput();
+		}
+		return appliedOutput;
+	}
+
+	@Override
+	public boolean getFault(CANSparkMax.FaultID faultID) {
+		return (faults & (1 << faultID.ordinal())) != 0;
+	}
+
+	@Override
+	public boolean getStickyFault(CANSparkMax.FaultID faultID) {
+		return (stickyFaults & (1 << faultID.ordinal())) != 0;
+	}
+
+	@Override
+	public short getFaults() {
+		return faults;
+	}
+
+	@Override
+	public short getStickyFaults() {
+		return stickyFaults;
+	}
+
+	@Override
+	public CANError clearFaults() {
+		stickyFaults = faults;
+		return CANError.kOK;
+	}
+
+	@Override
+	public Encoder getEncoder() {
+		return encoder;
+	}
+
+	@Override
+	public ClosedLoopController getPIDController() {
+		return pidController;
+	}
+}
@@ -0,0 +1,27 @@
+package frc.robot.hal;
+
+/**
+ * PWM output that only remembers its value
+ */
+public class SimulatedPWM implements PWMOutput {
+
+	private final OutputFilter outputFilter;
+
+	private double value;
+
+	SimulatedPWM(OutputFilter outputFilter) {
+		this.outputFilter = outputFilter;
+	}
+
+	@Override
+	public void set(double value) {
+		if (outputFilter.write(value, 0)) {
+			this.value = value;
+		}
+	}
+
+	@Override
+	public double get() {
+		return value;
+	}
+}
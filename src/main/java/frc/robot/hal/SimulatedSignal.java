@@ -0,0 +1,95 @@
+package frc.robot.hal;
+
+import java.util.Random;
+
+/**
+ * Sensor reading that reaches the robot code late and noisy. Values written by a plant model
+ * are stamped with the simulated time and only read back once the latency has passed.
+ */
+public class SimulatedSignal {
+
+	// Samples kept, enough for 250 ms of latency with the plant writing every millisecond
+	private static final int kCapacity = 256;
+
+	private final SimulatedDevices devices;
+	private final Random random;
+
+	private double latency;
+	private double noise;
+
+	private final double[] times = new double[kCapacity];
+	private final double[] values = new double[kCapacity];
+	private int newest = -1;
+	private int count = 0;
+
+	/**
+	 * @param devices Source of the simulated time
+	 * @param latency Seconds before a written value can be read
+	 * @param noise Standard deviation of the gaussian noise added to each read
+	 * @param random Noise source, shared so a seeded simulation is repeatable
+	 */
+	SimulatedSignal(SimulatedDevices devices, double latency, double noise, Random random) {
+		this.devices = devices;
+		this.latency = latency;
+		this.noise = noise;
+		this.random = random;
+	}
+
+	public void setLatency(double latency) {
+		this.latency = latency;
+	}
+
+	public void setNoise(double noise) {
+		this.noise = noise;
+	}
+
+	/**
+	 * Called by the plant with the true value at the current simulated time
+	 */
+	public void write(double value) {
+		double time = devices.getTime();
+
+		// A second write at the same time corrects the first, like the plant being reset
+		if (count == 0 || times[newest] != time) {
+			newest = (newest + 1) % kCapacity;
+			if (count < kCapacity) {
+				count++;
+			}
+		}
+
+		times[newest] = time;
+		values[newest] = value;
+	}
+
+	/**
+	 * @return Newest value old enough to have arrived, without noise. Until the first value
+	 * arrives the sensor reports the oldest one it has.
+	 */
+	public double readExact() {
+		double arrived = devices.getTime() - latency;
+
+		int slot = newest;
+		for (int i = 0; i < count; i++) {
+			if (times[slot] <= arrived) {
+				return values[slot];
+			}
+			slot = (slot - 1 + kCapacity) % kCapacity;
+		}
+
+		// Nothing has arrived yet, or the latency is longer than the buffer holds
+		if (count == 0) {
+			return 0;
+		}
+		return values[(newest - count + 1 + kCapacity) % kCapacity];
+	}
+
+	/**
+	 * @return What the robot code sees
+	 */
+	public double read() {
+		if (noise > 0) {
+			return readExact() + random.nextGaussian() * noise;
+		}
+		return readExact();
+	}
+}
@@ -0,0 +1,229 @@
+package frc.robot.hal;
+
+import com.revrobotics.CANEncoder;
+import com.revrobotics.CANError;
+import com.revrobotics.CANPIDController;
+import com.revrobotics.CANSparkMax;
+import com.revrobotics.CANSparkMaxLowLevel;
+import com.revrobotics.ControlType;
+import com.revrobotics.CANSparkMaxLowLevel.MotorType;
+
+/**
+ * MotorController backed by a SparkMax on the CAN bus
+ */
+public class SparkMaxController implements MotorController {
+
+	// Output filter mode of set, setReference uses the control type's ordinal
+	private static final int kSetMode = -1;
+
+	private final CANSparkMax sparkMax;
+	private final OutputFilter outputFilter;
+
+	private Encoder encoder;
+	private ClosedLoopController pidController;
+
+	/**
+	 * @param outputFilter Skips setpoints that are the same as the last one sent
+	 */
+	public SparkMaxController(int deviceId, MotorType type, OutputFilter outputFilter) {
+		sparkMax = new CANSparkMax(deviceId, type);
+		this.outputFilter = outputFilter;
+	}
+
+	@Override
+	public int getDeviceId() {
+		return sparkMax.getDeviceId();
+	}
+
+	@Override
+	public CANError follow(MotorController leader) {
+		if (!(leader instanceof SparkMaxController)) {
+			return CANError.kError;
+		}
+		outputFilter.invalidate();
+		return sparkMax.follow(((SparkMaxController) leader).sparkMax);
+	}
+
+	@Override
+	public CANError setIdleMode(CANSparkMax.IdleMode mode) {
+		return sparkMax.setIdleMode(mode);
+	}
+
+	@Override
+	public CANError setSmartCurrentLimit(int limit) {
+		return sparkMax.setSmartCurrentLimit(limit);
+	}
+
+	@Override
+	public CANError enableVoltageCompensation(double nominalVoltage) {
+		return sparkMax.enableVoltageCompensation(nominalVoltage);
+	}
+
+	@Override
+	public CANError setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame frame, int periodMs) {
+		return sparkMax.setPeriodicFramePeriod(frame, periodMs);
+	}
+
+	@Override
+	public double getOutputCurrent() {
+		return sparkMax.getOutputCurrent();
+	}
+
+	@Override
+	public double getBusVoltage() {
+		return sparkMax.getBusVoltage();
+	}
+
+	@Override
+	public double getMotorTemperature() {
+		return sparkMax.getMotorTemperature();
+	}
+
+	@Override
+	public double getAppliedOutput() {
+		return sparkMax.getAppliedOutput();
+	}
+
+	@Override
+	public boolean getFault(CANSparkMax.FaultID faultID) {
+		return sparkMax.getFault(faultID);
+	}
+
+	@Override
+	public boolean getStickyFault(CANSparkMax.FaultID faultID) {
+		return sparkMax.getStickyFault(faultID);
+	}
+
+	@Override
+	public short getFaults() {
+		return sparkMax.getFaults();
+	}
+
+	@Override
+	public short getStickyFaults() {
+		return sparkMax.getStickyFaults();
+	}
+
+	@Override
+	public CANError clearFaults() {
+		return sparkMax.clearFaults();
+	}
+
+	@Override
+	public Encoder getEncoder() {
+		if (encoder == null) {
+			final CANEncoder canEncoder = sparkMax.getEncoder();
+
+			encoder = new Encoder() {
+				@Override
+				public double getPosition() {
+					return canEncoder.getPosition();
+				}
+
+				@Override
+				public double getVelocity() {
+					return canEncoder.getVelocity();
+				}
+
+				@Override
+				public void setPosition(double position) {
+					canEncoder.setPosition(position);
+				}
+
+				@Override
+				public void setPositionConversionFactor(double factor) {
+					canEncoder.setPositionConversionFactor(factor);
+				}
+			};
+		}
+		return encoder;
+	}
+
+	@Override
+	public ClosedLoopController getPIDController() {
+		if (pidController == null) {
+			final CANPIDController canPIDController = sparkMax.getPIDController();
+
+			pidController = new ClosedLoopController() {
+				@Override
+				public CANError setReference(double value, ControlType controlType) {
+					if (!outputFilter.write(value, controlType.ordinal())) {
+						return CANError.kOK;
+					}
+					return canPIDController.setReference(value, controlType);
+				}
+
+				@Override
+				public CANError setP(double gain) {
+					return canPIDController.setP(gain);
+				}
+
+				@Override
+				public CANError setI(double gain) {
+					return canPIDController.setI(gain);
+				}
+
+				@Override
+				public CANError setD(double gain) {
+					return canPIDController.setD(gain);
+				}
+
+				@Override
+				public CANError setIZone(double zone) {
+					return canPIDController.setIZone(zone);
+				}
+
+				@Override
+				public CANError setFF(double gain) {
+					return canPIDController.setFF(gain);
+				}
+
+				@Override
+				public CANError setOutputRange(double min, double max) {
+					return canPIDController.setOutputRange(min, max);
+				}
+			};
+		}
+		return pidController;
+	}
+
+	@Override
+	public void set(double speed) {
+		if (outputFilter.write(speed, kSetMode)) {
+			sparkMax.set(speed);
+		}
+	}
+
+	@Override
+	public double get() {
+		return sparkMax.get();
+	}
+
+	@Override
+	public void setInverted(boolean isInverted) {
+		outputFilter.invalidate();
+		sparkMax.setInverted(isInverted);
+	}
+
+	@Override
+	public boolean getInverted() {
+		return sparkMax.getInverted();
+	}
+
+	@Override
+	public void disable() {
+		outputFilter.invalidate();
+		sparkMax.disable();
+	}
+
+	@Override
+	public void stopMotor() {
+		outputFilter.invalidate();
+		sparkMax.stopMotor();
+	}
+
+	@Override
+	public void pidWrite(double output) {
+		set(output);
+	}
+}
@@ -0,0 +1,204 @@
+package frc.robot.hal;
+
+import java.util.ArrayList;
+
+import com.revrobotics.CANSparkMaxLowLevel.PeriodicFrame;
+
+import frc.robot.util.Logger;
+
+/**
+ * Sets the status frame periods of every SparkMax from what the code actually reads. Each
+ * subsystem declares the signals it uses and how old they are allowed to be, every frame is
+ * then sent only as often as its most demanding signal needs, and frames nobody reads are
+ * slowed right down. The estimated CAN bus load is logged when the periods are applied.
+ */
+public class StatusFramePlanner {
+
+	private static final Logger log = Logger.getLogger("StatusFramePlanner");
+
+	// Period of frames no one reads
+	private static final int kUnusedPeriodMilliseconds = 1000;
+
+	// Shortest period the planner will ask for
+	private static final int kMinimumPeriodMilliseconds = 5;
+
+	// Extended id frame with 8 data bytes including worst case bit stuffing, on a 1 Mbit/s bus
+	private static final double kBitsPerFrame = 155;
+	private static final double kBusBitsPerSecond = 1000000;
+
+	// SparkMax defaults for status 0, 1 and 2, used to report what the planner saved
+	private static final int[] kDefaultPeriods = {10, 20, 50};
+
+	private static StatusFramePlanner instance;
+
+	/**
+	 * What each status frame carries
+	 */
+	public enum Signal {
+		APPLIED_OUTPUT(PeriodicFrame.kStatus0),
+		FAULTS(PeriodicFrame.kStatus0),
+		VELOCITY(PeriodicFrame.kStatus1),
+		TEMPERATURE(PeriodicFrame.kStatus1),
+		BUS_VOLTAGE(PeriodicFrame.kStatus1),
+		CURRENT(PeriodicFrame.kStatus1),
+		POSITION(PeriodicFrame.kStatus2);
+
+		private final PeriodicFrame frame;
+
+		Signal(PeriodicFrame frame) {
+			this.frame = frame;
+		}
+
+		public PeriodicFrame getFrame() {
+			return frame;
+		}
+	}
+
+	/**
+	 * Requirements on one motor controller
+	 */
+	private static class Device {
+		final String name;
+		final MotorController motor;
+
+		// Longest each frame can go between updates, kUnusedPeriodMilliseconds if unread
+		final int[] periods = new int[PeriodicFrame.values().length];
+		final String[] consumers = new String[PeriodicFrame.values().length];
+
+		// Time between setpoint frames sent to the controller, 0 if it is never commanded
+		int commandPeriod = 0;
+
+		Device(String name, MotorController motor) {
+			this.name = name;
+			this.motor = motor;
+
+			for (int i = 0; i < periods.length; i++) {
+				periods[i] = kUnusedPeriodMilliseconds;
+				consumers[i] = "unused";
+			}
+		}
+	}
+
+	private final ArrayList<Device> devices = new ArrayList<>();
+
+	public static synchronized StatusFramePlanner getInstance() {
+		if (instance == null) {
+			instance = new StatusFramePlanner();
+		}
+		return instance;
+	}
+
+	/**
+	 * Replaces the shared planner, has to be called before the subsystems are created
+	 */
+	public static synchronized void setInstance(StatusFramePlanner planner) {
+		instance = planner;
+	}
+
+	private Device device(String name, MotorController motor) {
+		for (Device device : devices) {
+			if (device.motor == motor) {
+				return device;
+			}
+		}
+
+		Device device = new Device(name, motor);
+		devices.add(device);
+		return device;
+	}
+
+	/**
+	 * Declares that a signal is read from a motor controller
+	 * @param name Name of the motor in the report
+	 * @param signal Signal read
+	 * @param maxAgeMilliseconds Oldest the value is allowed to be when it is read
+	 * @param consumer What reads it, for the report
+	 */
+	public synchronized void require(String name, MotorController motor, Signal signal, int maxAgeMilliseconds, String consumer) {
+		Device device = device(name, motor);
+		int frame = signal.getFrame().ordinal();
+		int period = Math.max(kMinimumPeriodMilliseconds, maxAgeMilliseconds);
+
+		if (period < device.periods[frame]) {
+			device.periods[frame] = period;
+			device.consumers[frame] = consumer + " " + signal.name().toLowerCase();
+		}
+	}
+
+	/**
+	 * Declares how often setpoints are sent to a motor controller, only used for the load estimate
+	 */
+	public synchronized void commanded(String name, MotorController motor, int periodMilliseconds) {
+		Device device = device(name, motor);
+
+		if (device.commandPeriod == 0 || periodMilliseconds < device.commandPeriod) {
+			device.commandPeriod = periodMilliseconds;
+		}
+	}
+
+	/**
+	 * @return Planned period of the frame in milliseconds
+	 */
+	public synchronized int getPeriod(MotorController motor, PeriodicFrame frame) {
+		for (Device device : devices) {
+			if (device.motor == motor) {
+				return device.periods[frame.ordinal()];
+			}
+		}
+		return kUnusedPeriodMilliseconds;
+	}
+
+	/**
+	 * @return Fraction of the bus used by the planned status frames and the setpoints
+	 */
+	public synchronized double getBusLoad() {
+		double framesPerSecond = 0;
+		for (Device device : devices) {
+			for (int period : device.periods) {
+				framesPerSecond += 1000.0 / period;
+			}
+			framesPerSecond += commandFramesPerSecond(device);
+		}
+		return framesPerSecond * kBitsPerFrame / kBusBitsPerSecond;
+	}
+
+	/**
+	 * @return Fraction of the bus the same traffic would use with the SparkMax default periods
+	 */
+	public synchronized double getDefaultBusLoad() {
+		double framesPerSecond = 0;
+		for (Device device : devices) {
+			for (int period : kDefaultPeriods) {
+				framesPerSecond += 1000.0 / period;
+			}
+			framesPerSecond += commandFramesPerSecond(device);
+		}
+		return framesPerSecond * kBitsPerFrame / kBusBitsPerSecond;
+	}
+
+	private static double commandFramesPerSecond(Device device) {
+		return device.commandPeriod > 0 ? 1000.0 / device.commandPeriod : 0;
+	}
+
+	/**
+	 * Sends the planned periods to every motor controller and logs the plan
+	 */
+	public synchronized void apply() {
+		PeriodicFrame[] frames = PeriodicFrame.values();
+
+		for (Device device : devices) {
+			StringBuilder plan = new StringBuilder();
+
+			for (PeriodicFrame frame : frames) {
+				int period = device.periods[frame.ordinal()];
+				device.motor.setPeriodicFramePeriod(frame, period);
+
+				plan.append(plan.length() > 0 ? " " : "");
+				plan.append(String.format("%s=%dms (%s)", frame, period, device.consumers[frame.ordinal()]));
+			}
+			log.info("{}: {}", device.name, plan);
+		}
+
+		log.info("Estimated CAN load {}%, {}% with default status periods", Math.round(getBusLoad() * 1000) / 10.0, Math.round(getDefaultBusLoad() * 1000) / 10.0);
+	}
+}
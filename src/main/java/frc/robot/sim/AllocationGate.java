@@ -0,0 +1,310 @@
+package frc.robot.sim;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+import com.sun.management.ThreadMXBean;
+
+import frc.robot.hal.SimulatedDevices;
+import frc.robot.util.CommandDetails;
+import frc.robot.util.CommandGroup;
+import frc.robot.util.ControlsProcessor;
+import frc.robot.util.CurrentFilter;
+import frc.robot.util.Logger;
+import frc.robot.util.SubsystemCommand;
+import frc.robot.util.SubsystemModule;
+import frc.robot.util.TelemetryRecorder;
+import frc.robot.util.TimerWheel;
+
+/**
+ * Fails the build if the periodic loop allocates once it has warmed up. Each scenario ticks the
+ * headless control stack until the JIT has settled, then the bytes allocated by this thread over
+ * the measured ticks are read from the ThreadMXBean. Anything above zero is reported as a failure,
+ * garbage made every tick turns into GC pauses during a match.
+ *
+ * Usage: ./gradlew allocationGate, also run by ./gradlew check
+ */
+public class AllocationGate {
+
+	// Controls processor period and command divider used in Robot
+	private static final long kPeriodNanoseconds = 10000000;
+	private static final int kCommandDivider = 2;
+
+	private static final int kWarmupTicks = 50000;
+	private static final int kMeasuredTicks = 20000;
+
+	/**
+	 * A steady state path through the loop
+	 */
+	private static abstract class Scenario {
+		private String name;
+
+		Scenario(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * Builds everything the scenario needs, nothing here is measured
+		 */
+		abstract void setup();
+
+		/**
+		 * One controls processor period
+		 */
+		abstract void tick(long timestamp);
+	}
+
+	/**
+	 * Subsystem with one command that runs until it is cancelled, and a set of idle commands
+	 */
+	private static class CommandModule extends SubsystemModule {
+		int executeCount = 0;
+
+		CommandModule() {
+			registerCommands();
+		}
+
+		@Override
+		public void run() {}
+
+		@Override
+		public void registerCommands() {
+			new SubsystemCommand(this.registeredCommands, "hold") {
+				@Override
+				public void execute() {
+					executeCount++;
+				}
+
+				@Override
+				public boolean isFinished() {
+					return false;
+				}
+			};
+
+			for (int i = 0; i < 20; i++) {
+				new SubsystemCommand(this.registeredCommands, "idle_" + i) {};
+			}
+		}
+
+		@Override
+		public void init() {}
+
+		@Override
+		public void destruct() {}
+	}
+
+	private static ControlsProcessor headlessProcessor() {
+		return new ControlsProcessor(kPeriodNanoseconds, kCommandDivider, false) {
+			@Override
+			public void registerOperatorControls() {}
+		};
+	}
+
+	private static Scenario[] scenarios() {
+		return new Scenario[] {
+
+			new Scenario("idle tick") {
+				ControlsProcessor controlsProcessor;
+
+				@Override
+				void setup() {
+					controlsProcessor = headlessProcessor();
+					controlsProcessor.registerController("DriveTrain", new SimulatedDrive(new DrivetrainPlant(2.2, 0.08, 15), kPeriodNanoseconds / 1e9));
+					controlsProcessor.registerController("Commands", new CommandModule());
+				}
+
+				@Override
+				void tick(long timestamp) {
+					controlsProcessor.tick(timestamp);
+				}
+			},
+
+			// Only the controls processor thread is measured, the worker runs the same code as above
+			new Scenario("parallel partitions") {
+				ControlsProcessor controlsProcessor;
+
+				@Override
+				void setup() {
+					controlsProcessor = headlessProcessor();
+					controlsProcessor.registerController("DriveTrain", new SimulatedDrive(new DrivetrainPlant(2.2, 0.08, 15), kPeriodNanoseconds / 1e9), 1);
+					controlsProcessor.registerController("Commands", new CommandModule());
+				}
+
+				@Override
+				void tick(long timestamp) {
+					controlsProcessor.tick(timestamp);
+				}
+			},
+
+			new Scenario("running command") {
+				ControlsProcessor controlsProcessor;
+
+				@Override
+				void setup() {
+					controlsProcessor = headlessProcessor();
+					controlsProcessor.registerController("Commands", new CommandModule());
+					controlsProcessor.addToQueue(new CommandDetails("hold -p"));
+				}
+
+				@Override
+				void tick(long timestamp) {
+					controlsProcessor.tick(timestamp);
+				}
+			},
+
+			new Scenario("command group") {
+				ControlsProcessor controlsProcessor;
+
+				@Override
+				void setup() {
+					controlsProcessor = headlessProcessor();
+					controlsProcessor.registerController("Commands", new CommandModule());
+
+					CommandGroup group = CommandGroup.deadline(CommandGroup.command("hold"), CommandGroup.sequence("idle_0", "idle_1"));
+					controlsProcessor.addGroup(group);
+					group.start();
+				}
+
+				@Override
+				void tick(long timestamp) {
+					controlsProcessor.tick(timestamp);
+				}
+			},
+
+			new Scenario("timer wheel") {
+				TimerWheel timers = new TimerWheel(kPeriodNanoseconds);
+				int expired = 0;
+
+				@Override
+				void setup() {
+					for (int i = 0; i < 200; i++) {
+						TimerWheel.Task task = new TimerWheel.Task() {
+							@Override
+							public void expired() {
+								expired++;
+							}
+						};
+						timers.schedule(task, 0.01 * (i + 1), 0.01 * (i % 50 + 1));
+					}
+				}
+
+				@Override
+				void tick(long timestamp) {
+					timers.advance();
+				}
+			},
+
+			new Scenario("path following") {
+				ControlsProcessor controlsProcessor;
+				DrivetrainPlant plant = new DrivetrainPlant(2.2, 0.08, 15);
+				SimulatedDrive drive;
+
+				@Override
+				void setup() {
+					drive = new SimulatedDrive(plant, kPeriodNanoseconds / 1e9);
+					controlsProcessor = headlessProcessor();
+					controlsProcessor.registerController("DriveTrain", drive);
+
+					// Long enough that the follower is still moving along it when measuring ends
+					plant.reset(0, 0, 270);
+					drive.odometer.setOffset(-180);
+					for (int i = 0; i < 200; i++) {
+						drive.drivingController.addBackwardsSpline(0, 0, 270, 7, -4.5, 24, 270, 5, 6, 12, 0, 0);
+					}
+					drive.enable();
+				}
+
+				@Override
+				void tick(long timestamp) {
+					controlsProcessor.tick(timestamp);
+					plant.step(kPeriodNanoseconds / 1e9);
+				}
+			},
+
+			new Scenario("simulated robot") {
+				SimulatedRobot robot;
+
+				@Override
+				void setup() {
+					robot = new SimulatedRobot(new SimulatedDevices(0.02, 0.1, 0));
+					robot.enable(0, 0, 270);
+				}
+
+				@Override
+				void tick(long timestamp) {
+					robot.step();
+				}
+			},
+
+			new Scenario("intake current filtering") {
+				CurrentFilter cargoCurrents = new CurrentFilter(50);
+				CurrentFilter pumpCurrents = new CurrentFilter(100);
+				double current;
+
+				@Override
+				void setup() {}
+
+				@Override
+				void tick(long timestamp) {
+					current = (current + 0.37) % 45;
+					cargoCurrents.add(current);
+					pumpCurrents.add(current);
+				}
+			}
+		};
+	}
+
+	/**
+	 * @return Bytes allocated by this thread during the measured ticks
+	 */
+	private static long measure(ThreadMXBean threads, Scenario scenario) {
+		long thread = Thread.currentThread().getId();
+		long timestamp = 0;
+
+		scenario.setup();
+
+		for (int i = 0; i < kWarmupTicks; i++) {
+			scenario.tick(timestamp += kPeriodNanoseconds);
+		}
+
+		// Reading the counter may allocate itself, measure that first
+		long overheadStart = threads.getThreadAllocatedBytes(thread);
+		long overhead = threads.getThreadAllocatedBytes(thread) - overheadStart;
+
+		long start = threads.getThreadAllocatedBytes(thread);
+		for (int i = 0; i < kMeasuredTicks; i++) {
+			scenario.tick(timestamp += kPeriodNanoseconds);
+		}
+		return threads.getThreadAllocatedBytes(thread) - start - overhead;
+	}
+
+	public static void main(String... args) throws IOException {
+		ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		if (!threads.isThreadAllocatedMemorySupported()) {
+			System.err.println("Thread allocation counting isn't supported by this JVM");
+			System.exit(1);
+		}
+		threads.setThreadAllocatedMemoryEnabled(true);
+
+		Logger.setLevel("ControlsProcessor", Logger.Level.WARN);
+		Logger.setLevel("DrivingController", Logger.Level.WARN);
+
+		// Record into a scratch file so the telemetry commit is measured too
+		File telemetry = File.createTempFile("allocation_gate", ".bin");
+		telemetry.deleteOnExit();
+		TelemetryRecorder.setInstance(new TelemetryRecorder(telemetry));
+
+		boolean passed = true;
+
+		for (Scenario scenario : scenarios()) {
+			long bytes = measure(threads, scenario);
+
+			System.out.println(String.format("%-26s %10d bytes over %d ticks (%.1f per tick)%s",
+					scenario.name, bytes, kMeasuredTicks, (double) bytes / kMeasuredTicks, bytes > 0 ? "  FAIL" : ""));
+			passed &= bytes <= 0;
+		}
+
+		System.exit(passed ? 0 : 1);
+	}
+}
@@ -0,0 +1,80 @@
+package frc.robot.sim;
+
+/**
+ * Model of the shoulder leadscrew and the wrist, each following the position setpoint of its
+ * SparkMax PID as a damped second order system with a speed limit.
+ */
+public class ArmPlant {
+
+	/**
+	 * One position controlled joint
+	 */
+	public static class Joint {
+		private double naturalFrequency;
+		private double damping;
+		private double maxVelocity;
+
+		private double position, velocity, setpoint;
+
+		/**
+		 * @param naturalFrequency Natural frequency of the closed loop in rad/s
+		 * @param damping Damping ratio of the closed loop
+		 * @param maxVelocity Speed limit in units per second
+		 */
+		public Joint(double naturalFrequency, double damping, double maxVelocity) {
+			this.naturalFrequency = naturalFrequency;
+			this.damping = damping;
+			this.maxVelocity = maxVelocity;
+		}
+
+		public void step(double dt) {
+			double acceleration = naturalFrequency * naturalFrequency * (setpoint - position)
+					- 2 * damping * naturalFrequency * velocity;
+
+			velocity += acceleration * dt;
+			velocity = Math.max(-maxVelocity, Math.min(maxVelocity, velocity));
+			position += velocity * dt;
+		}
+
+		public void setSetpoint(double setpoint) {
+			this.setpoint = setpoint;
+		}
+
+		public double getSetpoint() {
+			return setpoint;
+		}
+
+		/**
+		 * Moves the joint without dynamics, like resetting the encoder
+		 */
+		public void setPosition(double position) {
+			this.position = position;
+			this.velocity = 0;
+		}
+
+		public double getPosition() {
+			return position;
+		}
+
+		public double getVelocity() {
+			return velocity;
+		}
+	}
+
+	// Shoulder in leadscrew units (motor rotations / 7), wrist in degrees
+	private Joint shoulder = new Joint(12, 1.0, 8);
+	private Joint wrist = new Joint(15, 0.9, 300);
+
+	public void step(double dt) {
+		shoulder.step(dt);
+		wrist.step(dt);
+	}
+
+	public Joint getShoulder() {
+		return shoulder;
+	}
+
+	public Joint getWrist() {
+		return wrist;
+	}
+}
@@ -0,0 +1,23 @@
+package frc.robot.sim;
+
+/**
+ * Sensors and velocity setpoints of a drivetrain, backed by the plant model or a recorded match
+ */
+public interface DriveIO {
+
+	/**
+	 * @return Gyro yaw in degrees, clockwise positive like the navX
+	 */
+	double getYaw();
+
+	double getLeftDistance();
+	double getRightDistance();
+
+	double getLeftVelocity();
+	double getRightVelocity();
+
+	/**
+	 * Sets the velocity setpoints of both sides in ft/s
+	 */
+	void setVelocities(double left, double right);
+}
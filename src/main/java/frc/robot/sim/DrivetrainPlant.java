@@ -0,0 +1,157 @@
+package frc.robot.sim;
+
+/**
+ * Kinematic model of the six NEO differential drivetrain running closed loop velocity control.
+ * Each side follows its velocity setpoint with a first order lag and an acceleration limit.
+ *
+ * Units match the robot code: feet, feet per second and degrees with 90 pointing along +y.
+ */
+public class DrivetrainPlant implements DriveIO {
+
+	// Distance between the left and right wheels in feet
+	private double trackWidth;
+
+	// Time constant of the SparkMax velocity loops in seconds
+	private double timeConstant;
+
+	// Most the wheels can accelerate in ft/s^2
+	private double maxAcceleration;
+
+	private double x, y, heading;
+	private double leftVelocity, rightVelocity;
+	private double leftSetpoint, rightSetpoint;
+	private double leftDistance, rightDistance;
+
+	// Heading that reads as a yaw of zero on the gyro
+	private double yawZeroHeading;
+
+	/**
+	 * @param trackWidth Distance between the wheels in feet
+	 * @param timeConstant Velocity loop time constant in seconds
+	 * @param maxAcceleration Wheel acceleration limit in ft/s^2
+	 */
+	public DrivetrainPlant(double trackWidth, double timeConstant, double maxAcceleration) {
+		this.trackWidth = trackWidth;
+		this.timeConstant = timeConstant;
+		this.maxAcceleration = maxAcceleration;
+	}
+
+	/**
+	 * Places the robot at rest, the gyro is zeroed at the given heading
+	 */
+	public void reset(double x, double y, double heading) {
+		this.x = x;
+		this.y = y;
+		this.heading = heading;
+		this.yawZeroHeading = heading;
+
+		leftVelocity = rightVelocity = 0;
+		leftSetpoint = rightSetpoint = 0;
+		leftDistance = rightDistance = 0;
+	}
+
+	/**
+	 * Sets the velocity setpoints of both sides
+	 * @param left Left side in ft/s
+	 * @param right Right side in ft/s
+	 */
+	@Override
+	public void setVelocities(double left, double right) {
+		leftSetpoint = left;
+		rightSetpoint = right;
+	}
+
+	/**
+	 * Advances the model
+	 * @param dt Time step in seconds
+	 */
+	public void step(double dt) {
+		leftVelocity = approach(leftVelocity, leftSetpoint, dt);
+		rightVelocity = approach(rightVelocity, rightSetpoint, dt);
+
+		leftDistance += leftVelocity * dt;
+		rightDistance += rightVelocity * dt;
+
+		double averageVelocity = (leftVelocity + rightVelocity) / 2;
+		double angularVelocity = (rightVelocity - leftVelocity) / trackWidth;
+
+		// Integrate along the arc using the heading at the middle of the step
+		double midHeading = Math.toRadians(heading) + angularVelocity * dt / 2;
+		x += Math.cos(midHeading) * averageVelocity * dt;
+		y += Math.sin(midHeading) * averageVelocity * dt;
+
+		heading += Math.toDegrees(angularVelocity * dt);
+		heading = normalize(heading);
+	}
+
+	private double approach(double velocity, double setpoint, double dt) {
+		double change = (setpoint - velocity) * (1 - Math.exp(-dt / timeConstant));
+		double limit = maxAcceleration * dt;
+
+		return velocity + Math.max(-limit, Math.min(limit, change));
+	}
+
+	private static double normalize(double angle) {
+		angle %= 360;
+		return angle < 0 ? angle + 360 : angle;
+	}
+
+	/**
+	 * Zeroes the gyro at the current heading
+	 */
+	public void zeroYaw() {
+		yawZeroHeading = heading;
+	}
+
+	/**
+	 * @return Gyro yaw in degrees, clockwise positive between -180 and 180 like the navX
+	 */
+	@Override
+	public double getYaw() {
+		double yaw = yawZeroHeading - heading;
+
+		while (yaw > 180) yaw -= 360;
+		while (yaw <= -180) yaw += 360;
+
+		return yaw;
+	}
+
+	/**
+	 * @return Yaw rate in degrees per second, clockwise positive
+	 */
+	public double getYawRate() {
+		return -Math.toDegrees((rightVelocity - leftVelocity) / trackWidth);
+	}
+
+	public double getX() {
+		return x;
+	}
+
+	public double getY() {
+		return y;
+	}
+
+	public double getHeading() {
+		return heading;
+	}
+
+	@Override
+	public double getLeftDistance() {
+		return leftDistance;
+	}
+
+	@Override
+	public double getRightDistance() {
+		return rightDistance;
+	}
+
+	@Override
+	public double getLeftVelocity() {
+		return leftVelocity;
+	}
+
+	@Override
+	public double getRightVelocity() {
+		return rightVelocity;
+	}
+}
@@ -0,0 +1,100 @@
+package frc.robot.sim;
+
+/**
+ * Current draw model of the cargo roller and the hatch vacuum pump, used to exercise the
+ * current based game piece detection in Intake
+ */
+public class IntakePlant {
+
+	// Roller current in amps at full output without and with a cargo pinned
+	private static final double kRollerFreeCurrent = 10;
+	private static final double kRollerStallCurrent = 45;
+
+	// Pump current in amps while pulling air and once the hatch seals
+	private static final double kPumpOpenCurrent = 8;
+	private static final double kPumpSealedCurrent = 5.5;
+
+	// Seconds the roller or pump has to run before it picks up an available game piece
+	private double acquireTime;
+
+	private boolean cargoAvailable, hatchAvailable;
+	private boolean hasCargo, hasHatch;
+
+	private double rollerOutput, pumpOutput;
+	private double rollerRunTime, pumpRunTime;
+
+	/**
+	 * @param acquireTime Seconds of intaking before a game piece is held
+	 */
+	public IntakePlant(double acquireTime) {
+		this.acquireTime = acquireTime;
+	}
+
+	/**
+	 * Makes a game piece reachable by the intake
+	 */
+	public void offerCargo() {
+		cargoAvailable = true;
+	}
+
+	public void offerHatch() {
+		hatchAvailable = true;
+	}
+
+	public void setRollerOutput(double output) {
+		rollerOutput = output;
+	}
+
+	public void setPumpOutput(double output) {
+		pumpOutput = output;
+	}
+
+	/**
+	 * Drops the held game piece, used when the valve releases or the roller reverses
+	 */
+	public void release() {
+		hasCargo = false;
+		hasHatch = false;
+	}
+
+	public void step(double dt) {
+		rollerRunTime = rollerOutput > 0.5 ? rollerRunTime + dt : 0;
+		pumpRunTime = pumpOutput > 0 ? pumpRunTime + dt : 0;
+
+		if (cargoAvailable && rollerRunTime > acquireTime) {
+			hasCargo = true;
+			cargoAvailable = false;
+		}
+
+		if (hatchAvailable && pumpRunTime > acquireTime) {
+			hasHatch = true;
+			hatchAvailable = false;
+		}
+
+		if (rollerOutput < 0) {
+			hasCargo = false;
+		}
+	}
+
+	/**
+	 * @return Roller current in amps
+	 */
+	public double getRollerCurrent() {
+		return Math.abs(rollerOutput) * (hasCargo ? kRollerStallCurrent : kRollerFreeCurrent);
+	}
+
+	/**
+	 * @return Pump current in amps
+	 */
+	public double getPumpCurrent() {
+		return Math.abs(pumpOutput) * (hasHatch ? kPumpSealedCurrent : kPumpOpenCurrent);
+	}
+
+	public boolean hasCargo() {
+		return hasCargo;
+	}
+
+	public boolean hasHatch() {
+		return hasHatch;
+	}
+}
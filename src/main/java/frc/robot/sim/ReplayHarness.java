@@ -0,0 +1,295 @@
+package frc.robot.sim;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import frc.robot.util.ControlsProcessor;
+import frc.robot.util.MotionPose;
+import frc.robot.util.SensorReplay;
+import frc.robot.util.TelemetryReader;
+import frc.robot.util.TelemetryRecorder;
+import frc.robot.util.TelemetryRecorder.Channel;
+
+/**
+ * Re-runs recorded matches through the odometer and the path follower. The recorded encoder,
+ * gyro and button streams are fed back in tick by tick, the path follower is given the reference
+ * point it was following, and everything it computes is written to a new telemetry file.
+ * Comparing that file with the recording shows where a controller change alters the robot's behaviour.
+ *
+ * Usage: ./gradlew replay --args="[--realtime] [--out directory] telemetry.bin ..."
+ *        ./gradlew replay --args="--diff before.bin after.bin"
+ */
+public class ReplayHarness {
+
+	// Controls processor period and command divider used in Robot
+	private static final long kPeriodNanoseconds = 10000000;
+	private static final int kCommandDivider = 2;
+
+	// Differences smaller than this are rounding, not a change in behaviour
+	private static final double kTolerance = 1e-9;
+
+	// Outputs recomputed on every tick
+	private static final Channel[] kOdometryChannels = {
+		Channel.ODOMETRY_X,
+		Channel.ODOMETRY_Y,
+		Channel.ODOMETRY_HEADING,
+		Channel.ODOMETRY_VELOCITY
+	};
+
+	// Outputs only recomputed while the path follower is running
+	private static final Channel[] kControllerChannels = {
+		Channel.ORTHOGONAL_ERROR,
+		Channel.TANGENTIAL_ERROR,
+		Channel.ANGULAR_ERROR,
+		Channel.SAMSON_OUTPUT,
+		Channel.TANGENTIAL_OUTPUT,
+		Channel.LEFT_VELOCITY_COMMAND,
+		Channel.RIGHT_VELOCITY_COMMAND
+	};
+
+	/**
+	 * How far one channel of a replay strayed from the reference file
+	 */
+	public static class Difference {
+		public Channel channel;
+		public int rowsCompared;
+		public double maxError;
+
+		// First row and time the error went over the tolerance, -1 if it never did
+		public int firstRow = -1;
+		public double firstTime;
+
+		public boolean matches() {
+			return firstRow < 0;
+		}
+
+		@Override
+		public String toString() {
+			if (matches()) {
+				return String.format("%-24s matches over %d rows", channel, rowsCompared);
+			}
+			return String.format("%-24s max error %.6g, first differs at row %d (%.2fs)",
+					channel, maxError, firstRow, firstTime);
+		}
+	}
+
+	/**
+	 * Drivetrain sensors read back from the recording
+	 */
+	private static class RecordedDrive implements DriveIO {
+		private SensorReplay replay;
+
+		RecordedDrive(SensorReplay replay) {
+			this.replay = replay;
+		}
+
+		@Override
+		public double getYaw() {
+			return replay.get(Channel.NAVX_YAW);
+		}
+
+		@Override
+		public double getLeftDistance() {
+			return replay.get(Channel.LEFT_ENCODER_DISTANCE);
+		}
+
+		@Override
+		public double getRightDistance() {
+			return replay.get(Channel.RIGHT_ENCODER_DISTANCE);
+		}
+
+		@Override
+		public double getLeftVelocity() {
+			return replay.get(Channel.LEFT_ENCODER_RATE);
+		}
+
+		@Override
+		public double getRightVelocity() {
+			return replay.get(Channel.RIGHT_ENCODER_RATE);
+		}
+
+		// The commands are recorded by SimulatedDrive, there is nothing to drive
+		@Override
+		public void setVelocities(double left, double right) {}
+	}
+
+	/**
+	 * Replays a recording and writes what the current code computes from it
+	 * @param recording Telemetry file recorded on the robot
+	 * @param output File the replayed telemetry is written to
+	 * @param realTime True to replay at the recorded rate instead of as fast as possible
+	 * @throws IOException If the recording can't be read
+	 */
+	public static void replay(File recording, File output, boolean realTime) throws IOException {
+		SensorReplay replay = new SensorReplay(new TelemetryReader(recording));
+		replay.setRealTime(realTime);
+
+		// Timestamps are replayed as recorded so both files line up row for row
+		TelemetryRecorder.setInstance(new TelemetryRecorder(output, 0));
+
+		SimulatedDrive drive = new SimulatedDrive(new RecordedDrive(replay), kPeriodNanoseconds / 1e9);
+
+		ControlsProcessor controlsProcessor = new ControlsProcessor(kPeriodNanoseconds, kCommandDivider, false) {
+			@Override
+			public void registerOperatorControls() {}
+		};
+		controlsProcessor.registerController("DriveTrain", drive);
+		controlsProcessor.setReplay(replay);
+
+		double lastPathIndex = 0;
+
+		while (replay.next()) {
+			if (replay.getBoolean(Channel.DRIVING_CONTROLLER_ACTIVE)) {
+				double pathIndex = replay.get(Channel.PATH_INDEX);
+				loadReference(drive, replay, pathIndex != lastPathIndex);
+				lastPathIndex = pathIndex;
+
+				drive.enable();
+			} else {
+				drive.disable();
+			}
+
+			// Offsets set before the recording started were already in use on the first tick
+			if (replay.getRow() == 0) {
+				drive.odometer.setOffset(replay.get(Channel.ODOMETER_OFFSET));
+			}
+
+			controlsProcessor.tick((long) (replay.getTimestamp() * 1e9));
+
+			// Offsets and position resets were applied by commands, after the drivetrain ran on this tick
+			drive.odometer.setOffset(replay.get(Channel.ODOMETER_OFFSET));
+			if (replay.changed(Channel.ODOMETER_RESET_COUNT)) {
+				drive.odometer.setCurrentPosition(replay.get(Channel.ODOMETER_RESET_X), replay.get(Channel.ODOMETER_RESET_Y));
+			}
+		}
+
+		TelemetryRecorder.setInstance(null);
+	}
+
+	/**
+	 * Puts the recorded reference point where the path follower reads it on this tick
+	 * @param advanced True if the recorded path follower moved to the next point
+	 */
+	private static void loadReference(SimulatedDrive drive, SensorReplay replay, boolean advanced) {
+		ArrayList<MotionPose> controlPath = drive.drivingController.getControlPath();
+		int index = drive.drivingController.getIterator() + (advanced ? 1 : 0);
+
+		MotionPose reference = new MotionPose(replay.get(Channel.REFERENCE_ANGLE), replay.get(Channel.REFERENCE_VELOCITY),
+				replay.get(Channel.REFERENCE_X), replay.get(Channel.REFERENCE_Y));
+
+		while (controlPath.size() > index + 1) {
+			controlPath.remove(controlPath.size() - 1);
+		}
+		while (controlPath.size() < index + 1) {
+			controlPath.add(reference);
+		}
+		controlPath.set(index, reference);
+	}
+
+	/**
+	 * Compares the recomputed channels of two telemetry files row by row
+	 * @param expected Recording or earlier replay
+	 * @param actual Replay to check
+	 * @return One difference per compared channel
+	 */
+	public static List<Difference> compare(TelemetryReader expected, TelemetryReader actual) {
+		List<Difference> differences = new ArrayList<Difference>();
+
+		int rows = Math.min(expected.getRowCount(), actual.getRowCount());
+		int activeColumn = expected.getColumn(Channel.DRIVING_CONTROLLER_ACTIVE.name());
+
+		for (Channel channel : kOdometryChannels) {
+			differences.add(compare(expected, actual, channel, rows, -1));
+		}
+		for (Channel channel : kControllerChannels) {
+			differences.add(compare(expected, actual, channel, rows, activeColumn));
+		}
+		return differences;
+	}
+
+	private static Difference compare(TelemetryReader expected, TelemetryReader actual, Channel channel, int rows, int activeColumn) {
+		Difference difference = new Difference();
+		difference.channel = channel;
+
+		int expectedColumn = expected.getColumn(channel.name());
+		int actualColumn = actual.getColumn(channel.name());
+		if (expectedColumn < 0 || actualColumn < 0) {
+			return difference;
+		}
+
+		for (int row = 0; row < rows; row++) {
+			if (activeColumn >= 0 && expected.get(activeColumn, row) == 0) {
+				continue;
+			}
+
+			double error = Math.abs(expected.get(expectedColumn, row) - actual.get(actualColumn, row));
+			difference.rowsCompared++;
+			difference.maxError = Math.max(difference.maxError, error);
+
+			if (error > kTolerance && difference.firstRow < 0) {
+				difference.firstRow = row;
+				difference.firstTime = expected.getTimestamp(row);
+			}
+		}
+		return difference;
+	}
+
+	private static boolean report(String name, List<Difference> differences) {
+		boolean matches = true;
+
+		System.out.println(name);
+		for (Difference difference : differences) {
+			System.out.println("  " + difference);
+			matches &= difference.matches();
+		}
+		return matches;
+	}
+
+	public static void main(String... args) throws IOException {
+		boolean realTime = false;
+		File outputDirectory = null;
+		List<File> recordings = new ArrayList<File>();
+
+		if (args.length == 3 && args[0].equals("--diff")) {
+			boolean matches = report(args[1] + " -> " + args[2],
+					compare(new TelemetryReader(new File(args[1])), new TelemetryReader(new File(args[2]))));
+			System.exit(matches ? 0 : 1);
+		}
+
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("--realtime")) {
+				realTime = true;
+			} else if (args[i].equals("--out") && i + 1 < args.length) {
+				outputDirectory = new File(args[++i]);
+				outputDirectory.mkdirs();
+			} else {
+				recordings.add(new File(args[i]));
+			}
+		}
+
+		if (recordings.isEmpty()) {
+			System.err.println("Usage: ReplayHarness [--realtime] [--out directory] <telemetry file> ...");
+			System.err.println("       ReplayHarness --diff <expected file> <actual file>");
+			System.exit(1);
+		}
+
+		boolean matches = true;
+
+		for (File recording : recordings) {
+			File output;
+			if (outputDirectory != null) {
+				output = new File(outputDirectory, recording.getName().replace(".bin", "") + "_replay.bin");
+			} else {
+				output = File.createTempFile("replay", ".bin");
+				output.deleteOnExit();
+			}
+
+			replay(recording, output, realTime);
+			matches &= report(recording.getName(), compare(new TelemetryReader(recording), new TelemetryReader(output)));
+		}
+
+		System.exit(matches ? 0 : 1);
+	}
+}
@@ -0,0 +1,110 @@
+package frc.robot.sim;
+
+import frc.robot.util.DrivingController;
+import frc.robot.util.Odometer;
+import frc.robot.util.SubsystemModule;
+import frc.robot.util.TelemetryRecorder;
+
+/**
+ * Drivetrain subsystem wired to a DriveIO the same way DriveTrain is wired to the motors,
+ * records the same telemetry channels so runs can be compared against the robot
+ */
+class SimulatedDrive extends SubsystemModule {
+
+	// Matches DriveTrain.sensitivity used by closedLoopArcade
+	private static final double kPivotSensitivity = 2.5;
+
+	private DriveIO io;
+
+	private TelemetryRecorder telemetry = TelemetryRecorder.getInstance();
+
+	Odometer odometer = new Odometer(0, 0, 0) {
+		@Override
+		public void updateEncodersAndHeading() {
+			this.headingAngle = -io.getYaw() + 90;
+			if (this.headingAngle < 0) {
+				this.headingAngle += 360;
+			}
+
+			this.leftPos = io.getLeftDistance();
+			this.rightPos = io.getRightDistance();
+
+			double leftVelocity = io.getLeftVelocity();
+			double rightVelocity = io.getRightVelocity();
+
+			telemetry.set(TelemetryRecorder.Channel.NAVX_YAW, io.getYaw());
+			telemetry.set(TelemetryRecorder.Channel.LEFT_ENCODER_DISTANCE, this.leftPos);
+			telemetry.set(TelemetryRecorder.Channel.RIGHT_ENCODER_DISTANCE, this.rightPos);
+			telemetry.set(TelemetryRecorder.Channel.LEFT_ENCODER_RATE, leftVelocity);
+			telemetry.set(TelemetryRecorder.Channel.RIGHT_ENCODER_RATE, rightVelocity);
+
+			this.currentAverageVelocity = (leftVelocity + rightVelocity) / 2;
+		}
+	};
+
+	DrivingController drivingController;
+
+	/**
+	 * @param io Sensors and motors of the drivetrain
+	 * @param period Controls processor period in seconds
+	 */
+	SimulatedDrive(DriveIO io, double period) {
+		this.io = io;
+
+		drivingController = new DrivingController(period) {
+			@Override
+			public void updateVariables() {
+				this.currentX = odometer.getCurrentX();
+				this.currentY = odometer.getCurrentY();
+				this.currentAngle = odometer.getHeadingAngle();
+				this.currentAverageVelocity = odometer.getCurrentAverageVelocity();
+			}
+
+			@Override
+			public void driveRobot(double power, double pivot) {
+				pivot *= kPivotSensitivity;
+				setVelocities(power - pivot, power + pivot);
+			}
+		};
+
+		registerCommands();
+	}
+
+	private void setVelocities(double left, double right) {
+		io.setVelocities(left, right);
+
+		telemetry.set(TelemetryRecorder.Channel.LEFT_VELOCITY_COMMAND, left);
+		telemetry.set(TelemetryRecorder.Channel.RIGHT_VELOCITY_COMMAND, right);
+	}
+
+	@Override
+	public void run() {
+		odometer.integratePosition();
+
+		telemetry.set(TelemetryRecorder.Channel.ODOMETRY_X, odometer.getCurrentX());
+		telemetry.set(TelemetryRecorder.Channel.ODOMETRY_Y, odometer.getCurrentY());
+		telemetry.set(TelemetryRecorder.Channel.ODOMETRY_HEADING, odometer.getHeadingAngle());
+		telemetry.set(TelemetryRecorder.Channel.ODOMETRY_VELOCITY, odometer.getCurrentAverageVelocity());
+
+		telemetry.set(TelemetryRecorder.Channel.DRIVING_CONTROLLER_ACTIVE, getStatus());
+
+		if (getStatus()) {
+			drivingController.run();
+		}
+	}
+
+	@Override
+	public void registerCommands() {}
+
+	@Override
+	public void init() {
+		odometer.reset();
+		drivingController.clearControlPath();
+	}
+
+	@Override
+	public void destruct() {
+		disable();
+		setVelocities(0, 0);
+	}
+}
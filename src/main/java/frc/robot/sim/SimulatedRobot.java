@@ -0,0 +1,298 @@
+package frc.robot.sim;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.revrobotics.ControlType;
+
+import frc.robot.RobotMap;
+import frc.robot.hal.Devices;
+import frc.robot.hal.MotorHealthMonitor;
+import frc.robot.hal.OutputFilter;
+import frc.robot.hal.SimulatedDevices;
+import frc.robot.hal.SimulatedEncoder;
+import frc.robot.hal.SimulatedMotor;
+import frc.robot.hal.SimulatedPWM;
+import frc.robot.hal.StatusFramePlanner;
+import frc.robot.subsystems.Arm;
+import frc.robot.subsystems.Climber;
+import frc.robot.subsystems.DriveTrain;
+import frc.robot.util.Clock;
+import frc.robot.util.CommandDetails;
+import frc.robot.util.ControlsProcessor;
+import frc.robot.util.TelemetryRecorder;
+import frc.robot.util.VirtualClock;
+
+/**
+ * The robot's own subsystems running on SimulatedDevices. Every step the plants are driven by
+ * what the subsystems commanded and write back the sensors, which the subsystems then read with
+ * the latency and noise configured on the devices.
+ *
+ * Usage: ./gradlew simulateRobot --args="[latency seconds] [noise] [parallel] [match]"
+ */
+public class SimulatedRobot {
+
+	// Controls processor period and command divider used in Robot
+	private static final long kPeriodNanoseconds = 10000000;
+	private static final int kCommandDivider = 2;
+
+	// Number of plant integration steps per control tick
+	private static final int kPlantSubsteps = 10;
+
+	// Length of a match in seconds, run in full with the match argument
+	private static final double kMatchLength = 150;
+
+	// Drivetrain speed at full duty cycle in ft/s, DriveTrain.maxVelocity
+	private static final double kOpenLoopSpeed = 13;
+
+	// CAN ids of the motors the plants read, see the subsystems
+	private static final int kLeftDrive = 1;
+	private static final int kRightDrive = 4;
+	private static final int kShoulder = 7;
+	private static final int kWrist = 8;
+	private static final int kCargoRoller = 9;
+	private static final int kPump = 10;
+
+	// PWM channel of the hatch valve servo
+	private static final int kValve = 1;
+
+	private final SimulatedDevices devices;
+
+	private final DrivetrainPlant drivePlant = new DrivetrainPlant(2.2, 0.08, 15);
+	private final ArmPlant armPlant = new ArmPlant();
+	private final IntakePlant intakePlant = new IntakePlant(0.5);
+
+	// Not started, poll it to read the motors
+	private final MotorHealthMonitor healthMonitor = new MotorHealthMonitor(250);
+	private final StatusFramePlanner statusFramePlanner = new StatusFramePlanner();
+
+	private final ControlsProcessor controlsProcessor;
+	private final DriveTrain drivetrain;
+	private final Arm arm;
+	private final Climber climber;
+
+	// Time seen by the control code, only moves when the robot is stepped
+	private final VirtualClock clock = new VirtualClock();
+	private double lastValve = 0;
+
+	/**
+	 * Installs the devices and builds the subsystems on them the same way Robot.robotInit does
+	 * @param devices Devices the subsystems will be created from
+	 */
+	public SimulatedRobot(SimulatedDevices devices) {
+		this(devices, false);
+	}
+
+	/**
+	 * @param parallel True to run the drivetrain on a worker thread like the robot does
+	 */
+	public SimulatedRobot(SimulatedDevices devices, boolean parallel) {
+		this.devices = devices;
+		Clock.setInstance(clock);
+		Devices.setInstance(devices);
+		MotorHealthMonitor.setInstance(healthMonitor);
+		StatusFramePlanner.setInstance(statusFramePlanner);
+
+		controlsProcessor = new ControlsProcessor(kPeriodNanoseconds, kCommandDivider, false) {
+			@Override
+			public void registerOperatorControls() {}
+		};
+
+		drivetrain = new DriveTrain(controlsProcessor);
+		arm = new Arm(controlsProcessor);
+		climber = new Climber();
+
+		controlsProcessor.registerController("DriveTrain", drivetrain, parallel ? 1 : 0);
+		controlsProcessor.registerController("Arm", arm);
+		controlsProcessor.registerController("Climber", climber);
+
+		statusFramePlanner.apply();
+
+		writeSensors();
+		arm.init();
+	}
+
+	/**
+	 * Places the robot at rest and enables it like Robot.generalInit
+	 * @param heading Heading in degrees with 90 pointing along +y
+	 */
+	public void enable(double x, double y, double heading) {
+		drivePlant.reset(x, y, heading);
+		writeSensors();
+
+		controlsProcessor.enable();
+		drivetrain.init();
+		climber.init();
+		controlsProcessor.cancelAll();
+	}
+
+	/**
+	 * Same as Robot.disabledInit
+	 */
+	public void disable() {
+		drivetrain.destruct();
+		arm.destruct();
+		climber.destruct();
+
+		controlsProcessor.cancelAll();
+		controlsProcessor.disable();
+	}
+
+	public void queue(String command) {
+		controlsProcessor.addToQueue(new CommandDetails(command));
+	}
+
+	/**
+	 * Runs one controls processor period and advances the plants to the next one
+	 */
+	public void step() {
+		controlsProcessor.tick(clock.nanoTime());
+
+		double dt = kPeriodNanoseconds / 1e9 / kPlantSubsteps;
+		for (int i = 0; i < kPlantSubsteps; i++) {
+			applyOutputs();
+
+			drivePlant.step(dt);
+			armPlant.step(dt);
+			intakePlant.step(dt);
+
+			devices.advance(dt);
+			clock.advance(kPeriodNanoseconds / kPlantSubsteps);
+			writeSensors();
+		}
+	}
+
+	/**
+	 * @return Wheel speed in ft/s that the leader motor is asking for
+	 */
+	private static double wheelSpeed(SimulatedMotor motor) {
+		if (motor.getControlType() == ControlType.kVelocity) {
+			return motor.getReference() * DriveTrain.rpmToFeet;
+		}
+		return motor.getCommandedOutput() * kOpenLoopSpeed;
+	}
+
+	private void applyOutputs() {
+		// Right side motors spin backwards to drive forwards
+		drivePlant.setVelocities(wheelSpeed(devices.getMotor(kLeftDrive)), -wheelSpeed(devices.getMotor(kRightDrive)));
+
+		SimulatedMotor shoulder = devices.getMotor(kShoulder);
+		if (shoulder.getControlType() == ControlType.kPosition) {
+			armPlant.getShoulder().setSetpoint(shoulder.getReference());
+		}
+
+		SimulatedMotor wrist = devices.getMotor(kWrist);
+		if (wrist.getControlType() == ControlType.kPosition) {
+			armPlant.getWrist().setSetpoint(wrist.getReference());
+		}
+
+		intakePlant.setRollerOutput(devices.getMotor(kCargoRoller).getCommandedOutput());
+		intakePlant.setPumpOutput(devices.getMotor(kPump).getCommandedOutput());
+
+		// Opening the valve drops the hatch
+		SimulatedPWM valve = devices.getPWM(kValve);
+		if (valve.get() > 0.5 && lastValve <= 0.5) {
+			intakePlant.release();
+		}
+		lastValve = valve.get();
+	}
+
+	private void writeSensors() {
+		SimulatedEncoder left = devices.getShaftEncoder(RobotMap.p_leftEncoderA);
+		SimulatedEncoder right = devices.getShaftEncoder(RobotMap.p_rightEncoderA);
+
+		left.update(drivePlant.getLeftDistance() / left.getConversionFactor(), drivePlant.getLeftVelocity() / left.getConversionFactor());
+		right.update(drivePlant.getRightDistance() / right.getConversionFactor(), drivePlant.getRightVelocity() / right.getConversionFactor());
+
+		// navX yaw is clockwise positive
+		devices.getGyro().update(-drivePlant.getHeading(), drivePlant.getYawRate());
+
+		writeJoint(devices.getMotor(kShoulder).getSimulatedEncoder(), armPlant.getShoulder());
+		writeJoint(devices.getMotor(kWrist).getSimulatedEncoder(), armPlant.getWrist());
+
+		devices.getMotor(kCargoRoller).getCurrentSignal().write(intakePlant.getRollerCurrent());
+		devices.getMotor(kPump).getCurrentSignal().write(intakePlant.getPumpCurrent());
+	}
+
+	/**
+	 * Writes a joint to its motor's encoder in rotations and RPM
+	 */
+	private static void writeJoint(SimulatedEncoder encoder, ArmPlant.Joint joint) {
+		encoder.update(joint.getPosition() / encoder.getConversionFactor(), joint.getVelocity() / encoder.getConversionFactor() * 60);
+	}
+
+	public DriveTrain getDriveTrain() {
+		return drivetrain;
+	}
+
+	public Arm getArm() {
+		return arm;
+	}
+
+	public Climber getClimber() {
+		return climber;
+	}
+
+	public MotorHealthMonitor getHealthMonitor() {
+		return healthMonitor;
+	}
+
+	public DrivetrainPlant getDrivePlant() {
+		return drivePlant;
+	}
+
+	public ArmPlant getArmPlant() {
+		return armPlant;
+	}
+
+	public IntakePlant getIntakePlant() {
+		return intakePlant;
+	}
+
+	/**
+	 * Runs the start of the left rocket auton through the real subsystems and reports where the
+	 * robot and arm ended up. With match the robot keeps running for a whole match after the path.
+	 */
+	public static void main(String... args) throws IOException {
+		double latency = args.length > 0 ? Double.parseDouble(args[0]) : 0;
+		double noise = args.length > 1 ? Double.parseDouble(args[1]) : 0;
+		boolean parallel = Arrays.asList(args).contains("parallel");
+		boolean match = Arrays.asList(args).contains("match");
+
+		// Starts with the virtual clock the robot installs
+		File telemetry = File.createTempFile("simulated_robot", ".bin");
+		telemetry.deleteOnExit();
+		TelemetryRecorder.setInstance(new TelemetryRecorder(telemetry, 0));
+
+		SimulatedRobot robot = new SimulatedRobot(new SimulatedDevices(latency, noise, 0), parallel);
+
+		robot.getDriveTrain().addBackwardsSpline(0, 0, 270, 7, -4.5, 24, 270, 5, 6, 12, 0, 0);
+		robot.enable(0, 0, 270);
+
+		robot.queue("set_angular_offset -s -180");
+		robot.queue("start_path -s");
+		robot.queue("delayed_to_position -p 5,100,1.5");
+
+		long wallStart = System.nanoTime();
+		double seconds = 0;
+		while (match ? seconds < kMatchLength : seconds < 10 && !robot.getDriveTrain().drivingController.isFinished()) {
+			robot.step();
+			seconds += kPeriodNanoseconds / 1e9;
+		}
+		double wallSeconds = (System.nanoTime() - wallStart) / 1e9;
+
+		DrivetrainPlant plant = robot.getDrivePlant();
+		System.out.println(String.format("latency=%.3fs noise=%.3f after %.2fs: x=%.3f y=%.3f heading=%.1f, odometer x=%.3f y=%.3f, shoulder=%.3f wrist=%.1f",
+				latency, noise, seconds, plant.getX(), plant.getY(), plant.getHeading(),
+				robot.getDriveTrain().odometer.getCurrentX(), robot.getDriveTrain().odometer.getCurrentY(),
+				robot.getArmPlant().getShoulder().getPosition(), robot.getArmPlant().getWrist().getPosition()));
+		System.out.println(String.format("%.2fs of robot time in %.3fs", seconds, wallSeconds));
+
+		for (OutputFilter filter : robot.devices.getOutputFilters()) {
+			System.out.println(String.format("%-12s writes sent %5d, skipped %5d", filter.getName(), filter.getWrites(), filter.getSkipped()));
+		}
+
+		robot.disable();
+	}
+}
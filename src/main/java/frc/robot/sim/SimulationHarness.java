@@ -0,0 +1,153 @@
+package frc.robot.sim;
+
+import frc.robot.util.ControlsProcessor;
+import frc.robot.util.DrivingController;
+import frc.robot.util.MotionPose;
+
+/**
+ * Runs the control stack against the plant models faster than real time, no roboRIO needed.
+ * The controls processor is ticked directly and time only advances when the harness steps it,
+ * so every run of the same path gives the same result.
+ *
+ * Usage: ./gradlew simulate --args="LEFT_ROCKET"
+ */
+public class SimulationHarness {
+
+	// Controls processor period and command divider used in Robot
+	private static final long kPeriodNanoseconds = 10000000;
+	private static final int kCommandDivider = 2;
+
+	// Number of plant integration steps per control tick
+	private static final int kPlantSubsteps = 10;
+
+	// Time given to a path before the run is considered failed
+	private static final double kTimeout = 15;
+
+	/**
+	 * First spline of each autonomous mode, as generated in Robot.robotInit
+	 */
+	public enum Path {
+		LEFT_ROCKET(-4.5, 24, 270, 5),
+		RIGHT_ROCKET(4.5, 24, 270, 5),
+		LEFT_CARGO(-6, 19.9, 0, 4),
+		RIGHT_CARGO(6, 19.9, 180, 4);
+
+		private double xFinal, yFinal, thetaFinal, lFinal;
+
+		Path(double xFinal, double yFinal, double thetaFinal, double lFinal) {
+			this.xFinal = xFinal;
+			this.yFinal = yFinal;
+			this.thetaFinal = thetaFinal;
+			this.lFinal = lFinal;
+		}
+
+		void addTo(DrivingController drivingController) {
+			drivingController.addBackwardsSpline(0, 0, 270, 7, xFinal, yFinal, thetaFinal, lFinal, 6, 12, 0, 0);
+		}
+	}
+
+	/**
+	 * Tracking error and loop cost of one simulated run
+	 */
+	public static class Result {
+		public int ticks;
+		public boolean finished;
+		public double simulatedSeconds;
+		public double wallSeconds;
+
+		public double maxCrossTrackError;
+		public double rmsCrossTrackError;
+		public double finalPositionError;
+
+		public double meanTickMicroseconds;
+		public double maxTickMicroseconds;
+
+		@Override
+		public String toString() {
+			return String.format("finished=%b ticks=%d simulated=%.2fs wall=%.3fs (%.0fx real time)%n"
+					+ "  cross track error: max=%.3fft rms=%.3fft, final position error=%.3fft%n"
+					+ "  tick cost: mean=%.1fus max=%.1fus",
+					finished, ticks, simulatedSeconds, wallSeconds, simulatedSeconds / wallSeconds,
+					maxCrossTrackError, rmsCrossTrackError, finalPositionError,
+					meanTickMicroseconds, maxTickMicroseconds);
+		}
+	}
+
+	/**
+	 * Follows the path from the autonomous starting pose until it finishes or times out
+	 * @param path Path in reference
+	 * @return Tracking error and loop cost
+	 */
+	public static Result run(Path path) {
+		DrivetrainPlant plant = new DrivetrainPlant(2.2, 0.08, 15);
+		SimulatedDrive drive = new SimulatedDrive(plant, kPeriodNanoseconds / 1e9);
+
+		ControlsProcessor controlsProcessor = new ControlsProcessor(kPeriodNanoseconds, kCommandDivider, false) {
+			@Override
+			public void registerOperatorControls() {}
+		};
+		controlsProcessor.registerController("DriveTrain", drive);
+
+		// Autons start backed against the wall facing the driver station, see set_angular_offset -180
+		plant.reset(0, 0, 270);
+		drive.init();
+		drive.odometer.setOffset(-180);
+
+		path.addTo(drive.drivingController);
+		drive.enable();
+
+		Result result = new Result();
+		double dt = kPeriodNanoseconds / 1e9;
+		double squaredErrorSum = 0;
+		long tickNanosSum = 0;
+		long wallStart = System.nanoTime();
+
+		while (!drive.drivingController.isFinished() && result.ticks * dt < kTimeout) {
+			long tickStart = System.nanoTime();
+			controlsProcessor.tick(result.ticks * kPeriodNanoseconds);
+			long tickNanos = System.nanoTime() - tickStart;
+
+			tickNanosSum += tickNanos;
+			result.maxTickMicroseconds = Math.max(result.maxTickMicroseconds, tickNanos / 1e3);
+
+			for (int i = 0; i < kPlantSubsteps; i++) {
+				plant.step(dt / kPlantSubsteps);
+			}
+
+			MotionPose reference = drive.drivingController.getControlPath().get(drive.drivingController.getIterator());
+			double crossTrackError = Math.abs(reference.getOrthogonalDisplacement(plant.getX(), plant.getY()));
+
+			result.maxCrossTrackError = Math.max(result.maxCrossTrackError, crossTrackError);
+			squaredErrorSum += crossTrackError * crossTrackError;
+			result.ticks++;
+		}
+
+		drive.destruct();
+
+		MotionPose last = drive.drivingController.getControlPath().get(drive.drivingController.getControlPath().size() - 1);
+
+		result.finished = drive.drivingController.isFinished();
+		result.simulatedSeconds = result.ticks * dt;
+		result.wallSeconds = (System.nanoTime() - wallStart) / 1e9;
+		result.rmsCrossTrackError = Math.sqrt(squaredErrorSum / Math.max(1, result.ticks));
+		result.finalPositionError = Math.hypot(plant.getX() - last.x, plant.getY() - last.y);
+		result.meanTickMicroseconds = tickNanosSum / 1e3 / Math.max(1, result.ticks);
+
+		return result;
+	}
+
+	public static void main(String... args) {
+		Path[] paths = Path.values();
+
+		if (args.length > 0) {
+			paths = new Path[args.length];
+			for (int i = 0; i < args.length; i++) {
+				paths[i] = Path.valueOf(args[i]);
+			}
+		}
+
+		for (Path path : paths) {
+			System.out.println(path + ": " + run(path));
+		}
+	}
+}
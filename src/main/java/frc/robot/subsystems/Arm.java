@@ -1,37 +1,84 @@
 package frc.robot.subsystems;
 
-import com.revrobotics.CANEncoder;
-import com.revrobotics.CANPIDController;
 import com.revrobotics.CANSparkMax;
 import com.revrobotics.ControlType;
 import com.revrobotics.CANSparkMaxLowLevel.MotorType;
-import com.revrobotics.CANSparkMaxLowLevel.PeriodicFrame;
 
+import frc.robot.hal.ClosedLoopController;
+import frc.robot.hal.Devices;
+import frc.robot.hal.Encoder;
+import frc.robot.hal.MotorController;
+import frc.robot.hal.MotorHealthMonitor;
+import frc.robot.hal.StatusFramePlanner;
+import frc.robot.util.ArmPositionTable;
+import frc.robot.util.ArmTrajectory;
 import frc.robot.util.ControlsProcessor;
+import frc.robot.util.JerkLimitedProfile;
+import frc.robot.util.Logger;
+import frc.robot.util.Resource;
 import frc.robot.util.SubsystemCommand;
 import frc.robot.util.SubsystemModule;
+import frc.robot.util.TelemetryRecorder;
 
 public class Arm extends SubsystemModule {
 
+	private static final Logger log = Logger.getLogger("Arm");
+
+	private TelemetryRecorder telemetry = TelemetryRecorder.getInstance();
+
 	private Intake intake;
 
 	// Arm motors
-	private final CANSparkMax shoulderMotor = new CANSparkMax(7, MotorType.kBrushless);
-	private final CANSparkMax wristMotor = new CANSparkMax(8, MotorType.kBrushless);
+	private final MotorController shoulderMotor = Devices.getInstance().sparkMax(7, MotorType.kBrushless);
+	private final MotorController wristMotor = Devices.getInstance().sparkMax(8, MotorType.kBrushless);
 
 	// Initialize arm encoders
-	private CANEncoder shoulderEncoder = shoulderMotor.getEncoder();
-	private CANEncoder wristEncoder = wristMotor.getEncoder();
+	private Encoder shoulderEncoder = shoulderMotor.getEncoder();
+	private Encoder wristEncoder = wristMotor.getEncoder();
+
+	// Encoder positions read at the start of the controls processor iteration
+	private double shoulderPosition;
+	private double wristPosition;
 
 	// Arm PIDs
-	private CANPIDController shoulderPID;
-	private CANPIDController wristPID;
+	private ClosedLoopController shoulderPID;
+	private ClosedLoopController wristPID;
+
+	// Wrist folded past 150 degrees while the shoulder is low puts the intake into the bumpers.
+	// The bounds sit between presets the arm is known to reach safely: the station and low hatch
+	// presets hold the shoulder at 0.3 with the wrist at 86, and the lowest folded preset is the
+	// floor hatch at 1.8 and 195, so the region stops at 1.2 and 150 with margin to both. -1 and
+	// 400 are past the ends of travel, leaving the region open below and past full fold.
+	private static final ArmPositionTable.KeepOut kBumperKeepOut = new ArmPositionTable.KeepOut(-1, 1.2, 150, 400);
+
+	// Coordinated moves, shoulder in leadscrew units and wrist in degrees
+	private ArmTrajectory trajectory = newTrajectory();
+	private boolean trajectoryRunning = false;
+	private double trajectoryTime;
+
+	// Presets and the paths between them, the current path is followed one point at a time
+	private ArmPositionTable positions = new ArmPositionTable(newTrajectory(), kBumperKeepOut);
+	private ArmPositionTable.Path path;
+	private int pathIndex;
+
+	// Path of a move that isn't between presets, only rewritten when a new move replaces it
+	private final ArmPositionTable.Path pathBuffer = new ArmPositionTable.Path();
+
+	// Time a preset command waits past its planned move for the arm to settle before ending anyway
+	private static final double kPresetSettleTimeout = 1.0;
+
+	// Last setpoints sent to the PIDs
+	private double shoulderSetpoint = 0;
+	private double wristSetpoint = 0;
 
 	// ControlsProcessor
 	private ControlsProcessor controlsProcessor;
 
 	// Arm initialization
 	public Arm(ControlsProcessor controlsProcessor) {
+		// Setpoints are streamed at 50 Hz, the SparkMax position loop smooths between them
+		setRates(50, 50);
+
 		intake = new Intake();
 
 		controlsProcessor.registerController("Intake", intake);
@@ -45,11 +92,12 @@ public class Arm extends SubsystemModule {
 		shoulderMotor.setSmartCurrentLimit(80);
 		wristMotor.setSmartCurrentLimit(80);
 
-		// Set SparkMax CAN periods
-		shoulderMotor.setPeriodicFramePeriod(PeriodicFrame.kStatus0, 5);
-		shoulderMotor.setPeriodicFramePeriod(PeriodicFrame.kStatus2, 5);
-		wristMotor.setPeriodicFramePeriod(PeriodicFrame.kStatus0, 10);
-		wristMotor.setPeriodicFramePeriod(PeriodicFrame.kStatus2, 10);
+		// Positions are read and setpoints streamed at the arm's 50 Hz run rate
+		StatusFramePlanner planner = StatusFramePlanner.getInstance();
+		planner.require("Shoulder", shoulderMotor, StatusFramePlanner.Signal.POSITION, 20, "arm");
+		planner.require("Wrist", wristMotor, StatusFramePlanner.Signal.POSITION, 20, "arm");
+		planner.commanded("Shoulder", shoulderMotor, 20);
+		planner.commanded("Wrist", wristMotor, 20);
 
 		// Inverts wrist motor direction
 		wristMotor.setInverted(true);
@@ -66,52 +114,164 @@ public class Arm extends SubsystemModule {
 		// Converts motor rotations to degrees
 		shoulderEncoder.setPositionConversionFactor(1.0/7);
 		wristEncoder.setPositionConversionFactor(18.0/7);
+
+		// Faults are read off the control thread by the health monitor
+		MotorHealthMonitor healthMonitor = MotorHealthMonitor.getInstance();
+		healthMonitor.register("Shoulder", shoulderMotor);
+		healthMonitor.register("Wrist", wristMotor);
+		healthMonitor.addListener(new MotorHealthMonitor.Listener() {
+			@Override
+			public void faultRaised(MotorHealthMonitor.Status motor, CANSparkMax.FaultID fault) {
+				if (motor.getDeviceId() != wristMotor.getDeviceId()) {
+					return;
+				}
+
+				if (fault == CANSparkMax.FaultID.kHasReset) {
+					log.warn("RESET FAULT --> WRIST PROBLEM");
+				} else if (fault == CANSparkMax.FaultID.kSensorFault) {
+					log.warn("SENSOR FAULT --> WRIST PROBLEM");
+				} else if (fault == CANSparkMax.FaultID.kMotorFault) {
+					log.warn("MOTOR FAULT --> WRIST PROBLEM");
+				}
+			}
+		});
 	}
 
 	/**
-	 * Sets the arm to the desired overall position
+	 * Sets the arm to the desired overall position, stopping any coordinated move
 	 * @param leadscrewLength the desired shoulder angle in degrees
 	 * @param wristAngle the desired wrist angle in degrees
 	 */
 	public void goToPosition(double leadscrewLength, double wristAngle) {
+		trajectoryRunning = false;
+		setSetpoints(leadscrewLength, wristAngle);
+	}
+
+	private void setSetpoints(double leadscrewLength, double wristAngle) {
+		shoulderSetpoint = leadscrewLength;
+		wristSetpoint = wristAngle;
+
 		shoulderPID.setReference(leadscrewLength, ControlType.kPosition);
 		wristPID.setReference(wristAngle, ControlType.kPosition);
+
+		telemetry.set(TelemetryRecorder.Channel.SHOULDER_SETPOINT, leadscrewLength);
+		telemetry.set(TelemetryRecorder.Channel.WRIST_SETPOINT, wristAngle);
 	}
 
-	public boolean atPosition(double leadscrewLength) {
+	private static ArmTrajectory newTrajectory() {
+		return new ArmTrajectory(
+				new JerkLimitedProfile(6, 20, 150),
+				new JerkLimitedProfile(270, 900, 6000));
+	}
 
-		if(wristMotor.getStickyFault(CANSparkMax.FaultID.kHasReset)){
-			System.out.println("RESET FAULT --> WRIST PROBLEM");
-		}
+	/**
+	 * Starts a jerk limited move where the shoulder and wrist arrive at the same time, going
+	 * around the keep-out regions. The setpoints are streamed from run.
+	 * @param leadscrewLength the desired shoulder position
+	 * @param wristAngle the desired wrist angle in degrees
+	 */
+	public void moveTo(double leadscrewLength, double wristAngle) {
+		stopMove();
+		followPath(positions.route(shoulderSetpoint, wristSetpoint, leadscrewLength, wristAngle, pathBuffer));
+	}
 
-		if(wristMotor.getStickyFault(CANSparkMax.FaultID.kSensorFault)){
-			System.out.println("SENSOR FAULT --> WRIST PROBLEM");
-		}
+	/**
+	 * Moves to a preset for the game piece being held
+	 * @return Target shoulder position
+	 */
+	public double moveTo(ArmPositionTable.Preset preset) {
+		stopMove();
+		followPath(positions.getPath(shoulderSetpoint, wristSetpoint, preset, getGamePiece(), pathBuffer));
+		return path.getTargetShoulder();
+	}
+
+	public ArmPositionTable.GamePiece getGamePiece() {
+		return intake.getCargoState() ? ArmPositionTable.GamePiece.CARGO : ArmPositionTable.GamePiece.HATCH;
+	}
 
-		if(wristMotor.getStickyFault(CANSparkMax.FaultID.kMotorFault)){
-			System.out.println("MOTOR FAULT --> WRIST PROBLEM");
+	/**
+	 * Ends the move in progress where it has got to, a new move starts from there
+	 */
+	private void stopMove() {
+		if (trajectoryRunning) {
+			trajectory.sample(trajectoryTime);
+			shoulderSetpoint = trajectory.getShoulder().getPosition();
+			wristSetpoint = trajectory.getWrist().getPosition();
+			trajectoryRunning = false;
 		}
+	}
+
+	private void followPath(ArmPositionTable.Path path) {
+		this.path = path;
+		pathIndex = 0;
+		startLeg();
+	}
+
+	private void startLeg() {
+		trajectory.plan(shoulderSetpoint, wristSetpoint, path.getShoulder(pathIndex), path.getWrist(pathIndex));
+		trajectoryTime = 0;
+		trajectoryRunning = true;
+	}
+
+	/**
+	 * @return True once the last move's setpoints have reached the target
+	 */
+	public boolean isMoveFinished() {
+		return !trajectoryRunning;
+	}
+
+	public boolean atPosition(double leadscrewLength) {
+		return Math.abs(shoulderPosition - leadscrewLength) < 0.1;
+	}
 
-		return Math.abs(shoulderEncoder.getPosition() - leadscrewLength) < 0.1;
+	private void zeroEncoders() {
+		shoulderEncoder.setPosition(0);
+		wristEncoder.setPosition(0);
+		shoulderPosition = 0;
+		wristPosition = 0;
 	}
 
 	@Override
-	public void run() {}
+	public void readSensors() {
+		shoulderPosition = shoulderEncoder.getPosition();
+		wristPosition = wristEncoder.getPosition();
+	}
+
+	@Override
+	public void run() {
+		if (trajectoryRunning) {
+			trajectoryTime += getRunPeriod();
+			trajectory.sample(trajectoryTime);
+			setSetpoints(trajectory.getShoulder().getPosition(), trajectory.getWrist().getPosition());
+
+			if (trajectory.isFinished(trajectoryTime)) {
+				trajectoryRunning = false;
+
+				if (pathIndex + 1 < path.size()) {
+					pathIndex++;
+					startLeg();
+				}
+			}
+		}
+
+		telemetry.set(TelemetryRecorder.Channel.SHOULDER_POSITION, shoulderPosition);
+		telemetry.set(TelemetryRecorder.Channel.WRIST_POSITION, wristPosition);
+	}
 
 	@Override
 	public void registerCommands() {
-		new SubsystemCommand(this.registeredCommands, "shoulder_jog_up") {
+		new SubsystemCommand(this.registeredCommands, "shoulder_jog_up", Resource.ARM) {
 			double position;
 
 			@Override
 			public void initialize() {
-				position = shoulderEncoder.getPosition();
+				position = shoulderPosition;
 			}
 
 			@Override
 			public void execute() {
 				position += 0.05;
-				goToPosition(position, wristEncoder.getPosition());
+				goToPosition(position, wristPosition);
 			}
 
 			@Override
@@ -123,18 +283,18 @@ public class Arm extends SubsystemModule {
 			public void end() {}
 		};
 
-		new SubsystemCommand(this.registeredCommands, "shoulder_jog_down") {
+		new SubsystemCommand(this.registeredCommands, "shoulder_jog_down", Resource.ARM) {
 			double position;
 
 			@Override
 			public void initialize() {
-				position = shoulderEncoder.getPosition();
+				position = shoulderPosition;
 			}
 
 			@Override
 			public void execute() {
 				position -= 0.05;
-				goToPosition(position, wristEncoder.getPosition());
+				goToPosition(position, wristPosition);
 			}
 
 			@Override
@@ -146,18 +306,18 @@ public class Arm extends SubsystemModule {
 			public void end() {}
 		};
 
-		new SubsystemCommand(this.registeredCommands, "wrist_jog_up") {
+		new SubsystemCommand(this.registeredCommands, "wrist_jog_up", Resource.ARM) {
 			double position;
 
 			@Override
 			public void initialize() {
-				position = wristEncoder.getPosition();
+				position = wristPosition;
 			}
 
 			@Override
 			public void execute() {
 				position -= 0.5;
-				goToPosition(shoulderEncoder.getPosition(), position);
+				goToPosition(shoulderPosition, position);
 			}
 
 			@Override
@@ -169,18 +329,18 @@ public class Arm extends SubsystemModule {
 			public void end() {}
 		};
 
-		new SubsystemCommand(this.registeredCommands, "wrist_jog_down") {
+		new SubsystemCommand(this.registeredCommands, "wrist_jog_down", Resource.ARM) {
 			double position;
 
 			@Override
 			public void initialize() {
-				position = wristEncoder.getPosition();
+				position = wristPosition;
 			}
 
 			@Override
 			public void execute() {
 				position += 0.5;
-				goToPosition(shoulderEncoder.getPosition(), position);
+				goToPosition(shoulderPosition, position);
 			}
 
 			@Override
@@ -192,219 +352,51 @@ public class Arm extends SubsystemModule {
 			public void end() {}
 		};
 
-		new SubsystemCommand(this.registeredCommands, "start_position") {
-			double shoulderAngle;
-			double wristAngle;
-
-			@Override
-			public void initialize() {
-				shoulderAngle = 0;
-				wristAngle = 0;
-			}
-
-			@Override
-			public void execute() {
-				goToPosition(shoulderAngle, wristAngle);
-			}
-
-			@Override
-			public boolean isFinished() {
-				return atPosition(shoulderAngle);
-			}
-
-			@Override
-			public void end() {}
-		};
-
-		new SubsystemCommand(this.registeredCommands, "floor_cargo_position") {
-			double shoulderAngle;
-			double wristAngle;
-
-			@Override
-			public void initialize() {
-				shoulderAngle = 2.4;
-				wristAngle = 240;
-			}
-
-			@Override
-			public void execute() {
-				goToPosition(shoulderAngle, wristAngle);
-			}
-
-			@Override
-			public boolean isFinished() {
-				return atPosition(shoulderAngle);
-			}
-
-			@Override
-			public void end() {}
-		};
-
-		new SubsystemCommand(this.registeredCommands, "floor_hatch_position") {
-			double shoulderAngle;
-			double wristAngle;
-
-			@Override
-			public void initialize() {
-				shoulderAngle = 1.8;
-				wristAngle = 195;
-			}
-
-			@Override
-			public void execute() {
-				goToPosition(shoulderAngle, wristAngle);
-			}
-
-			@Override
-			public boolean isFinished() {
-				return atPosition(shoulderAngle);
-			}
-
-			@Override
-			public void end() {}
-		};
-
-		new SubsystemCommand(this.registeredCommands, "station_position") {
-			double shoulderAngle;
-			double wristAngle;
-
-			@Override
-			public void initialize() {
-				shoulderAngle = 0.3;
-				wristAngle = 86;
-			}
-
-			@Override
-			public void execute() {
-				goToPosition(shoulderAngle, wristAngle);
-			}
-
-			@Override
-			public boolean isFinished() {
-				return atPosition(shoulderAngle);
-			}
-
-			@Override
-			public void end() {}
-		};
-
-		new SubsystemCommand(this.registeredCommands, "lower_score") {
-			double shoulderAngle;
-			double wristAngle;
+		new SubsystemCommand(this.registeredCommands, "move_arm_to", Resource.ARM) {
+			double shoulderTarget;
+			boolean validPreset;
 
 			@Override
 			public void initialize() {
-				if(intake.getCargoState()) {
-					shoulderAngle = 6;
-					wristAngle = 205;
-				} else {
-					shoulderAngle = 0.3;
-					wristAngle = 86;
-				}
-			}
-
-			@Override
-			public void execute() {
-				goToPosition(shoulderAngle, wristAngle);
-			}
-
-			@Override
-			public boolean isFinished() {
-				return atPosition(shoulderAngle);
-			}
-
-			@Override
-			public void end() {}
-		};
-
-		new SubsystemCommand(this.registeredCommands, "middle_score") {
-			double shoulderAngle;
-			double wristAngle;
+				validPreset = false;
 
-			@Override
-			public void initialize() {
-				if(intake.getCargoState()) {
-					shoulderAngle = 10.0;
-					wristAngle = 230;
-				} else {
-					shoulderAngle = 6.8;
-					wristAngle = 133;
+				if (this.args == null || this.args.length < 1) {
+					log.error("move_arm_to needs a preset");
+					return;
 				}
-			}
-
-			@Override
-			public void execute() {
-				goToPosition(shoulderAngle, wristAngle);
-			}
-
-			@Override
-			public boolean isFinished() {
-				return atPosition(shoulderAngle);
-			}
-
-			@Override
-			public void end() {}
-		};
-
-		new SubsystemCommand(this.registeredCommands, "upper_score") {
-			double shoulderAngle;
-			double wristAngle;
-			long startTime;
 
-			@Override
-			public void initialize() {
-				if(intake.getCargoState()) {
-					shoulderAngle = 13.4;
-					wristAngle = 135;
-				} else {
-					shoulderAngle = 11.6;
-					wristAngle = 192;
+				try {
+					shoulderTarget = moveTo(ArmPositionTable.Preset.valueOf(this.args[0].trim().toUpperCase()));
+					setTimeout(path.getDuration() + kPresetSettleTimeout);
+					validPreset = true;
+				} catch (IllegalArgumentException e) {
+					log.error("Unknown arm preset {}", this.args[0]);
 				}
-				startTime = System.nanoTime();
-			}
-
-			@Override
-			public void execute() {
-				goToPosition(shoulderAngle, wristAngle);
 			}
 
 			@Override
-			public boolean isFinished() {
-				return System.nanoTime() - startTime > 1e9;
-			}
-
-			@Override
-			public void end() {}
-		};
-
-		new SubsystemCommand(this.registeredCommands, "flex_score") {
-			double shoulderAngle;
-			double wristAngle;
-			long startTime;
-
-			@Override
-			public void initialize() {
-				startTime = System.nanoTime();
-
-				shoulderAngle = 9;
-				wristAngle = 285;
-			}
-
-			@Override
-			public void execute() {
-				goToPosition(shoulderAngle, wristAngle);
-			}
+			public void execute() {}
 
 			@Override
 			public boolean isFinished() {
-				return System.nanoTime() - startTime > 1e9;
+				return !validPreset || (isMoveFinished() && atPosition(shoulderTarget));
 			}
 
 			@Override
 			public void end() {}
 		};
 
-		new SubsystemCommand(this.registeredCommands, "delayed_to_position") {
+		registerPresetCommand("start_position", ArmPositionTable.Preset.START);
+		registerPresetCommand("floor_cargo_position", ArmPositionTable.Preset.FLOOR_CARGO);
+		registerPresetCommand("floor_hatch_position", ArmPositionTable.Preset.FLOOR_HATCH);
+		registerPresetCommand("station_position", ArmPositionTable.Preset.STATION);
+		registerPresetCommand("lower_score", ArmPositionTable.Preset.LOWER_SCORE);
+		registerPresetCommand("middle_score", ArmPositionTable.Preset.MIDDLE_SCORE);
+		registerPresetCommand("upper_score", ArmPositionTable.Preset.UPPER_SCORE);
+		registerPresetCommand("flex_score", ArmPositionTable.Preset.FLEX_SCORE);
+		registerPresetCommand("auton_hatch", ArmPositionTable.Preset.AUTON_HATCH);
+
+		new SubsystemCommand(this.registeredCommands, "delayed_to_position", Resource.ARM) {
 			double shoulderAngle;
 			double wristAngle;
 
@@ -419,13 +411,13 @@ public class Arm extends SubsystemModule {
 				currentPeriod = 0;
 				finalPeriod = (int)(Double.parseDouble(this.args[2]) / controlsProcessor.getCommandPeriod());
 
-				System.out.println("Final Period: " + finalPeriod);
+				log.info("Final Period: {}", finalPeriod);
 			}
 
 			@Override
 			public void execute() {
 				if(currentPeriod == finalPeriod) {
-					goToPosition(shoulderAngle, wristAngle);
+					moveTo(shoulderAngle, wristAngle);
 					currentPeriod++;
 				} else {
 					currentPeriod++;
@@ -434,78 +426,80 @@ public class Arm extends SubsystemModule {
 
 			@Override
 			public boolean isFinished() {
-				return atPosition(shoulderAngle);
+				return currentPeriod > finalPeriod && isMoveFinished() && atPosition(shoulderAngle);
 			}
 
 			@Override
 			public void end() {
-				System.out.println("Delayed to Position end (Wrist Encoder: " + wristEncoder.getPosition() +
-						" , Arm Encoder: " + shoulderEncoder.getPosition() + ")");
+				log.info("Delayed to Position end (Wrist Encoder: {} , Arm Encoder: {})",
+						wristPosition, shoulderPosition);
 			}
 		};
 
-		new SubsystemCommand(this.registeredCommands, "auton_hatch") {
-			double shoulderAngle;
-			double wristAngle;
+		// Requires the arm as well as the intake. From the queue or an auton it waits for the arm move
+		// before it, from a button it interrupts that move and releases the piece where the arm is
+		new SubsystemCommand(this.registeredCommands, "extake", Resource.ARM, Resource.INTAKE) {
 
 			@Override
 			public void initialize() {
-				shoulderAngle = 3;
-				wristAngle = 110;
+				setTimeout(1.0);
+
+				intake.pumpMotor.set(0);
+
+				if(!intake.getHatchState())
+					intake.cargoMotor.set(-1);
+
+				intake.clearStates();
 			}
 
 			@Override
 			public void execute() {
-				goToPosition(shoulderAngle, wristAngle);
+				intake.pumpRelease();
 			}
 
 			@Override
 			public boolean isFinished() {
-				return atPosition(shoulderAngle);
+				return false;
 			}
 
 			@Override
-			public void end() {}
+			public void end() {
+				intake.cargoMotor.set(0);
+			}
 		};
 
-		new SubsystemCommand(this.registeredCommands, "extake") {
-			long timer;
+		new SubsystemCommand(this.registeredCommands, "zero_arm", Resource.ARM) {
 
 			@Override
 			public void initialize() {
-				timer = System.nanoTime();
-
-				intake.pumpMotor.set(0);
-
-				if(!intake.getHatchState())
-					intake.cargoMotor.set(-1);
-
-				intake.clearStates();
+				zeroEncoders();
+				goToPosition(0, 0);
 			}
 
 			@Override
-			public void execute() {
-				intake.pumpRelease();
-			}
+			public void execute() {}
 
 			@Override
 			public boolean isFinished() {
-				return System.nanoTime() - timer >= 1.0 * 1e9;
+				return true;
 			}
 
 			@Override
-			public void end() {
-				intake.cargoMotor.set(0);
-			}
+			public void end() {}
 		};
+	}
 
-		new SubsystemCommand(this.registeredCommands, "zero_arm") {
+	/**
+	 * Registers a command that moves to the preset for the held game piece
+	 */
+	private void registerPresetCommand(String name, ArmPositionTable.Preset preset) {
+		new SubsystemCommand(this.registeredCommands, name, Resource.ARM) {
+			double shoulderTarget;
 
 			@Override
 			public void initialize() {
-				shoulderEncoder.setPosition(0);
-				wristEncoder.setPosition(0);
-				goToPosition(0, 0);
+				shoulderTarget = moveTo(preset);
+				setTimeout(path.getDuration() + kPresetSettleTimeout);
 			}
 
 			@Override
@@ -513,7 +507,7 @@ public class Arm extends SubsystemModule {
 
 			@Override
 			public boolean isFinished() {
-				return true;
+				return isMoveFinished() && atPosition(shoulderTarget);
 			}
 
 			@Override
@@ -528,8 +522,11 @@ public class Arm extends SubsystemModule {
 		shoulderMotor.setIdleMode(CANSparkMax.IdleMode.kBrake);
 		wristMotor.setIdleMode(CANSparkMax.IdleMode.kCoast);
 
-		shoulderEncoder.setPosition(0);
-		wristEncoder.setPosition(0);
+		zeroEncoders();
+
+		trajectoryRunning = false;
+		shoulderSetpoint = 0;
+		wristSetpoint = 0;
 	}
 
 	@Override
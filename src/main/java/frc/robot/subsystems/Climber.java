@@ -1,25 +1,33 @@
 package frc.robot.subsystems;
 
-import com.revrobotics.CANEncoder;
 import com.revrobotics.CANSparkMax;
 import com.revrobotics.CANSparkMaxLowLevel.MotorType;
 
-import edu.wpi.first.wpilibj.Servo;
+import frc.robot.hal.Devices;
+import frc.robot.hal.Encoder;
+import frc.robot.hal.MotorController;
+import frc.robot.hal.MotorHealthMonitor;
+import frc.robot.hal.PWMOutput;
+import frc.robot.hal.StatusFramePlanner;
+import frc.robot.util.Logger;
+import frc.robot.util.Resource;
 import frc.robot.util.SubsystemCommand;
 import frc.robot.util.SubsystemModule;
 
 public class Climber extends SubsystemModule {
 
-    private CANSparkMax climberMotor = new CANSparkMax(11, MotorType.kBrushless);
-    private CANSparkMax climberAssistor = new CANSparkMax(12,MotorType.kBrushless);
+    private static final Logger log = Logger.getLogger("Climber");
+
+    private MotorController climberMotor = Devices.getInstance().sparkMax(11, MotorType.kBrushless);
+    private MotorController climberAssistor = Devices.getInstance().sparkMax(12, MotorType.kBrushless);
     // private CANSparkMax climberPump = new CANSparkMax(12, MotorType.kBrushed);
 
     // MAX encoders
-	private CANEncoder climberEncoder = climberMotor.getEncoder();
+	private Encoder climberEncoder = climberMotor.getEncoder();
 
-	private Servo climberValve = new Servo(2);
+	private PWMOutput climberValve = Devices.getInstance().servo(2);
 
-    // Climber positions
+    // Climber position read at the start of the controls processor iteration
     private double climberPosition;
 
     // Double press for climb
@@ -27,27 +35,34 @@ public class Climber extends SubsystemModule {
     public boolean climbMode;
 
     public Climber() {
+        // Nothing to do in run, the climb commands still check the position at 50 Hz
+        setRates(10, 50);
+
         registerCommands(); // Puts commands onto the hashmaps
+
+        // Climb commands check the position every command period
+        StatusFramePlanner planner = StatusFramePlanner.getInstance();
+        planner.require("Climber", climberMotor, StatusFramePlanner.Signal.POSITION, 20, "climber");
+        planner.commanded("Climber", climberMotor, 20);
+        planner.commanded("Climber Assistor", climberAssistor, 20);
+
+        MotorHealthMonitor.getInstance().register("Climber", climberMotor);
+        MotorHealthMonitor.getInstance().register("Climber Assistor", climberAssistor);
     }
 
-    /**
-     * @return the position of the lifter in 
-     */
-    public void updatePositions() {
+    @Override public void readSensors() {
         climberPosition = climberEncoder.getPosition();
     }
 
-    @Override public void run() {
-        updatePositions();
-    }
+    @Override public void run() {}
 
     @Override public void registerCommands() {
 
-        new SubsystemCommand(this.registeredCommands, "climber_up") {
+        new SubsystemCommand(this.registeredCommands, "climber_up", Resource.CLIMBER) {
 
             @Override
 			public void initialize() {
-	                System.out.println("Giving Power 1.0 to climber");
+	                log.info("Giving Power 1.0 to climber");
                     climberMotor.set(1);
                     climberAssistor.set(1);
                     climbMode = true;
@@ -67,19 +82,19 @@ public class Climber extends SubsystemModule {
 			public boolean isFinished() {
 				//Actual highest position = 235
 				//dcmp = 240
-				return climberEncoder.getPosition() >= 100;
+				return climberPosition >= 100;
 			}
 
 			@Override
 			public void end() {
-				System.out.println("Ending upper climber motor movement");
-                System.out.println("Lifter: " + climberEncoder.getPosition());
+				log.info("Ending upper climber motor movement");
+                log.info("Lifter: {}", climberPosition);
                 climberMotor.set(0.0);
                 climberAssistor.set(0.0);
 			}
         };
 
-        new SubsystemCommand(this.registeredCommands, "climber_down") {
+        new SubsystemCommand(this.registeredCommands, "climber_down", Resource.CLIMBER) {
 			@Override
 			public void initialize() {
 
@@ -100,34 +115,33 @@ public class Climber extends SubsystemModule {
 			public boolean isFinished() {
 				//Actual Lowest = -90
 				//dcmp = -80
-				return climberEncoder.getPosition() <= -34;
+				return climberPosition <= -34;
 			}
 
 			@Override
 			public void end() {
-				System.out.println("Ending downward climber motor movement");
+				log.info("Ending downward climber motor movement");
 				climberMotor.set(0.0);
 				climberAssistor.set(0.0);
-                System.out.println("Lifter: " + climberEncoder.getPosition());
+                log.info("Lifter: {}", climberPosition);
 			}
         };
 
-	    new SubsystemCommand(this.registeredCommands, "valve_off") {
-	    	double initTime;
+	    new SubsystemCommand(this.registeredCommands, "valve_off", Resource.CLIMBER) {
 		    @Override
 		    public void initialize() {
-		    	initTime = System.nanoTime();
+		    	setTimeout(1.0);
 		    }
 
 		    @Override
 		    public void execute() {
 			    climberValve.set(1);
-			    System.out.println("Valve Setting to 1");
+			    log.debug("Valve Setting to 1");
 		    }
 
 		    @Override
 		    public boolean isFinished() {
-			    return (System.nanoTime() - initTime) > 1000000000;
+			    return false;
 		    }
 
 		    @Override
@@ -139,7 +153,7 @@ public class Climber extends SubsystemModule {
         new SubsystemCommand(this.registeredCommands, "get_climber_positions") {
 			@Override
 			public void initialize() {
-                System.out.println("Lifter: " + climberEncoder.getPosition());
+                log.info("Lifter: {}", climberPosition);
 			}
 
 			@Override
@@ -154,7 +168,7 @@ public class Climber extends SubsystemModule {
 			public void end() {}
         };
 
-        new SubsystemCommand(this.registeredCommands, "halt_climb") {
+        new SubsystemCommand(this.registeredCommands, "halt_climb", Resource.CLIMBER) {
 
 			@Override
 			public void initialize() {
@@ -177,7 +191,7 @@ public class Climber extends SubsystemModule {
         new SubsystemCommand(this.registeredCommands, "print_climber_position"){
 	        @Override
 	        public void initialize() {
-		        System.out.println("Current Climber Encoder = " + climberEncoder.getPosition());
+		        log.info("Current Climber Encoder = {}", climberPosition);
 	        }
 
 	        @Override
@@ -200,6 +214,7 @@ public class Climber extends SubsystemModule {
 
 		climberAssistor.setInverted(true);
         climberEncoder.setPosition(0);
+        climberPosition = 0;
 
         timeAtPress = 0;
         climbMode = false;
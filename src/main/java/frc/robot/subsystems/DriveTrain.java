@@ -1,20 +1,20 @@
 package frc.robot.subsystems;
 
-import com.kauailabs.navx.frc.AHRS;
-import com.revrobotics.CANPIDController;
 import com.revrobotics.CANSparkMax;
 import com.revrobotics.ControlType;
 import com.revrobotics.CANSparkMaxLowLevel.MotorType;
 
-import edu.wpi.first.wpilibj.CounterBase.EncodingType;
-import edu.wpi.first.networktables.NetworkTable;
-import edu.wpi.first.networktables.NetworkTableInstance;
-import edu.wpi.first.wpilibj.Encoder;
-import edu.wpi.first.wpilibj.SPI;
-import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.drive.DifferentialDrive;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import frc.robot.RobotMap;
+import frc.robot.hal.ClosedLoopController;
+import frc.robot.hal.Devices;
+import frc.robot.hal.Encoder;
+import frc.robot.hal.Gyro;
+import frc.robot.hal.Limelight;
+import frc.robot.hal.MotorController;
+import frc.robot.hal.MotorHealthMonitor;
+import frc.robot.hal.StatusFramePlanner;
 import frc.robot.util.*;
 
 import java.util.ArrayList;
@@ -24,20 +24,26 @@ import java.util.Collections;
 @SuppressWarnings("Duplicates")
 public class DriveTrain extends SubsystemModule {
 
+	private static final Logger log = Logger.getLogger("DriveTrain");
+
+	private TelemetryRecorder telemetry = TelemetryRecorder.getInstance();
+
+	private Devices devices = Devices.getInstance();
+
 	// Drivetrain motors
-	private CANSparkMax lMotor0 = new CANSparkMax(1, MotorType.kBrushless);
-	private CANSparkMax lMotor1 = new CANSparkMax(2, MotorType.kBrushless);
-	private CANSparkMax lMotor2 = new CANSparkMax(3, MotorType.kBrushless);
-	private CANSparkMax rMotor0 = new CANSparkMax(4, MotorType.kBrushless);
-	private CANSparkMax rMotor1 = new CANSparkMax(5, MotorType.kBrushless);
-	private CANSparkMax rMotor2 = new CANSparkMax(6, MotorType.kBrushless);
+	private MotorController lMotor0 = devices.sparkMax(1, MotorType.kBrushless);
+	private MotorController lMotor1 = devices.sparkMax(2, MotorType.kBrushless);
+	private MotorController lMotor2 = devices.sparkMax(3, MotorType.kBrushless);
+	private MotorController rMotor0 = devices.sparkMax(4, MotorType.kBrushless);
+	private MotorController rMotor1 = devices.sparkMax(5, MotorType.kBrushless);
+	private MotorController rMotor2 = devices.sparkMax(6, MotorType.kBrushless);
 
 	// PID controllers
-	private CANPIDController lPidController = lMotor0.getPIDController();
-	private CANPIDController rPidController = rMotor0.getPIDController();
+	private ClosedLoopController lPidController = lMotor0.getPIDController();
+	private ClosedLoopController rPidController = rMotor0.getPIDController();
 
-	// Differential drivetrain
-	private DifferentialDrive drive = new DifferentialDrive(lMotor0, rMotor0);
+	// Differential drivetrain, created on first use since it needs the HAL
+	private DifferentialDrive drive;
 
 	// PID coefficients
 	private final double kMinOutput = -1;
@@ -51,7 +57,7 @@ public class DriveTrain extends SubsystemModule {
 	private final double lKFF = 1.77e-4;
 	private final double rKFF = 1.78e-4;
 
-	private final double rpmToFeet = 0.003135; // Convert RPM to ft/s
+	public static final double rpmToFeet = 0.003135; // Convert RPM to ft/s
 
 	private final double sensitivity = 2.5;
 	private final double maxVelocity = 13;
@@ -66,23 +72,44 @@ public class DriveTrain extends SubsystemModule {
 	private ControlsProcessor controlsProcessor;
 
 	// Gearbox encoders
-	private Encoder leftShaftEncoder = new Encoder(RobotMap.p_leftEncoderA, RobotMap.p_leftEncoderB, true, EncodingType.k4X);
-	private Encoder rightShaftEncoder = new Encoder(RobotMap.p_rightEncoderA, RobotMap.p_rightEncoderB, true,
-			EncodingType.k4X);
+	private Encoder leftShaftEncoder = devices.shaftEncoder(RobotMap.p_leftEncoderA, RobotMap.p_leftEncoderB, true);
+	private Encoder rightShaftEncoder = devices.shaftEncoder(RobotMap.p_rightEncoderA, RobotMap.p_rightEncoderB, true);
 
 	// NavX gyro
-	private AHRS navX = new AHRS(SPI.Port.kMXP);
+	private Gyro navX = devices.navX();
+
+	// Sensors read at the start of the controls processor iteration
+	private double yaw;
+	private double leftPosition;
+	private double rightPosition;
+	private double leftVelocity;
+	private double rightVelocity;
+
+	// Limelight target, only read while a vision command is running so the drivetrain can be
+	// built without NetworkTables. tx is predicted for when the next output takes effect, and
+	// both are 0 when the target has been lost.
+	private boolean limelightInUse = false;
+	private double targetTx;
+	private double targetTa;
 
-	//limelight
-	NetworkTable limelightTable = NetworkTableInstance.getDefault().getTable("limelight");
+	// Outputs take effect about one command period after the sensors are read
+	private VisionTracker visionTracker = new VisionTracker(0.02, 0.25);
+
+	private Clock clock = Clock.getInstance();
+
+	// Path commands, finished from run as soon as the driving controller is done
+	private SubsystemCommand startPath;
+	private SubsystemCommand startEndlessPath;
 
 	// Drivetrain initializations
 	public DriveTrain(ControlsProcessor controlsProcessor) {
+		// Odometry and path following every controls processor period
+		setRates(100, 50);
+
 		registerCommands();
 
 		this.controlsProcessor = controlsProcessor;
 
-		drive.setSafetyEnabled(false);
 		// Configure follow mode
 		lMotor1.follow(lMotor0);
 		lMotor2.follow(lMotor0);
@@ -115,6 +142,22 @@ public class DriveTrain extends SubsystemModule {
 		rMotor1.setSmartCurrentLimit(50);
 		rMotor2.setSmartCurrentLimit(50);
 
+		// Followers mirror their leader's applied output from its status 0 frame, the drivetrain
+		// itself only reads the shaft encoders and the navX
+		StatusFramePlanner planner = StatusFramePlanner.getInstance();
+		planner.require("Left Drive 0", lMotor0, StatusFramePlanner.Signal.APPLIED_OUTPUT, 10, "followers");
+		planner.require("Right Drive 0", rMotor0, StatusFramePlanner.Signal.APPLIED_OUTPUT, 10, "followers");
+		planner.commanded("Left Drive 0", lMotor0, 10);
+		planner.commanded("Right Drive 0", rMotor0, 10);
+
+		MotorHealthMonitor healthMonitor = MotorHealthMonitor.getInstance();
+		healthMonitor.register("Left Drive 0", lMotor0);
+		healthMonitor.register("Left Drive 1", lMotor1);
+		healthMonitor.register("Left Drive 2", lMotor2);
+		healthMonitor.register("Right Drive 0", rMotor0);
+		healthMonitor.register("Right Drive 1", rMotor1);
+		healthMonitor.register("Right Drive 2", rMotor2);
+
 		drivingController.clearControlPath();
 	}
 
@@ -123,16 +166,19 @@ public class DriveTrain extends SubsystemModule {
 
 		@Override
 		public void updateEncodersAndHeading() {
-			this.headingAngle = -navX.getYaw() + 90;
+			this.headingAngle = -yaw + 90;
 			if(this.headingAngle < 0) {
 				this.headingAngle += 360;
 			}
 
-			this.leftPos = leftShaftEncoder.getDistance();
-			this.rightPos = rightShaftEncoder.getDistance();
+			this.leftPos = leftPosition;
+			this.rightPos = rightPosition;
 
-			double leftVelocity = leftShaftEncoder.getRate();
-			double rightVelocity = rightShaftEncoder.getRate();
+			telemetry.set(TelemetryRecorder.Channel.NAVX_YAW, yaw);
+			telemetry.set(TelemetryRecorder.Channel.LEFT_ENCODER_DISTANCE, this.leftPos);
+			telemetry.set(TelemetryRecorder.Channel.RIGHT_ENCODER_DISTANCE, this.rightPos);
+			telemetry.set(TelemetryRecorder.Channel.LEFT_ENCODER_RATE, leftVelocity);
+			telemetry.set(TelemetryRecorder.Channel.RIGHT_ENCODER_RATE, rightVelocity);
 
 			this.currentAverageVelocity = (leftVelocity + rightVelocity) / 2;
 		}
@@ -167,9 +213,10 @@ public class DriveTrain extends SubsystemModule {
 	 */
 	@Override
 	public void init() {
-		System.out.println("resetting");
+		log.info("resetting");
 		navX.reset();
 		navX.zeroYaw();
+		visionTracker.reset();
 		
 		odometer.reset();
 
@@ -177,10 +224,10 @@ public class DriveTrain extends SubsystemModule {
 
 		// leftEncoder.setDistancePerPulse(-0.0495);
 		// rightEncoder.setDistancePerPulse(0.00105);
-		leftShaftEncoder.reset();
-		rightShaftEncoder.reset();
-		leftShaftEncoder.setDistancePerPulse(0.0007819);
-		rightShaftEncoder.setDistancePerPulse(0.00078012);
+		leftShaftEncoder.setPosition(0);
+		rightShaftEncoder.setPosition(0);
+		leftShaftEncoder.setPositionConversionFactor(0.0007819);
+		rightShaftEncoder.setPositionConversionFactor(0.00078012);
 
 		lMotor0.setIdleMode(CANSparkMax.IdleMode.kBrake);
 		rMotor0.setIdleMode(CANSparkMax.IdleMode.kBrake);
@@ -202,23 +249,61 @@ public class DriveTrain extends SubsystemModule {
 		disable();
 	}
 
+	@Override
+	public void readSensors() {
+		long now = clock.nanoTime();
+		yaw = navX.getYaw();
+		visionTracker.recordYaw(now, yaw);
+
+		leftPosition = leftShaftEncoder.getPosition();
+		rightPosition = rightShaftEncoder.getPosition();
+		leftVelocity = leftShaftEncoder.getVelocity();
+		rightVelocity = rightShaftEncoder.getVelocity();
+
+		if (limelightInUse) {
+			Limelight.Target target = Limelight.getInstance().getTarget();
+			visionTracker.addFrame(target.getFrame(), target.getCaptureTime(), target.isValid(), target.getTx(), target.getTa());
+			visionTracker.update(now, yaw, navX.getRate());
+
+			targetTx = visionTracker.getPredictedTx();
+			targetTa = visionTracker.getTa(now);
+		}
+	}
+
 	/**
 	 * Subsystem run function, uses ControlsProcessor (multi-threaded at fast period)
 	 */
+
 	@Override
 	public void run() {
 
 		// Run every time
 		this.odometer.integratePosition();
 
+		telemetry.set(TelemetryRecorder.Channel.ODOMETRY_X, odometer.getCurrentX());
+		telemetry.set(TelemetryRecorder.Channel.ODOMETRY_Y, odometer.getCurrentY());
+		telemetry.set(TelemetryRecorder.Channel.ODOMETRY_HEADING, odometer.getHeadingAngle());
+		telemetry.set(TelemetryRecorder.Channel.ODOMETRY_VELOCITY, odometer.getCurrentAverageVelocity());
+
+		telemetry.set(TelemetryRecorder.Channel.DRIVING_CONTROLLER_ACTIVE, getStatus());
+
 		// Run only when subsystem is enabled
 		if (getStatus()) {
 			this.drivingController.run();
+
+			if (drivingController.isFinished()) {
+				startPath.finish();
+				startEndlessPath.finish();
+			}
 		}
 	}
 
 	// General arcade drive
 	public void arcadeDrive(double power, double pivot) {
+		if (drive == null) {
+			drive = new DifferentialDrive(lMotor0, rMotor0);
+			drive.setSafetyEnabled(false);
+		}
 		drive.arcadeDrive(power, pivot);
 	}
 
@@ -258,6 +343,9 @@ public class DriveTrain extends SubsystemModule {
 	public void closedLoopTank(double leftVelocity, double rightVelocity) {
 		lPidController.setReference(leftVelocity / rpmToFeet, ControlType.kVelocity);
 		rPidController.setReference(-rightVelocity / rpmToFeet, ControlType.kVelocity);
+
+		telemetry.set(TelemetryRecorder.Channel.LEFT_VELOCITY_COMMAND, leftVelocity);
+		telemetry.set(TelemetryRecorder.Channel.RIGHT_VELOCITY_COMMAND, rightVelocity);
 		// System.out.println("ls: " + leftVelocity / rpmToFeet + " rs: " + -rightVelocity / rpmToFeet);
 	}
 
@@ -284,12 +372,12 @@ public class DriveTrain extends SubsystemModule {
 		closedLoopArcade(velocitySetpoint, pivot);
 
 		lastVelocity = velocitySetpoint;
-		System.out.println("velocity setpoint: " + velocitySetpoint);
+		log.debug("velocity setpoint: {}", velocitySetpoint);
 	}
 
 	// Output encoder values
 	public void getEncoderValues() {
-		System.out.println("LE: " + leftShaftEncoder.getDistance() + " RE: " + rightShaftEncoder.getDistance());
+		log.info("LE: {} RE: {}", leftPosition, rightPosition);
 	}
 
 	public double getMaxVelocity(){
@@ -300,41 +388,26 @@ public class DriveTrain extends SubsystemModule {
 			double xFinal, double yFinal, double thetaFinal, double lFinal, double maxAcceleration,
 			double maxVelocity, double startVelocity, double endVelocity) {
 
-		thetaInitial = Math.toRadians(thetaInitial);
-		thetaFinal = Math.toRadians(thetaFinal);
-
-		double x2 = lInitial * Math.cos(thetaInitial) + xInitial;
-		double x3 = lFinal * Math.cos(thetaFinal + Math.PI) + xFinal;
-		double y2 = lInitial * Math.sin(thetaInitial) + yInitial;
-		double y3 = lFinal * Math.sin(thetaFinal + Math.PI) + yFinal;
+		log.info("Forward Spline Generating");
 
-		System.out.println("Forward Spline Generating");
-
-		drivingController.addSpline(xInitial, x2, x3, xFinal, yInitial, y2, y3, yFinal,
-				maxAcceleration, maxVelocity, startVelocity, endVelocity, true);
+		drivingController.addForwardSpline(xInitial, yInitial, thetaInitial, lInitial, xFinal, yFinal, thetaFinal, lFinal,
+				maxAcceleration, maxVelocity, startVelocity, endVelocity);
 	}
 
 	public void addBackwardsSpline(double xInitial, double yInitial, double thetaInitial, double lInitial,
 			double xFinal, double yFinal, double thetaFinal, double lFinal, double maxAcceleration,
 			double maxVelocity, double startVelocity, double endVelocity) {
 
-		thetaInitial = Math.toRadians(thetaInitial);
-		thetaFinal = Math.toRadians(thetaFinal);
-
-		double x2 = lInitial * Math.cos(thetaInitial + Math.PI) + xInitial;
-		double x3 = lFinal * Math.cos(thetaFinal) + xFinal;
-		double y2 = lInitial * Math.sin(thetaInitial + Math.PI) + yInitial;
-		double y3 = lFinal * Math.sin(thetaFinal) + yFinal;
+		log.info("Backwards Spline Generating");
 
-		System.out.println("Backwards Spline Generating");
-
-		drivingController.addSpline(xInitial, x2, x3, xFinal, yInitial, y2, y3, yFinal,
-				maxAcceleration, maxVelocity, startVelocity, endVelocity, false);
+		drivingController.addBackwardsSpline(xInitial, yInitial, thetaInitial, lInitial, xFinal, yFinal, thetaFinal, lFinal,
+				maxAcceleration, maxVelocity, startVelocity, endVelocity);
 	}
 
 	@Override
 	public void registerCommands() {
-		new SubsystemCommand(this.registeredCommands, "driver_control") {
+		// Takes the drivetrain back from a command that interrupted it, such as vision_align
+		new SubsystemCommand(this.registeredCommands, "driver_control", Resource.DRIVETRAIN) {
 
 			@Override
 			public void initialize() {
@@ -352,7 +425,7 @@ public class DriveTrain extends SubsystemModule {
 					pivot = controlsProcessor.getRightJoystick();
 
 				arcadeDrive(-power, pivot, 0.04, 0.08);
-				// System.out.println("Right Encoder: " + rightShaftEncoder.getDistance() + "\tLeft Encoder: " + leftShaftEncoder.getDistance());
+				// System.out.println("Right Encoder: " + rightShaftEncoder.getPosition() + "\tLeft Encoder: " + leftShaftEncoder.getPosition());
 				// System.out.println("X = " + odometer.getCurrentX() + "|| Y = " + odometer.getCurrentY());
 
 				// System.out.println("Odometer heading angle " + odometer.getHeadingAngle());
@@ -367,7 +440,7 @@ public class DriveTrain extends SubsystemModule {
 			public void end() {
 				closedLoopArcade(0, 0);
 			}
-		};
+		}.setResumable(true);
 
 		new SubsystemCommand(this.registeredCommands, "brake_mode") {
 
@@ -400,7 +473,7 @@ public class DriveTrain extends SubsystemModule {
 			}
 		};
 
-		new SubsystemCommand(this.registeredCommands, "closed_loop_tank") {
+		new SubsystemCommand(this.registeredCommands, "closed_loop_tank", Resource.DRIVETRAIN) {
 
 			@Override
 			public void initialize() {
@@ -430,6 +503,7 @@ public class DriveTrain extends SubsystemModule {
 			public void initialize() {
 				odometer.setOffset(Double.parseDouble(this.args[0]));
 				navX.zeroYaw();
+				visionTracker.reset();
 			}
 
 			@Override
@@ -444,7 +518,7 @@ public class DriveTrain extends SubsystemModule {
 			public void end() {}
 		};
 
-		new SubsystemCommand(this.registeredCommands, "debug_print") {
+		new SubsystemCommand(this.registeredCommands, "debug_print", Resource.DRIVETRAIN) {
 
 			@Override
 			public void initialize() {
@@ -455,14 +529,14 @@ public class DriveTrain extends SubsystemModule {
 				lMotor0.set(0);
 				rMotor0.set(0);
 
-				System.out.println(odometer.getCurrentX() + " : " + odometer.getCurrentY());
+				log.info("{} : {}", odometer.getCurrentX(), odometer.getCurrentY());
 			}
 
 			@Override
 			public void execute() {
 				getEncoderValues();
-				System.out.println("Heading Angle: " + odometer.getHeadingAngle());
-				System.out.println("X : Y = " + odometer.getCurrentX() + " : " + odometer.getCurrentY());
+				log.info("Heading Angle: {}", odometer.getHeadingAngle());
+				log.info("X : Y = {} : {}", odometer.getCurrentX(), odometer.getCurrentY());
 			}
 
 			@Override
@@ -603,8 +677,8 @@ public class DriveTrain extends SubsystemModule {
 			@Override
 			public void initialize() {
 
-				System.out.println("Current X : " + odometer.getCurrentX() + " || Current Y : " + odometer.getCurrentY());
-				System.out.println("DYNAMIC HEADING ANGLE:- " + odometer.getHeadingAngle());
+				log.info("Current X : {} || Current Y : {}", odometer.getCurrentX(), odometer.getCurrentY());
+				log.info("DYNAMIC HEADING ANGLE:- {}", odometer.getHeadingAngle());
 
 				double xInitial = odometer.getCurrentX();
 				double xFinal = Double.parseDouble(this.args[1]);
@@ -614,7 +688,7 @@ public class DriveTrain extends SubsystemModule {
 
 				double thetaInitial = odometer.getHeadingAngle();
 				double thetaFinal = Double.parseDouble(this.args[3]);
-				System.out.println("Theta Final:- " + this.args[3]);
+				log.info("Theta Final:- {}", this.args[3]);
 
 				double lInitial = Double.parseDouble(this.args[0]);
 				double lFinal = Double.parseDouble(this.args[4]);
@@ -648,8 +722,7 @@ public class DriveTrain extends SubsystemModule {
 
 			@Override
 			public void initialize() {
-				System.out.println("Position Starting backwards line = " + "(" + odometer.getCurrentX()
-						+ ", " + odometer.getCurrentY() + ")");
+				log.info("Position Starting backwards line = ({}, {})", odometer.getCurrentX(), odometer.getCurrentY());
 
 				double xInitial = Double.parseDouble(this.args[0]);
 				double yInitial = Double.parseDouble(this.args[1]);
@@ -675,13 +748,13 @@ public class DriveTrain extends SubsystemModule {
 			}
 		};
 
-		new SubsystemCommand(this.registeredCommands, "start_path") {
+		startPath = new SubsystemCommand(this.registeredCommands, "start_path", Resource.DRIVETRAIN) {
 
 			@Override
 			public void initialize() {
 				drivingController.setIsFinished(false);
 				enable();
-				System.out.println("starting path");
+				log.info("starting path");
 				// System.out.println(drivingController.getControlPath());
 			}
 
@@ -692,25 +765,24 @@ public class DriveTrain extends SubsystemModule {
 
 			@Override
 			public boolean isFinished() {
-				// System.out.println("driving controller finished? " + ":" + drivingController.isFinished());
-				return drivingController.isFinished();
+				return false;
 			}
 
 			@Override
 			public void end() {
 				disable();
 				closedLoopArcade(0, 0);
-				System.out.println("x : y " + odometer.getCurrentX() + " : " + odometer.getCurrentY() + "Final Heading : " + odometer.getHeadingAngle());
+				log.info("x : y {} : {} Final Heading : {}", odometer.getCurrentX(), odometer.getCurrentY(), odometer.getHeadingAngle());
 			}
 		};
 
-		new SubsystemCommand(this.registeredCommands, "start_endless_path") {
+		startEndlessPath = new SubsystemCommand(this.registeredCommands, "start_endless_path", Resource.DRIVETRAIN) {
 
 			@Override
 			public void initialize() {
 				drivingController.setIsFinished(false);
 				enable();
-				System.out.println("starting path");
+				log.info("starting path");
 				// System.out.println(drivingController.getControlPath());
 			}
 
@@ -721,24 +793,21 @@ public class DriveTrain extends SubsystemModule {
 
 			@Override
 			public boolean isFinished() {
-				// System.out.println("driving controller finished? " + ":" + drivingController.isFinished());
-				return drivingController.isFinished();
+				return false;
 			}
 
 			@Override
 			public void end() {
 				disable();
-				System.out.println("Start Path Ending x : y " + odometer.getCurrentX() + " : " + odometer.getCurrentY() + "Final Heading : " + odometer.getHeadingAngle());
+				log.info("Start Path Ending x : y {} : {} Final Heading : {}", odometer.getCurrentX(), odometer.getCurrentY(), odometer.getHeadingAngle());
 			}
 		};
 
 		new SubsystemCommand(this.registeredCommands, "wait") {
 
-			Timer waitTimer = new Timer();
 			@Override
 			public void initialize() {
-				waitTimer.reset();
-				waitTimer.start();
+				setTimeout(Double.parseDouble(this.args[0]));
 			}
 
 			@Override
@@ -747,7 +816,7 @@ public class DriveTrain extends SubsystemModule {
 
 			@Override
 			public boolean isFinished() {
-				return waitTimer.get() > Double.parseDouble(this.args[0]);
+				return false;
 			}
 
 			@Override
@@ -755,19 +824,20 @@ public class DriveTrain extends SubsystemModule {
 			}
 		};
 
-		new SubsystemCommand(this.registeredCommands, "vision_align"){
+		new SubsystemCommand(this.registeredCommands, "vision_align", Resource.DRIVETRAIN, Resource.LIMELIGHT){
 			@Override
 			public void initialize() {
 				// driverControlled = false;
-				limelightTable.getEntry("ledMode").setNumber(3);
-				limelightTable.getEntry("camMode").setNumber(0);
+				Limelight.getInstance().enableVision();
+				limelightInUse = true;
 
-				System.out.println("initializing");
+				log.info("initializing");
 			}
 
 			@Override
 			public void execute() {
-				double tx = limelightTable.getEntry("tx").getDouble(0);
+				double tx = targetTx;
+				telemetry.set(TelemetryRecorder.Channel.LIMELIGHT_TX, tx);
 
 				double kAngleP = 0.065;
 
@@ -797,13 +867,13 @@ public class DriveTrain extends SubsystemModule {
 
 			@Override
 			public void end() {
-				limelightTable.getEntry("camMode").setNumber(1);
-				limelightTable.getEntry("ledMode").setNumber(1);
+				Limelight.getInstance().disableVision();
+				limelightInUse = false;
 				closedLoopArcade(0, 0);
 			}
 		};
 
-		new SubsystemCommand(this.registeredCommands, "turn_to_angle"){
+		new SubsystemCommand(this.registeredCommands, "turn_to_angle", Resource.DRIVETRAIN){
 			double requestedDelta;
 			double finalRequestedAngle;
 
@@ -814,10 +884,10 @@ public class DriveTrain extends SubsystemModule {
 				try{
 					requestedDelta = Double.parseDouble(this.args[0]);
 				} catch(Exception foo) {
-					System.out.println("Oof, forgot to enter an argument?");
+					log.warn("Oof, forgot to enter an argument?");
 				}
 				finalRequestedAngle = odometer.getHeadingAngle() + requestedDelta;
-				System.out.println("NavX Turn to Angle Command Aim:- " + finalRequestedAngle);
+				log.info("NavX Turn to Angle Command Aim:- {}", finalRequestedAngle);
 				headingController.setOutputLimits(-0.6, 0.6);
 				headingController.setSetpoint(finalRequestedAngle);
 			}
@@ -838,25 +908,23 @@ public class DriveTrain extends SubsystemModule {
 			public void end() {
 				closedLoopArcade(0,0);
 				
-				System.out.println("Finished turn to angle, expected angle was " + finalRequestedAngle +
-						" and your actual angle was " + odometer.getHeadingAngle() +
-						". Error of " + (Math.abs(odometer.getHeadingAngle() - finalRequestedAngle)));
-				System.out.println("Final turn to angle X: " + odometer.getCurrentX() + " Y: " + odometer.getCurrentY());
+				log.info("Finished turn to angle, expected angle was {} and your actual angle was {}. Error of {}",
+						finalRequestedAngle, odometer.getHeadingAngle(), Math.abs(odometer.getHeadingAngle() - finalRequestedAngle));
+				log.info("Final turn to angle X: {} Y: {}", odometer.getCurrentX(), odometer.getCurrentY());
 			}
 		};
 
-		new SubsystemCommand(this.registeredCommands, "turn_to_angle_setpoint"){
+		new SubsystemCommand(this.registeredCommands, "turn_to_angle_setpoint", Resource.DRIVETRAIN){
 			double finalRequestedAngle;
-			double startTime;
 
 			PID headingController = new PID(0.01, 0.0001, 0, 0);
 
 			@Override
 			public void initialize() {
 				finalRequestedAngle = Double.parseDouble(this.args[0]);
-				startTime = System.nanoTime();
+				setTimeout(3.0);
 
-				System.out.println("Start turn_to_angle\tStart: " + odometer.getHeadingAngle() + "\tEnd: " + finalRequestedAngle);
+				log.info("Start turn_to_angle\tStart: {}\tEnd: {}", odometer.getHeadingAngle(), finalRequestedAngle);
 				headingController.setOutputLimits(-0.2, 0.2);
 				headingController.setSetpoint(finalRequestedAngle);
 			}
@@ -870,42 +938,42 @@ public class DriveTrain extends SubsystemModule {
 
 			@Override
 			public boolean isFinished() {
-				return Math.abs(odometer.getHeadingAngle() - finalRequestedAngle) < 4 || System.nanoTime() - startTime > 3e9;
+				return Math.abs(odometer.getHeadingAngle() - finalRequestedAngle) < 4;
 			}
 
 			@Override
 			public void end() {
 				closedLoopArcade(0,0);
 
-				System.out.println("Finished turn to angle, expected angle was " + finalRequestedAngle +
-						" and your actual angle was " + odometer.getHeadingAngle() +
-						". Error of " + (Math.abs(odometer.getHeadingAngle() - finalRequestedAngle)));
+				log.info("Finished turn to angle, expected angle was {} and your actual angle was {}. Error of {}",
+						finalRequestedAngle, odometer.getHeadingAngle(), Math.abs(odometer.getHeadingAngle() - finalRequestedAngle));
 			}
 		};
 
-		new SubsystemCommand(this.registeredCommands, "auton_vision_align"){
+		new SubsystemCommand(this.registeredCommands, "auton_vision_align", Resource.DRIVETRAIN, Resource.LIMELIGHT){
 			double counter;
 			boolean isAboveMax = false;
 			double maxBlobArea = 6;
 			double currentBlobArea;
-			double startingTime;
 
 			@Override
 			public void initialize() {
 				counter = 0;
-				System.out.println("INITIALIZED VISION ALIGN");
-				limelightTable.getEntry("ledMode").setNumber(3);
-				limelightTable.getEntry("camMode").setNumber(0);
+				log.info("INITIALIZED VISION ALIGN");
+				Limelight.getInstance().enableVision();
+				limelightInUse = true;
 				isAboveMax = false;
-				startingTime = System.nanoTime();
+				setTimeout(2.0);
 			}
 
 
 			@Override
 			public void execute() {
 				// System.out.println("Running");
-				double tx = limelightTable.getEntry("tx").getDouble(0);
-				currentBlobArea = limelightTable.getEntry("ta").getDouble(0);
+				double tx = targetTx;
+				currentBlobArea = targetTa;
+				telemetry.set(TelemetryRecorder.Channel.LIMELIGHT_TX, tx);
+				telemetry.set(TelemetryRecorder.Channel.LIMELIGHT_TA, currentBlobArea);
 
 				double kAngleP = 0.05;
 				double kDistanceDivisor = 0.3; // Untested value. Direct proportionality.
@@ -947,22 +1015,23 @@ public class DriveTrain extends SubsystemModule {
 			public boolean isFinished() {
 
 				// System.out.println("Boolean : " + (currentBlobArea > maxBlobArea));
-					return ((System.nanoTime() - startingTime) > 2e9) || isAboveMax;
+					return isAboveMax;
 			}
 
 			@Override
 			public void end() {
-				// limelightTable.getEntry("camMode").setNumber(1);
+				// Limelight.getInstance().disableVision();
+				limelightInUse = false;
 				closedLoopArcade(0, 0);
 				lMotor0.set(0.0);
 				rMotor0.set(0.0);
-				// limelightTable.getEntry("ledMode").setNumber(1);
-				System.out.println("VISION ALIGN FINAL POSITIONS x: " + odometer.getCurrentX() + " y: " + odometer.getCurrentY() + " thetaF: " + odometer.getHeadingAngle() + " COUNTER = " + counter);
+				log.info("VISION ALIGN FINAL POSITIONS x: {} y: {} thetaF: {} COUNTER = {}", odometer.getCurrentX(), odometer.getCurrentY(), odometer.getHeadingAngle(), counter);
 			}
 		};
 
-		//Designed to be run in parallel with driving controller
-		new SubsystemCommand(this.registeredCommands, "spline_auton_vision_align"){
+		// Takes the drivetrain over from start_endless_path, keeps following its path and aligns
+		// once the path is finished
+		new SubsystemCommand(this.registeredCommands, "spline_auton_vision_align", Resource.DRIVETRAIN, Resource.LIMELIGHT){
 			double counter;
 			boolean isAboveMax = false;
 			double maxBlobArea = 6;
@@ -976,19 +1045,26 @@ public class DriveTrain extends SubsystemModule {
 				endingVelocity = drivingController.getControlPath().get(drivingController.getControlPath().size() -1).velocity;
 				counter = 0;
 				controlCounter = 0;
-				System.out.println("INITIALIZED VISION ALIGN");
-				limelightTable.getEntry("ledMode").setNumber(3);
-				limelightTable.getEntry("camMode").setNumber(0);
+				log.info("INITIALIZED VISION ALIGN");
+				Limelight.getInstance().enableVision();
+				limelightInUse = true;
 				isAboveMax = false;
-				startingTime = System.nanoTime();
+				startingTime = clock.nanoTime();
+
+				// Interrupting start_endless_path stopped the path, carry on following it
+				if (!drivingController.isFinished()) {
+					enable();
+				}
 			}
 
 
 			@Override
 			public void execute() {
 				// System.out.println("Running");
-				double tx = limelightTable.getEntry("tx").getDouble(0);
-				currentBlobArea = limelightTable.getEntry("ta").getDouble(0);
+				double tx = targetTx;
+				currentBlobArea = targetTa;
+				telemetry.set(TelemetryRecorder.Channel.LIMELIGHT_TX, tx);
+				telemetry.set(TelemetryRecorder.Channel.LIMELIGHT_TA, currentBlobArea);
 
 				double kAngleP = 0.05;
 				double kDistanceDivisor = 0.3;
@@ -1013,9 +1089,9 @@ public class DriveTrain extends SubsystemModule {
 					if (controlCounter < 20) {
 						closedLoopArcade(endingVelocity, -pivot);
 						controlCounter++;
-						System.out.println("Spline Ending Velocity: " + endingVelocity + " || Pivot: " + -pivot + " Counter = " + controlCounter);
+						log.debug("Spline Ending Velocity: {} || Pivot: {} Counter = {}", endingVelocity, -pivot, controlCounter);
 					} else {
-						System.out.println("Manual Control Vision Align : " + power + " IS ABOVE MAX? : " + isAboveMax + " AboveMaxCounter = " + counter);
+						log.debug("Manual Control Vision Align : {} IS ABOVE MAX? : {} AboveMaxCounter = {}", power, isAboveMax ? 1 : 0, counter);
 						if (currentBlobArea <= maxBlobArea) {
 							counter = 0;
 							closedLoopArcade(power * maxVelocity, -pivot);
@@ -1041,26 +1117,27 @@ public class DriveTrain extends SubsystemModule {
 
 			@Override
 			public void end() {
-				// limelightTable.getEntry("camMode").setNumber(1);
+				// Limelight.getInstance().disableVision();
+				limelightInUse = false;
+				disable();
 				closedLoopArcade(0, 0);
 				lMotor0.set(0.0);
 				rMotor0.set(0.0);
-				// limelightTable.getEntry("ledMode").setNumber(1);
-				System.out.println("VISION ALIGN FINAL POSITIONS x: " + odometer.getCurrentX() + " y: " + odometer.getCurrentY() + " thetaF: " + odometer.getHeadingAngle() + " COUNTER = " + counter);
+				log.info("VISION ALIGN FINAL POSITIONS x: {} y: {} thetaF: {} COUNTER = {}", odometer.getCurrentX(), odometer.getCurrentY(), odometer.getHeadingAngle(), counter);
 			}
 		};
 
-		new SubsystemCommand(this.registeredCommands, "target_align"){
+		new SubsystemCommand(this.registeredCommands, "target_align", Resource.DRIVETRAIN, Resource.LIMELIGHT){
 			double tx;
 
 			@Override
 			public void initialize() {
-
+				limelightInUse = true;
 			}
 
 			@Override
 			public void execute() {
-				double tx = limelightTable.getEntry("tx").getDouble(0);
+				double tx = targetTx;
 				double kP = 0.05;
 				double pivot = tx * kP;
 				closedLoopArcade(0,-pivot);
@@ -1073,6 +1150,7 @@ public class DriveTrain extends SubsystemModule {
 
 			@Override
 			public void end() {
+				limelightInUse = false;
 				closedLoopTank(0,0);
 			}
 		};
@@ -1092,7 +1170,7 @@ public class DriveTrain extends SubsystemModule {
 
 			@Override
 			public void end() {
-				System.out.println("Set to X: " + odometer.getCurrentX() + " | Y: " + odometer.getCurrentY());
+				log.info("Set to X: {} | Y: {}", odometer.getCurrentX(), odometer.getCurrentY());
 			}
 		};
 
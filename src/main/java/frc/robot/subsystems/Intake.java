@@ -1,27 +1,30 @@
 package frc.robot.subsystems;
 
-import java.util.ArrayList;
-
 import com.revrobotics.CANSparkMax;
 import com.revrobotics.CANSparkMaxLowLevel.MotorType;
-import com.revrobotics.CANSparkMaxLowLevel.PeriodicFrame;
 
-import edu.wpi.first.wpilibj.Servo;
-import edu.wpi.first.wpilibj.Spark;
+import frc.robot.hal.Devices;
+import frc.robot.hal.MotorController;
+import frc.robot.hal.MotorHealthMonitor;
+import frc.robot.hal.PWMOutput;
+import frc.robot.hal.StatusFramePlanner;
+import frc.robot.util.CurrentFilter;
+import frc.robot.util.Resource;
 import frc.robot.util.SubsystemCommand;
 import frc.robot.util.SubsystemModule;
+import frc.robot.util.TelemetryRecorder;
 
 public class Intake extends SubsystemModule {
 
 	// Intake Motors
-	protected CANSparkMax cargoMotor = new CANSparkMax(9, MotorType.kBrushless);
-	protected CANSparkMax pumpMotor = new CANSparkMax(10, MotorType.kBrushless);
+	protected MotorController cargoMotor = Devices.getInstance().sparkMax(9, MotorType.kBrushless);
+	protected MotorController pumpMotor = Devices.getInstance().sparkMax(10, MotorType.kBrushless);
 
 	// Blinkin
-	private Spark blinkin = new Spark(0);
+	private PWMOutput blinkin = Devices.getInstance().spark(0);
 
 	// Hatchplate Servo
-	private Servo valveServo = new Servo(1);
+	private PWMOutput valveServo = Devices.getInstance().servo(1);
 
 	// Maximum currents for cargo and hatch intakes
 	private final double cargoCurrentThreshold = 30;
@@ -32,30 +35,38 @@ public class Intake extends SubsystemModule {
 	private boolean pumpStateIsFirstAvg;
 	private int pumpStateCounter;
 
-	// ArrayList holding the read currents
-	private ArrayList<Double> cargoCurrents;
-	private ArrayList<Double> pumpCurrents;
-
-	// Average current
-	private double cargoAverageCurrent;
-	private double pumpAverageCurrent;
-
 	// Number of current values stored
 	private final int numberOfCargoCurrents = 50;
 	private final int numberOfPumpCurrents = 100;
 
+	// Running averages of the read currents
+	private CurrentFilter cargoCurrents = new CurrentFilter(numberOfCargoCurrents);
+	private CurrentFilter pumpCurrents = new CurrentFilter(numberOfPumpCurrents);
+
 	// Intake States - Public so Arm can access the states for state-based logic
 	private boolean cargoState;
 	private boolean pumpState;
 
+	// Intake commands, finished from run as soon as a game piece is held
+	private SubsystemCommand[] pieceIntakes;
+
+	private TelemetryRecorder telemetry = TelemetryRecorder.getInstance();
+
 	public Intake() {
+		// The current filters are sized for a sample every 10 ms
+		setRates(100, 50);
+
 		registerCommands(); // Puts commands onto the hashmap
 
-		cargoMotor.setPeriodicFramePeriod(PeriodicFrame.kStatus0, 5);
-		cargoMotor.setPeriodicFramePeriod(PeriodicFrame.kStatus1, 5);
+		// Currents are averaged every controls processor period, a new sample is needed each time
+		StatusFramePlanner planner = StatusFramePlanner.getInstance();
+		planner.require("Cargo Roller", cargoMotor, StatusFramePlanner.Signal.CURRENT, 10, "intake");
+		planner.require("Pump", pumpMotor, StatusFramePlanner.Signal.CURRENT, 10, "intake");
+		planner.commanded("Cargo Roller", cargoMotor, 20);
+		planner.commanded("Pump", pumpMotor, 20);
 
-		pumpMotor.setPeriodicFramePeriod(PeriodicFrame.kStatus0, 5);
-		pumpMotor.setPeriodicFramePeriod(PeriodicFrame.kStatus1, 5);
+		MotorHealthMonitor.getInstance().register("Cargo Roller", cargoMotor);
+		MotorHealthMonitor.getInstance().register("Pump", pumpMotor);
 	}
 
 	/**
@@ -78,23 +89,15 @@ public class Intake extends SubsystemModule {
 	 */
 	public boolean checkCargoState() {
 		if(cargoMotor.get() > 0.5) {
-			cargoCurrents.add(0, Math.abs(cargoMotor.getOutputCurrent()));
-
-			if(cargoCurrents.size() != numberOfCargoCurrents) {
-				cargoAverageCurrent += cargoCurrents.get(0) / numberOfCargoCurrents;
-
+			if(!cargoCurrents.add(cargoMotor.getOutputCurrent())) {
 				return cargoState;
 			}
 			else {
-				cargoAverageCurrent += (cargoCurrents.get(0) - cargoCurrents.get(cargoCurrents.size() - 1)) / numberOfCargoCurrents;
-				cargoCurrents.remove(cargoCurrents.size() - 1);
-
-				return cargoAverageCurrent > cargoCurrentThreshold;
+				return cargoCurrents.getAverage() > cargoCurrentThreshold;
 			}
 		}
 
-		cargoCurrents = new ArrayList<Double>(0);
-		cargoAverageCurrent = 0;
+		cargoCurrents.reset();
 
 		return cargoState;
 	}
@@ -107,25 +110,19 @@ public class Intake extends SubsystemModule {
 	public boolean checkPumpState() {
 		if(pumpState) { return pumpState; }
 		if(pumpMotor.get() > 0) {
-			pumpCurrents.add(0, Math.abs(pumpMotor.getOutputCurrent()));
-
-			if(pumpCurrents.size() != numberOfPumpCurrents) {
-				pumpAverageCurrent += pumpCurrents.get(0) / numberOfPumpCurrents;
+			if(!pumpCurrents.add(pumpMotor.getOutputCurrent())) {
 				pumpStateCounter = 0;
 				return pumpState;
 			}
 			else {
 				if(pumpStateCounter > 10 && pumpStateIsFirstAvg) {
-					pumpStateFirstAvg = pumpAverageCurrent;
+					pumpStateFirstAvg = pumpCurrents.getAverage();
 					pumpStateIsFirstAvg = false;
 				}
 
 				pumpStateCounter++;
 
-				pumpAverageCurrent += (pumpCurrents.get(0) - pumpCurrents.get(pumpCurrents.size() - 1)) / numberOfPumpCurrents;
-				pumpCurrents.remove(pumpCurrents.size() - 1);
-
-				if(Math.abs(pumpAverageCurrent) < Math.abs(pumpStateFirstAvg) - pumpCurrentDiffrence) {
+				if(Math.abs(pumpCurrents.getAverage()) < Math.abs(pumpStateFirstAvg) - pumpCurrentDiffrence) {
 					return true;
 				} else {
 					return false;
@@ -133,8 +130,7 @@ public class Intake extends SubsystemModule {
 			}
 		}
 
-		pumpCurrents = new ArrayList<Double>(0);
-		pumpAverageCurrent = 0;
+		pumpCurrents.reset();
 		pumpStateFirstAvg = 0;
 		pumpStateCounter = 0;
 		pumpStateIsFirstAvg = true;
@@ -155,6 +151,17 @@ public class Intake extends SubsystemModule {
 		cargoState = checkCargoState();
 		pumpState = checkPumpState();
 
+		telemetry.set(TelemetryRecorder.Channel.CARGO_CURRENT, cargoCurrents.getAverage());
+		telemetry.set(TelemetryRecorder.Channel.PUMP_CURRENT, pumpCurrents.getAverage());
+		telemetry.set(TelemetryRecorder.Channel.CARGO_STATE, cargoState);
+		telemetry.set(TelemetryRecorder.Channel.HATCH_STATE, pumpState);
+
+		if(cargoState || pumpState) {
+			for (int i = 0; i < pieceIntakes.length; i++) {
+				pieceIntakes[i].finish();
+			}
+		}
+
 		if(cargoState || pumpState) { blinkin.set(0.65); }
 		else { blinkin.set(0.99); }
 
@@ -209,7 +216,7 @@ public class Intake extends SubsystemModule {
 			public void end() {}
 		};
 
-		new SubsystemCommand(this.registeredCommands, "intake_stop") {
+		new SubsystemCommand(this.registeredCommands, "intake_stop", Resource.INTAKE) {
 
 			@Override
 			public void initialize() {
@@ -235,7 +242,7 @@ public class Intake extends SubsystemModule {
 		};
 
 
-		new SubsystemCommand(this.registeredCommands, "cargo_intake") {
+		SubsystemCommand cargoIntake = new SubsystemCommand(this.registeredCommands, "cargo_intake", Resource.INTAKE) {
 
 			@Override
 			public void initialize() {
@@ -250,7 +257,7 @@ public class Intake extends SubsystemModule {
 
 			@Override
 			public boolean isFinished() {
-				return cargoState || pumpState;
+				return false;
 			}
 
 			@Override
@@ -263,7 +270,7 @@ public class Intake extends SubsystemModule {
 			}
 		};
 
-		new SubsystemCommand(this.registeredCommands, "hatch_floor_intake") {
+		SubsystemCommand hatchFloorIntake = new SubsystemCommand(this.registeredCommands, "hatch_floor_intake", Resource.INTAKE) {
 
 			@Override
 			public void initialize() {
@@ -280,7 +287,7 @@ public class Intake extends SubsystemModule {
 
 			@Override
 			public boolean isFinished() {
-				return cargoState || pumpState;
+				return false;
 			}
 
 			@Override
@@ -289,7 +296,7 @@ public class Intake extends SubsystemModule {
 			}
 		};
 
-		new SubsystemCommand(this.registeredCommands, "hatch_station_intake") {
+		SubsystemCommand hatchStationIntake = new SubsystemCommand(this.registeredCommands, "hatch_station_intake", Resource.INTAKE) {
 
 			@Override
 			public void initialize() {
@@ -305,7 +312,7 @@ public class Intake extends SubsystemModule {
 
 			@Override
 			public boolean isFinished() {
-				return cargoState || pumpState;
+				return false;
 			}
 
 			@Override
@@ -352,7 +359,7 @@ public class Intake extends SubsystemModule {
 			public void end() {}
 		};
 
-		new SubsystemCommand(this.registeredCommands, "hatch_intake") {
+		SubsystemCommand hatchIntake = new SubsystemCommand(this.registeredCommands, "hatch_intake", Resource.INTAKE) {
 			boolean intaking;
 
 			@Override
@@ -372,14 +379,16 @@ public class Intake extends SubsystemModule {
 
 			@Override
 			public boolean isFinished() {
-				return cargoState || pumpState;
+				return false;
 			}
 
 			@Override
 			public void end() {}
 		};
 
-		new SubsystemCommand(this.registeredCommands, "climber_pump") {
+		pieceIntakes = new SubsystemCommand[] { cargoIntake, hatchFloorIntake, hatchStationIntake, hatchIntake };
+
+		new SubsystemCommand(this.registeredCommands, "climber_pump", Resource.INTAKE) {
 
 			@Override
 			public void initialize() {
@@ -409,11 +418,8 @@ public class Intake extends SubsystemModule {
 		cargoMotor.set(0);
 		pumpMotor.set(0);
 
-		cargoCurrents = new ArrayList<Double>(0);
-		pumpCurrents = new ArrayList<Double>(0);
-
-		cargoAverageCurrent = 0;
-		pumpAverageCurrent = 0;
+		cargoCurrents.reset();
+		pumpCurrents.reset();
 
 		cargoState = false;
 		pumpState = false;
@@ -0,0 +1,376 @@
+package frc.robot.util;
+
+import java.util.Arrays;
+
+/**
+ * Shoulder and wrist positions of every arm preset for each game piece, and the way to get
+ * between them. Moves that would swing the intake into the frame or bumpers go through
+ * via-points. The path between every pair of presets is worked out once when the table is
+ * built, so a command only has to look it up. Other moves, from between presets or to a position
+ * that isn't a preset, go straight when that is clearly safe and over the top of every region
+ * otherwise, which needs no planning. Those paths are written into a buffer owned by the arm
+ * following them.
+ */
+public class ArmPositionTable {
+
+	private static final Logger log = Logger.getLogger("ArmPositionTable");
+
+	public enum Preset {
+		START,
+		FLOOR_CARGO,
+		FLOOR_HATCH,
+		STATION,
+		LOWER_SCORE,
+		MIDDLE_SCORE,
+		UPPER_SCORE,
+		FLEX_SCORE,
+		AUTON_HATCH
+	}
+
+	public enum GamePiece {
+		HATCH,
+		CARGO
+	}
+
+	// Shoulder in leadscrew units and wrist in degrees, {hatch, cargo} for each preset
+	private static final double[][][] kPositions = {
+		{{0, 0}, {0, 0}},           // START
+		{{2.4, 240}, {2.4, 240}},   // FLOOR_CARGO
+		{{1.8, 195}, {1.8, 195}},   // FLOOR_HATCH
+		{{0.3, 86}, {0.3, 86}},     // STATION
+		{{0.3, 86}, {6, 205}},      // LOWER_SCORE
+		{{6.8, 133}, {10.0, 230}},  // MIDDLE_SCORE
+		{{11.6, 192}, {13.4, 135}}, // UPPER_SCORE
+		{{9, 285}, {9, 285}},       // FLEX_SCORE
+		{{3, 110}, {3, 110}}        // AUTON_HATCH
+	};
+
+	// Distance from a preset the arm can be and still count as being at it
+	private static final double kShoulderTolerance = 0.05;
+	private static final double kWristTolerance = 1;
+
+	// Clearance kept above a keep-out region when going over it
+	private static final double kShoulderClearance = 0.2;
+
+	// Time between the points checked against the keep-out regions, one controls processor period
+	private static final double kCheckPeriod = 0.01;
+
+	// Points of a path over the top: up, across and down
+	private static final int kOverTopPoints = 3;
+
+	/**
+	 * Rectangle of shoulder and wrist positions the arm must not pass through
+	 */
+	public static class KeepOut {
+		private final double shoulderMin, shoulderMax, wristMin, wristMax;
+
+		public KeepOut(double shoulderMin, double shoulderMax, double wristMin, double wristMax) {
+			this.shoulderMin = shoulderMin;
+			this.shoulderMax = shoulderMax;
+			this.wristMin = wristMin;
+			this.wristMax = wristMax;
+		}
+
+		public boolean contains(double shoulder, double wrist) {
+			return shoulder > shoulderMin && shoulder < shoulderMax && wrist > wristMin && wrist < wristMax;
+		}
+
+		/**
+		 * @return True if the region overlaps the rectangle between the two positions
+		 */
+		public boolean overlaps(double shoulderA, double wristA, double shoulderB, double wristB) {
+			return Math.max(shoulderA, shoulderB) > shoulderMin && Math.min(shoulderA, shoulderB) < shoulderMax
+					&& Math.max(wristA, wristB) > wristMin && Math.min(wristA, wristB) < wristMax;
+		}
+	}
+
+	/**
+	 * Points the arm moves through in order, the last one is the target
+	 */
+	public static class Path {
+		private final double[] shoulder;
+		private final double[] wrist;
+
+		// Only change in a buffer, the paths between presets are never written after planning
+		private int size;
+		private double duration;
+
+		Path(double[] shoulder, double[] wrist, double duration) {
+			this.shoulder = shoulder;
+			this.wrist = wrist;
+			this.size = shoulder.length;
+			this.duration = duration;
+		}
+
+		/**
+		 * Empty buffer for getPath and route to write a path into
+		 */
+		public Path() {
+			this(new double[kOverTopPoints], new double[kOverTopPoints], 0);
+			size = 0;
+		}
+
+		public int size() {
+			return size;
+		}
+
+		public double getShoulder(int index) {
+			return shoulder[index];
+		}
+
+		public double getWrist(int index) {
+			return wrist[index];
+		}
+
+		public double getTargetShoulder() {
+			return shoulder[size - 1];
+		}
+
+		public double getTargetWrist() {
+			return wrist[size - 1];
+		}
+
+		/**
+		 * @return Seconds the moves take back to back
+		 */
+		public double getDuration() {
+			return duration;
+		}
+	}
+
+	private final ArmTrajectory trajectory;
+	private final KeepOut[] keepOuts;
+
+	// Height the shoulder goes to when a move has to go over every keep-out region
+	private final double clearShoulder;
+
+	// Path from every preset pose to every other, indexed by pose
+	private final Path[][] paths;
+
+	private boolean lastFollowBlocked;
+
+	/**
+	 * @param trajectory Trajectory with the same limits the arm moves with, only used for planning
+	 * @param keepOuts Regions the arm must stay out of
+	 */
+	public ArmPositionTable(ArmTrajectory trajectory, KeepOut... keepOuts) {
+		this.trajectory = trajectory;
+		this.keepOuts = keepOuts;
+
+		double highest = 0;
+		for (KeepOut keepOut : keepOuts) {
+			highest = Math.max(highest, keepOut.shoulderMax + kShoulderClearance);
+		}
+		clearShoulder = highest;
+
+		int poses = Preset.values().length * GamePiece.values().length;
+		paths = new Path[poses][poses];
+
+		for (int from = 0; from < poses; from++) {
+			if (isBlocked(shoulder(from), wrist(from))) {
+				log.warn("{} {} is inside a keep-out region", preset(from), piece(from));
+			}
+
+			for (int to = 0; to < poses; to++) {
+				paths[from][to] = plan(shoulder(from), wrist(from), shoulder(to), wrist(to));
+			}
+		}
+	}
+
+	private static Preset preset(int pose) {
+		return Preset.values()[pose / GamePiece.values().length];
+	}
+
+	private static GamePiece piece(int pose) {
+		return GamePiece.values()[pose % GamePiece.values().length];
+	}
+
+	private static double shoulder(int pose) {
+		return kPositions[pose / GamePiece.values().length][pose % GamePiece.values().length][0];
+	}
+
+	private static double wrist(int pose) {
+		return kPositions[pose / GamePiece.values().length][pose % GamePiece.values().length][1];
+	}
+
+	private static int pose(Preset preset, GamePiece piece) {
+		return preset.ordinal() * GamePiece.values().length + piece.ordinal();
+	}
+
+	public double getShoulder(Preset preset, GamePiece piece) {
+		return kPositions[preset.ordinal()][piece.ordinal()][0];
+	}
+
+	public double getWrist(Preset preset, GamePiece piece) {
+		return kPositions[preset.ordinal()][piece.ordinal()][1];
+	}
+
+	/**
+	 * Looks up the path from the preset the arm is at. From between presets, after an interrupted
+	 * move, the path is routed instead.
+	 * @param buffer Written with the path from between presets, has to stay with the caller
+	 * while the arm follows it
+	 * @return Path from the arm's position to the preset, the shared one or the buffer
+	 */
+	public Path getPath(double shoulder, double wrist, Preset preset, GamePiece piece, Path buffer) {
+		int to = pose(preset, piece);
+
+		for (int from = 0; from < paths.length; from++) {
+			if (Math.abs(shoulder - shoulder(from)) < kShoulderTolerance && Math.abs(wrist - wrist(from)) < kWristTolerance) {
+				return paths[from][to];
+			}
+		}
+		return route(shoulder, wrist, shoulder(to), wrist(to), buffer);
+	}
+
+	/**
+	 * Writes a path between two positions into the buffer without simulating it. Both joints move
+	 * one way only from rest to rest, so the arm stays inside the rectangle between the positions
+	 * and can go straight when no keep-out region overlaps it. Otherwise it lifts above every
+	 * region, turns the wrist and comes down.
+	 * @param buffer Has to stay with the caller while the arm follows the path
+	 * @return The buffer
+	 */
+	public Path route(double shoulderStart, double wristStart, double shoulderEnd, double wristEnd, Path buffer) {
+		for (KeepOut keepOut : keepOuts) {
+			if (keepOut.overlaps(shoulderStart, wristStart, shoulderEnd, wristEnd)) {
+				return overTop(shoulderStart, wristStart, shoulderEnd, wristEnd, buffer);
+			}
+		}
+
+		buffer.size = 0;
+		buffer.duration = 0;
+		addMove(buffer, shoulderStart, wristStart, shoulderEnd, wristEnd);
+		return finish(buffer, shoulderEnd, wristEnd);
+	}
+
+	/**
+	 * Writes the path up above every keep-out region, across and down into the buffer. Moves the
+	 * arm is already at the end of are left out, the same as plan does.
+	 */
+	private Path overTop(double shoulderStart, double wristStart, double shoulderEnd, double wristEnd, Path buffer) {
+		double over = Math.max(clearShoulder, Math.max(shoulderStart, shoulderEnd));
+
+		buffer.size = 0;
+		buffer.duration = 0;
+		addMove(buffer, shoulderStart, wristStart, over, wristStart);
+		addMove(buffer, over, wristStart, over, wristEnd);
+		addMove(buffer, over, wristEnd, shoulderEnd, wristEnd);
+		return finish(buffer, shoulderEnd, wristEnd);
+	}
+
+	/**
+	 * Keeps the target in a path to where the arm already is
+	 */
+	private static Path finish(Path buffer, double shoulderEnd, double wristEnd) {
+		if (buffer.size == 0) {
+			buffer.shoulder[0] = shoulderEnd;
+			buffer.wrist[0] = wristEnd;
+			buffer.size = 1;
+		}
+		return buffer;
+	}
+
+	private void addMove(Path path, double shoulderFrom, double wristFrom, double shoulderTo, double wristTo) {
+		if (shoulderFrom == shoulderTo && wristFrom == wristTo) {
+			return;
+		}
+
+		trajectory.plan(shoulderFrom, wristFrom, shoulderTo, wristTo);
+		path.duration += trajectory.getDuration();
+
+		path.shoulder[path.size] = shoulderTo;
+		path.wrist[path.size] = wristTo;
+		path.size++;
+	}
+
+	/**
+	 * Finds the fastest way between two positions that stays out of the keep-out regions.
+	 * Tries going straight, moving the shoulder first, moving the wrist first and going over
+	 * the top of every region. Only used to build the table, it simulates every candidate.
+	 */
+	private Path plan(double shoulderStart, double wristStart, double shoulderEnd, double wristEnd) {
+		double over = Math.max(clearShoulder, Math.max(shoulderStart, shoulderEnd));
+
+		double[][][] candidates = {
+			{{shoulderEnd}, {wristEnd}},
+			{{shoulderEnd, shoulderEnd}, {wristStart, wristEnd}},
+			{{shoulderStart, shoulderEnd}, {wristEnd, wristEnd}},
+			{{over, over, shoulderEnd}, {wristStart, wristEnd, wristEnd}}
+		};
+
+		Path fastest = null;
+		for (double[][] candidate : candidates) {
+			double duration = follow(shoulderStart, wristStart, candidate[0], candidate[1]);
+
+			if (!lastFollowBlocked && (fastest == null || duration < fastest.getDuration())) {
+				fastest = new Path(candidate[0], candidate[1], duration);
+			}
+		}
+
+		if (fastest == null) {
+			log.warn("No clear path to {}, {}, going over the top", shoulderEnd, wristEnd);
+			double[][] overTop = candidates[candidates.length - 1];
+			fastest = new Path(overTop[0], overTop[1], follow(shoulderStart, wristStart, overTop[0], overTop[1]));
+		}
+		return removeStops(fastest, shoulderStart, wristStart);
+	}
+
+	/**
+	 * Follows the moves the way the arm would, sets lastFollowBlocked if a keep-out region is entered
+	 * @return Total duration in seconds
+	 */
+	private double follow(double shoulder, double wrist, double[] shoulderPoints, double[] wristPoints) {
+		double total = 0;
+		lastFollowBlocked = false;
+
+		for (int i = 0; i < shoulderPoints.length; i++) {
+			trajectory.plan(shoulder, wrist, shoulderPoints[i], wristPoints[i]);
+
+			for (double t = 0; t < trajectory.getDuration() + kCheckPeriod; t += kCheckPeriod) {
+				trajectory.sample(t);
+				lastFollowBlocked |= isBlocked(trajectory.getShoulder().getPosition(), trajectory.getWrist().getPosition());
+			}
+
+			total += trajectory.getDuration();
+			shoulder = shoulderPoints[i];
+			wrist = wristPoints[i];
+		}
+		return total;
+	}
+
+	private boolean isBlocked(double shoulder, double wrist) {
+		for (KeepOut keepOut : keepOuts) {
+			if (keepOut.contains(shoulder, wrist)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Drops via-points the arm is already at when it gets to them, they would only add a stop
+	 */
+	private static Path removeStops(Path path, double shoulderStart, double wristStart) {
+		int kept = 0;
+		double[] shoulderPoints = new double[path.size()];
+		double[] wristPoints = new double[path.size()];
+		double shoulder = shoulderStart;
+		double wrist = wristStart;
+
+		for (int i = 0; i < path.size(); i++) {
+			if (i == path.size() - 1 || path.getShoulder(i) != shoulder || path.getWrist(i) != wrist) {
+				shoulderPoints[kept] = path.getShoulder(i);
+				wristPoints[kept] = path.getWrist(i);
+				kept++;
+			}
+			shoulder = path.getShoulder(i);
+			wrist = path.getWrist(i);
+		}
+
+		if (kept == path.size()) {
+			return path;
+		}
+		return new Path(Arrays.copyOf(shoulderPoints, kept), Arrays.copyOf(wristPoints, kept), path.getDuration());
+	}
+}
@@ -0,0 +1,58 @@
+package frc.robot.util;
+
+/**
+ * Coordinated shoulder and wrist move. Each joint gets a jerk limited profile and the faster one
+ * is slowed to the duration of the slower one, so both start and arrive together.
+ */
+public class ArmTrajectory {
+
+	private final JerkLimitedProfile shoulder;
+	private final JerkLimitedProfile wrist;
+
+	private double duration;
+
+	public ArmTrajectory(JerkLimitedProfile shoulder, JerkLimitedProfile wrist) {
+		this.shoulder = shoulder;
+		this.wrist = wrist;
+	}
+
+	/**
+	 * Plans the move from rest to rest
+	 */
+	public void plan(double shoulderStart, double wristStart, double shoulderEnd, double wristEnd) {
+		shoulder.plan(shoulderStart, shoulderEnd);
+		wrist.plan(wristStart, wristEnd);
+
+		duration = Math.max(shoulder.getMinimumDuration(), wrist.getMinimumDuration());
+		shoulder.setDuration(duration);
+		wrist.setDuration(duration);
+	}
+
+	/**
+	 * @return Seconds until both joints arrive
+	 */
+	public double getDuration() {
+		return duration;
+	}
+
+	/**
+	 * Evaluates both joints, read the result from getShoulder and getWrist
+	 * @param time Seconds since the start of the move
+	 */
+	public void sample(double time) {
+		shoulder.sample(time);
+		wrist.sample(time);
+	}
+
+	public boolean isFinished(double time) {
+		return time >= duration;
+	}
+
+	public JerkLimitedProfile getShoulder() {
+		return shoulder;
+	}
+
+	public JerkLimitedProfile getWrist() {
+		return wrist;
+	}
+}
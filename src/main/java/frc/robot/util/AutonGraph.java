@@ -0,0 +1,267 @@
+package frc.robot.util;
+
+import java.util.ArrayList;
+
+/**
+ * Autonomous routine as a graph of steps. A step starts on the iteration the steps it runs after
+ * have finished and the steps it runs with have started, so actions on different parts of the
+ * robot overlap instead of waiting in one queue. When the routine ends the critical path and the
+ * slack of every step are logged, showing which steps decide how long the routine takes.
+ *
+ * A step finishes when its command stops running, steps calling the same command have to run
+ * after one another.
+ */
+public class AutonGraph {
+
+	private static final Logger log = Logger.getLogger("AutonGraph");
+
+	// Slack in seconds below which a step counts as being on the critical path
+	private static final double kCriticalSlack = 0.001;
+
+	private final String name;
+	private final ArrayList<Step> steps = new ArrayList<Step>();
+
+	private long startTime = -1;
+
+	// Command ends counted by the controls processor when the steps were last looked at
+	private long checkedEnds;
+
+	/**
+	 * A command in the graph and the steps it waits for
+	 */
+	public class Step {
+		private final String id;
+		private final CommandDetails command;
+
+		// Indexes of the steps that have to finish, and start, before this one starts
+		private int[] after = new int[0];
+		private int[] with = new int[0];
+
+		private SubsystemCommand subsystemCommand;
+		private long startTime = -1;
+		private long finishTime = -1;
+
+		private Step(String id, CommandDetails command) {
+			this.id = id;
+			this.command = command;
+		}
+
+		/**
+		 * Starts the step once all of these steps have finished
+		 */
+		public Step after(String... ids) {
+			after = append(after, ids);
+			return this;
+		}
+
+		/**
+		 * Starts the step once all of these steps have started
+		 */
+		public Step with(String... ids) {
+			with = append(with, ids);
+			return this;
+		}
+
+		private boolean isReady() {
+			for (int i = 0; i < after.length; i++) {
+				if (steps.get(after[i]).finishTime < 0) {
+					return false;
+				}
+			}
+			for (int i = 0; i < with.length; i++) {
+				if (steps.get(with[i]).startTime < 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private int[] append(int[] indexes, String[] ids) {
+			int[] appended = new int[indexes.length + ids.length];
+			System.arraycopy(indexes, 0, appended, 0, indexes.length);
+
+			int count = indexes.length;
+			for (String id : ids) {
+				int index = indexOf(id);
+				if (index < 0) {
+					log.error("Step {} has to be added before the steps that wait for it", id);
+				} else {
+					appended[count++] = index;
+				}
+			}
+
+			int[] trimmed = new int[count];
+			System.arraycopy(appended, 0, trimmed, 0, count);
+			return trimmed;
+		}
+	}
+
+	/**
+	 * @param name Name of the routine in the report
+	 */
+	public AutonGraph(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Adds a step, which starts straight away unless after or with is called on it
+	 * @param id Name the other steps refer to the step by
+	 * @param command Command name followed by its arguments, without a type flag
+	 */
+	public Step step(String id, String command) {
+		if (indexOf(id) >= 0) {
+			log.error("Step {} was added twice", id);
+		}
+
+		String[] parts = command.split(" ", 2);
+		Step step = new Step(id, new CommandDetails(parts[0], CommandDetails.CommandType.PARALLEL, parts.length > 1 ? parts[1] : ""));
+		steps.add(step);
+		return step;
+	}
+
+	public boolean isEmpty() {
+		return steps.isEmpty();
+	}
+
+	/**
+	 * Forgets a previous run so the routine can be run again
+	 */
+	public void reset() {
+		startTime = -1;
+		for (Step step : steps) {
+			step.subsystemCommand = null;
+			step.startTime = -1;
+			step.finishTime = -1;
+		}
+	}
+
+	/**
+	 * Notes the steps that finished and starts the ones that are ready, called by the controls
+	 * processor every iteration after the command queue. Steps only become ready when another
+	 * step starts or ends, so nothing is looked at on iterations where no command ended.
+	 * @param timestamp Time of the iteration in nanoseconds
+	 * @return True once every step has finished
+	 */
+	boolean update(ControlsProcessor controlsProcessor, long timestamp) {
+		long ends = controlsProcessor.getCommandEnds();
+		if (startTime >= 0 && ends == checkedEnds) {
+			return false;
+		}
+		checkedEnds = ends;
+
+		if (startTime < 0) {
+			startTime = timestamp;
+		}
+
+		for (int i = 0; i < steps.size(); i++) {
+			Step step = steps.get(i);
+
+			if (step.startTime >= 0 && step.finishTime < 0 && (step.subsystemCommand == null || !step.subsystemCommand.running)) {
+				step.finishTime = timestamp;
+			}
+		}
+
+		// Steps only wait for earlier steps, so one pass starts everything that is ready
+		boolean finished = true;
+		for (int i = 0; i < steps.size(); i++) {
+			Step step = steps.get(i);
+
+			if (step.startTime < 0 && step.isReady()) {
+				step.subsystemCommand = controlsProcessor.findCommand(step.command.name());
+				controlsProcessor.callCommand(step.command);
+				step.startTime = timestamp;
+
+				// Nothing will end for it, so it counts as finished straight away
+				if (step.subsystemCommand == null) {
+					log.error("No subsystem has the command {}", step.command.name());
+					step.finishTime = timestamp;
+				}
+			}
+			finished &= step.finishTime >= 0;
+		}
+		return finished;
+	}
+
+	/**
+	 * Logs when every step ran, its slack and the critical path. Lengths are the measured ones,
+	 * steps still running count up to the timestamp and steps that never started count as 0.
+	 * @param timestamp Time the routine ended in nanoseconds
+	 */
+	void report(long timestamp) {
+		int count = steps.size();
+		double[] lengths = new double[count];
+		double[] earliestStarts = new double[count];
+		double[] latestStarts = new double[count];
+
+		for (int i = 0; i < count; i++) {
+			Step step = steps.get(i);
+			if (step.startTime >= 0) {
+				lengths[i] = ((step.finishTime >= 0 ? step.finishTime : timestamp) - step.startTime) / 1e9;
+			}
+		}
+
+		// Earliest every step could have started with no time lost between steps
+		double length = 0;
+		for (int i = 0; i < count; i++) {
+			Step step = steps.get(i);
+			for (int j : step.after) {
+				earliestStarts[i] = Math.max(earliestStarts[i], earliestStarts[j] + lengths[j]);
+			}
+			for (int j : step.with) {
+				earliestStarts[i] = Math.max(earliestStarts[i], earliestStarts[j]);
+			}
+			length = Math.max(length, earliestStarts[i] + lengths[i]);
+		}
+
+		// Latest every step could start without making the routine longer
+		for (int i = 0; i < count; i++) {
+			latestStarts[i] = length - lengths[i];
+		}
+		for (int i = count - 1; i >= 0; i--) {
+			Step step = steps.get(i);
+			for (int j : step.after) {
+				latestStarts[j] = Math.min(latestStarts[j], latestStarts[i] - lengths[j]);
+			}
+			for (int j : step.with) {
+				latestStarts[j] = Math.min(latestStarts[j], latestStarts[i]);
+			}
+		}
+
+		// Built into one record so the table isn't split up by other threads' logging
+		double elapsed = startTime >= 0 ? (timestamp - startTime) / 1e9 : 0;
+		StringBuilder table = new StringBuilder();
+		table.append(String.format("%s took %.2f s, %.2f s along the critical path and %.2f s between steps\n",
+				name, elapsed, length, elapsed - length));
+		table.append(String.format("  %-24s %8s %8s %8s %8s", "step", "start", "earliest", "length", "slack"));
+
+		StringBuilder criticalPath = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			Step step = steps.get(i);
+			double slack = latestStarts[i] - earliestStarts[i];
+
+			if (step.startTime < 0) {
+				table.append(String.format("\n  %-24s not started", step.id));
+				continue;
+			}
+
+			table.append(String.format("\n  %-24s %8.2f %8.2f %8.2f %8.2f%s", step.id, (step.startTime - startTime) / 1e9,
+					earliestStarts[i], lengths[i], slack, step.finishTime < 0 ? " unfinished" : ""));
+
+			if (slack < kCriticalSlack) {
+				criticalPath.append(criticalPath.length() > 0 ? " -> " : "").append(step.id);
+			}
+		}
+		table.append("\nCritical path: ").append(criticalPath);
+
+		log.info("{}", table);
+	}
+
+	private int indexOf(String id) {
+		for (int i = 0; i < steps.size(); i++) {
+			if (steps.get(i).id.equals(id)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
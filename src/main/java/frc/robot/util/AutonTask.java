@@ -7,6 +7,9 @@ public class AutonTask {
 
     private ArrayList<CommandDetails> subtasks = new ArrayList<CommandDetails>();
     private ControlsProcessor controlsProcessor;
+
+    // Steps that start when the steps they depend on are done, instead of queueing
+    private AutonGraph graph = new AutonGraph(getClass().getSimpleName());
     
     /**
      * Accepts the object of the running controlsProcessor to modify
@@ -25,12 +28,25 @@ public class AutonTask {
     }
 
     /**
-     * Adds all subtasks to actual commandQueue
+     * Adds a step to the task's graph, chain after and with onto it to say when it starts
+     * @param id Name the other steps refer to the step by
+     * @param command Command name followed by its arguments, ex: turn_to_angle_setpoint 240
+     */
+    public AutonGraph.Step step(String id, String command) {
+        return graph.step(id, command);
+    }
+
+    /**
+     * Adds all subtasks to actual commandQueue and starts the steps
      */
     public void run() {
         for (CommandDetails v : subtasks) {
             controlsProcessor.addToQueue(v);
         }
+
+        if (!graph.isEmpty()) {
+            controlsProcessor.runAuton(graph);
+        }
     }
 
 }
@@ -18,11 +18,27 @@ public class AxisButton extends JoystickButton {
 
 	@Override
 	public boolean get() {
+		return isPressed(joystick.getRawAxis(axis));
+	}
+
+	/**
+	 * @param axisValue Value read from the axis
+	 * @return True if the value counts as a press
+	 */
+	public boolean isPressed(double axisValue) {
 		if(isNegative) {
-			return joystick.getRawAxis(axis) < -0.5;
+			return axisValue < -0.5;
 		}
 		else{
-			return joystick.getRawAxis(axis) > 0.5;
+			return axisValue > 0.5;
 		}
 	}
+
+	public Joystick getJoystick() {
+		return joystick;
+	}
+
+	public int getAxis() {
+		return axis;
+	}
 }
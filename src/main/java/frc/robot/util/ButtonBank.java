@@ -0,0 +1,111 @@
+package frc.robot.util;
+
+import java.util.ArrayList;
+
+import edu.wpi.first.wpilibj.buttons.JoystickButton;
+
+/**
+ * A group of buttons that gets read once per control tick into a bitmask.
+ * Bindings are only dispatched when the bit of their button changes.
+ */
+public class ButtonBank {
+
+	// Number of bits available in the bank's state mask
+	public static final int kMaxButtons = 64;
+
+	// Buttons read by this bank, the index in the list is the bit in the mask
+	private ArrayList<JoystickButton> buttons = new ArrayList<JoystickButton>();
+
+	// Every command pair bound to a button of this bank, in the order they were appended
+	private ArrayList<JoystickCommandPair> bindings = new ArrayList<JoystickCommandPair>();
+
+	private long lastState = 0;
+
+	/**
+	 * @param button Button in reference
+	 * @return True if the button can be read by this bank
+	 */
+	public boolean accepts(JoystickButton button) {
+		if (button instanceof HIDButton || button instanceof AxisButton) {
+			return false;
+		}
+		return buttons.contains(button) || buttons.size() < kMaxButtons;
+	}
+
+	/**
+	 * Adds the command pair to the bank and assigns it the bit of its button
+	 * @param pair Command pair to dispatch when its button changes
+	 */
+	public void bind(JoystickCommandPair pair) {
+		pair.setBit(bitFor(pair.getButton()));
+		bindings.add(pair);
+	}
+
+	/**
+	 * @param button Button in reference
+	 * @return The bit the button occupies in the state mask
+	 */
+	protected int bitFor(JoystickButton button) {
+		int bit = buttons.indexOf(button);
+
+		if (bit < 0) {
+			if (buttons.size() >= kMaxButtons) {
+				throw new IllegalStateException("Button bank is full");
+			}
+			buttons.add(button);
+			bit = buttons.size() - 1;
+		}
+		return bit;
+	}
+
+	/**
+	 * Reads the device once
+	 * @return Bitmask of the pressed buttons
+	 */
+	protected long read() {
+		long state = 0;
+
+		for (int i = 0; i < buttons.size(); i++) {
+			if (buttons.get(i).get()) {
+				state |= 1L << i;
+			}
+		}
+		return state;
+	}
+
+	/**
+	 * Reads the bank and calls the bindings of every button that changed since the last poll
+	 */
+	public void poll() {
+		poll(read());
+	}
+
+	/**
+	 * Calls the bindings of every button that changed, used directly when replaying recorded states
+	 * @param state Bitmask of the pressed buttons
+	 */
+	public void poll(long state) {
+		long changed = state ^ lastState;
+		lastState = state;
+
+		if (changed == 0) {
+			return;
+		}
+
+		for (int i = 0; i < bindings.size(); i++) {
+			JoystickCommandPair pair = bindings.get(i);
+			long mask = 1L << pair.getBit();
+
+			if ((changed & mask) != 0) {
+				pair.update((state & mask) != 0);
+			}
+		}
+	}
+
+	/**
+	 * @return Bitmask of the buttons pressed during the last poll
+	 */
+	public long getState() {
+		return lastState;
+	}
+}
@@ -0,0 +1,36 @@
+package frc.robot.util;
+
+/**
+ * Source of monotonic time for the control code. The robot uses the system clock, a simulation
+ * installs a VirtualClock and moves it forward itself so the control code runs as fast as it can
+ * be computed. Anything the control code times goes through getInstance().nanoTime() so both see
+ * the same time.
+ */
+public abstract class Clock {
+
+	private static Clock instance;
+
+	/**
+	 * @return Nanoseconds from an arbitrary origin, never goes backwards
+	 */
+	public abstract long nanoTime();
+
+	public static synchronized Clock getInstance() {
+		if (instance == null) {
+			instance = new Clock() {
+				@Override
+				public long nanoTime() {
+					return System.nanoTime();
+				}
+			};
+		}
+		return instance;
+	}
+
+	/**
+	 * Replaces the clock, has to be called before anything that reads it is created
+	 */
+	public static synchronized void setInstance(Clock clock) {
+		instance = clock;
+	}
+}
@@ -2,6 +2,8 @@ package frc.robot.util;
 
 public class CommandDetails {
 
+    private static final Logger log = Logger.getLogger("CommandDetails");
+
     /**
      * Enum list of type of commands available
      */
@@ -72,11 +74,23 @@ public class CommandDetails {
                 }
                 break;
             default:
-                System.out.println("U DUN MESSED UP, here's what I saw as commandType = " + commandParts[1]);
+                log.error("U DUN MESSED UP, here's what I saw as commandType = {}", commandParts[1]);
                 break;
         }
     }
 
+    /**
+     * Constructor for a command built in code rather than parsed from a string
+     * @param commandName Name of the command
+     * @param commandType How the command runs alongside the others
+     * @param commandArgs Comma separated arguments, empty for none
+     */
+    public CommandDetails(String commandName, CommandType commandType, String commandArgs) {
+        this.commandName = commandName;
+        this.commandType = commandType;
+        this.commandArgs = commandArgs;
+    }
+
     /**
      * @return returns the currentTime delay set
      */
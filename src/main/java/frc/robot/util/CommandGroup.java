@@ -0,0 +1,335 @@
+package frc.robot.util;
+
+/**
+ * Subsystem commands composed into sequences, parallel groups, races and deadlines that run as
+ * one. The tree is flattened into arrays when the group is bound, depth first so the children of
+ * a node follow it and its subtree ends at ends[node]. A running group only moves between
+ * indexes in these arrays, and only on iterations where a command ended.
+ *
+ * A command ending for any reason, finishing, timing out or being interrupted, counts as
+ * finished. Only used from the controls processor thread.
+ */
+public class CommandGroup {
+
+	private static final Logger log = Logger.getLogger("CommandGroup");
+
+	private enum Kind {
+		// A single subsystem command
+		COMMAND,
+
+		// Runs the children one after another
+		SEQUENCE,
+
+		// Runs the children together and ends once they all have
+		PARALLEL,
+
+		// Runs the children together and ends once any of them has
+		RACE,
+
+		// Runs the children together and ends once the first one has
+		DEADLINE
+	}
+
+	// States of a node
+	private static final byte kIdle = 0;
+	private static final byte kRunning = 1;
+	private static final byte kDone = 2;
+
+	// Tree as it was built, only read when compiling
+	private final Kind kind;
+	private final CommandDetails command;
+	private final CommandGroup[] children;
+
+	// Compiled nodes in depth first order, the subtree of node i is [i, ends[i])
+	private Kind[] kinds;
+	private int[] ends;
+	private int[] parents;
+	private CommandDetails[] commands;
+	private SubsystemCommand[] subsystemCommands;
+	private byte[] states;
+
+	private ControlsProcessor controlsProcessor;
+	private boolean running = false;
+
+	// Command ends counted by the controls processor when the commands were last looked at
+	private long checkedEnds;
+
+	private CommandGroup(Kind kind, CommandDetails command, CommandGroup[] children) {
+		this.kind = kind;
+		this.command = command;
+		this.children = children;
+	}
+
+	/**
+	 * @param command Command name followed by its arguments, without a type flag
+	 */
+	public static CommandGroup command(String command) {
+		String[] parts = command.split(" ", 2);
+		return new CommandGroup(Kind.COMMAND, new CommandDetails(parts[0], CommandDetails.CommandType.PARALLEL, parts.length > 1 ? parts[1] : ""), new CommandGroup[0]);
+	}
+
+	/**
+	 * Runs the children one after another
+	 */
+	public static CommandGroup sequence(CommandGroup... children) {
+		return new CommandGroup(Kind.SEQUENCE, null, children);
+	}
+
+	public static CommandGroup sequence(String... commands) {
+		return sequence(commands(commands));
+	}
+
+	/**
+	 * Runs the children together, ends once they have all ended
+	 */
+	public static CommandGroup parallel(CommandGroup... children) {
+		return new CommandGroup(Kind.PARALLEL, null, children);
+	}
+
+	public static CommandGroup parallel(String... commands) {
+		return parallel(commands(commands));
+	}
+
+	/**
+	 * Runs the children together, ends and interrupts the others once any of them has ended
+	 */
+	public static CommandGroup race(CommandGroup... children) {
+		return new CommandGroup(Kind.RACE, null, children);
+	}
+
+	public static CommandGroup race(String... commands) {
+		return race(commands(commands));
+	}
+
+	/**
+	 * Runs the deadline and the others together, ends and interrupts the others once the deadline
+	 * has ended
+	 */
+	public static CommandGroup deadline(CommandGroup deadline, CommandGroup... others) {
+		CommandGroup[] children = new CommandGroup[others.length + 1];
+		children[0] = deadline;
+		System.arraycopy(others, 0, children, 1, others.length);
+		return new CommandGroup(Kind.DEADLINE, null, children);
+	}
+
+	public static CommandGroup deadline(String deadline, String... others) {
+		return deadline(command(deadline), commands(others));
+	}
+
+	private static CommandGroup[] commands(String[] commands) {
+		CommandGroup[] children = new CommandGroup[commands.length];
+		for (int i = 0; i < commands.length; i++) {
+			children[i] = command(commands[i]);
+		}
+		return children;
+	}
+
+	/**
+	 * Flattens the tree into arrays, called when the group is bound. The subsystem commands are
+	 * looked up the first time the group runs, subsystems are registered after the controls.
+	 */
+	void compile(ControlsProcessor controlsProcessor) {
+		this.controlsProcessor = controlsProcessor;
+
+		if (kinds != null) {
+			return;
+		}
+
+		int count = count(this);
+		kinds = new Kind[count];
+		ends = new int[count];
+		parents = new int[count];
+		commands = new CommandDetails[count];
+		subsystemCommands = new SubsystemCommand[count];
+		states = new byte[count];
+
+		flatten(this, -1, 0);
+	}
+
+	private static int count(CommandGroup node) {
+		int count = 1;
+		for (CommandGroup child : node.children) {
+			count += count(child);
+		}
+		return count;
+	}
+
+	/**
+	 * @return Index after the node's subtree
+	 */
+	private int flatten(CommandGroup node, int parent, int index) {
+		kinds[index] = node.kind;
+		parents[index] = parent;
+		commands[index] = node.command;
+
+		int next = index + 1;
+		for (CommandGroup child : node.children) {
+			next = flatten(child, index, next);
+		}
+		ends[index] = next;
+		return next;
+	}
+
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Starts the group from the beginning, interrupting it first if it is already running
+	 */
+	public void start() {
+		if (kinds == null) {
+			log.error("Command groups have to be bound before they are started");
+			return;
+		}
+
+		cancel();
+
+		for (int i = 0; i < states.length; i++) {
+			states[i] = kIdle;
+		}
+		running = true;
+		checkedEnds = controlsProcessor.getCommandEnds();
+
+		startNode(0);
+	}
+
+	/**
+	 * Interrupts the commands of the group that are still running
+	 */
+	public void cancel() {
+		if (running) {
+			stopNode(0);
+			running = false;
+		}
+	}
+
+	/**
+	 * Moves on from the commands that have ended, called by the controls processor every iteration
+	 */
+	void update() {
+		if (!running) {
+			return;
+		}
+
+		// Only a command ending can move the group on
+		long commandEnds = controlsProcessor.getCommandEnds();
+		if (commandEnds == checkedEnds) {
+			return;
+		}
+		checkedEnds = commandEnds;
+
+		for (int i = 0; i < kinds.length && running; i++) {
+			if (kinds[i] == Kind.COMMAND && states[i] == kRunning && !subsystemCommands[i].running) {
+				finishNode(i);
+			}
+		}
+	}
+
+	private void startNode(int node) {
+		states[node] = kRunning;
+
+		switch (kinds[node]) {
+			case COMMAND:
+				if (subsystemCommands[node] == null) {
+					subsystemCommands[node] = controlsProcessor.findCommand(commands[node].name());
+				}
+
+				// Nothing will end for it, so it counts as finished straight away
+				if (subsystemCommands[node] == null) {
+					log.error("No subsystem has the command {}", commands[node].name());
+					finishNode(node);
+				} else {
+					controlsProcessor.startCommand(subsystemCommands[node], commands[node]);
+				}
+				break;
+
+			case SEQUENCE:
+				if (ends[node] > node + 1) {
+					startNode(node + 1);
+				} else {
+					finishNode(node);
+				}
+				break;
+
+			default:
+				if (ends[node] == node + 1) {
+					finishNode(node);
+				}
+
+				// A child ending straight away can end a race or deadline before the rest start
+				for (int child = node + 1; child < ends[node] && states[node] == kRunning; child = ends[child]) {
+					startNode(child);
+				}
+				break;
+		}
+	}
+
+	private void finishNode(int node) {
+		states[node] = kDone;
+
+		int parent = parents[node];
+		if (parent < 0) {
+			running = false;
+			return;
+		}
+		if (states[parent] != kRunning) {
+			return;
+		}
+
+		switch (kinds[parent]) {
+			case SEQUENCE:
+				if (ends[node] < ends[parent]) {
+					startNode(ends[node]);
+				} else {
+					finishNode(parent);
+				}
+				break;
+
+			case PARALLEL:
+				for (int child = parent + 1; child < ends[parent]; child = ends[child]) {
+					if (states[child] != kDone) {
+						return;
+					}
+				}
+				finishNode(parent);
+				break;
+
+			case RACE:
+				stopChildren(parent);
+				finishNode(parent);
+				break;
+
+			case DEADLINE:
+				if (node == parent + 1) {
+					stopChildren(parent);
+					finishNode(parent);
+				}
+				break;
+
+			default:
+				break;
+		}
+	}
+
+	private void stopNode(int node) {
+		if (states[node] != kRunning) {
+			return;
+		}
+		states[node] = kDone;
+
+		if (kinds[node] == Kind.COMMAND) {
+			if (subsystemCommands[node].running) {
+				subsystemCommands[node].cancel();
+			}
+		} else {
+			stopChildren(node);
+		}
+	}
+
+	private void stopChildren(int node) {
+		for (int child = node + 1; child < ends[node]; child = ends[child]) {
+			stopNode(child);
+		}
+	}
+}
@@ -2,6 +2,9 @@ package frc.robot.util;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import edu.wpi.first.wpilibj.Joystick;
 import edu.wpi.first.wpilibj.buttons.JoystickButton;
 import frc.robot.RobotMap;
@@ -10,52 +13,111 @@ import java.net.URI;
 
 public abstract class ControlsProcessor extends Thread {
 
+	private static final Logger log = Logger.getLogger("ControlsProcessor");
+
+	// Button pad served by the driver station
+	private static final String kButtonPadUri = "ws://10.27.14.5:5802";
+
+	private TelemetryRecorder telemetry = TelemetryRecorder.getInstance();
+
+	// Recorded match that replaces the operator input, null when live
+	private SensorReplay replay;
+
 	private double periodNanoseconds = 0;
-	private boolean stopProcessor = false;
+	private volatile boolean stopProcessor = false;
 
 	private HashMap<String, SubsystemModule> controllers = new HashMap<String, SubsystemModule>();
+
+	// Registered subsystems in a list so the periodic loop can walk them without an iterator
+	private ArrayList<SubsystemModule> modules = new ArrayList<SubsystemModule>();
 	private ArrayList<CommandDetails> commandQueue = new ArrayList<CommandDetails>();
 
+	// Last sequential command called from the queue, the next one waits for it to finish
+	private SubsystemCommand lastSeries;
+
+	// Interrupted commands that start again once their resources are free
+	private ArrayList<SubsystemCommand> suspended = new ArrayList<SubsystemCommand>();
+
+	// Counts every command end, so the queue and the auton only look at the commands again when
+	// one of them may have freed what they wait for. Commands end on the worker threads as well as
+	// this one, so the count is atomic.
+	private final AtomicLong commandEnds = new AtomicLong();
+	private final SubsystemCommand.EndListener endListener = (command, interrupted) -> commandEnds.incrementAndGet();
+
+	// Head of the queue when it was last found waiting, and the command ends counted then
+	private CommandDetails waitingCommand;
+	private long waitingCommandEnds;
+
+	// Delayed starts, command timeouts and other timed work, advanced every iteration
+	private TimerWheel timers;
+
+	// Delayed starts still waiting on the timer wheel, cancelled by cancelAll
+	private ArrayList<TimerWheel.Task> delayedStarts = new ArrayList<TimerWheel.Task>();
+
+	// Command groups bound to buttons, moved on every iteration while they run
+	private ArrayList<CommandGroup> groups = new ArrayList<CommandGroup>();
+
+	// Autonomous routine run alongside the command queue, null when there isn't one
+	private AutonGraph auton;
+
+	// Work handed over by other threads, done in order at the start of the next iteration
+	private final ConcurrentLinkedQueue<Runnable> requests = new ConcurrentLinkedQueue<Runnable>();
+	private long lastTimestamp;
+
 	private int commandDivider;
-	private int counter = 0;
+	private long counter = 0;
+
+	// Every module runs on the iterations where counter % divider == phase, indexed like modules
+	private int[] runDividers = new int[0];
+	private int[] runPhases = new int[0];
+	private int[] commandDividers = new int[0];
+	private int[] commandPhases = new int[0];
+
+	// Partition every module runs in, 0 is this thread and the others have a worker each
+	private ArrayList<Integer> modulePartitions = new ArrayList<Integer>();
+	private int[] partitions = new int[0];
+	private ControlsWorker[] workers = new ControlsWorker[0];
+
+	// Longest schedule worked out when spreading the modules over iterations
+	private static final int kMaxHyperperiod = 1000;
 
 	// Controllers and button boxes
-	protected Joystick xbox1 = new Joystick(RobotMap.p_xbox1);
-	protected Joystick buttonBoxA = new Joystick(RobotMap.p_newButtonBoxA);
-	protected Joystick buttonBoxB = new Joystick(RobotMap.p_newButtonBoxB);
+	protected Joystick xbox1;
+	protected Joystick buttonBoxA;
+	protected Joystick buttonBoxB;
 
 	// xbox1 buttons
-	protected JoystickButton a = new JoystickButton(xbox1, 1);
-	protected JoystickButton b = new JoystickButton(xbox1, 2);
-	protected JoystickButton x = new JoystickButton(xbox1, 3);
-	protected JoystickButton y = new JoystickButton(xbox1, 4);
-	protected JoystickButton lb = new JoystickButton(xbox1, 5);
-	protected JoystickButton rb = new JoystickButton(xbox1, 6);
-	protected JoystickButton back = new JoystickButton(xbox1, 7);
-	protected JoystickButton start = new JoystickButton(xbox1, 8);
-	protected JoystickButton leftStick = new JoystickButton(xbox1, 9);
-	protected JoystickButton rightStick = new JoystickButton(xbox1, 10);
-
-
-	protected JoystickButton climberUpButton = new JoystickButton(buttonBoxA, 1);
-	protected JoystickButton climberDownButton = new JoystickButton(buttonBoxA, 2);
-	protected JoystickButton upperScoreButton = new JoystickButton(buttonBoxA, 3);
-	protected JoystickButton cancelAllButton = new JoystickButton(buttonBoxA, 4);
-
-	protected JoystickButton extakeButton = new JoystickButton(buttonBoxA, 5);
-	protected JoystickButton startPositionButton = new JoystickButton(buttonBoxA, 6);
-	protected JoystickButton flexScoreButton = new JoystickButton(buttonBoxA, 7);
-	protected JoystickButton unusedButton8 = new JoystickButton(buttonBoxA, 8);
-
-	protected JoystickButton cargoStationPositionButton = new JoystickButton(buttonBoxA, 9);
-	protected JoystickButton hatchStationPositionButton = new JoystickButton(buttonBoxA, 10);
-	protected JoystickButton middleScoreButton = new JoystickButton(buttonBoxA, 11);
-	protected JoystickButton unusedButton12 = new JoystickButton(buttonBoxA, 12);
-
-	protected AxisButton cargoFloorButton = new AxisButton(buttonBoxA,0, true);
-	protected AxisButton unusedButton14 = new AxisButton(buttonBoxA, 0, false);
-	protected AxisButton lowerScoreButton = new AxisButton(buttonBoxA, 1, false);
-	protected AxisButton unusedButton16 = new AxisButton(buttonBoxA, 1, true);
+	protected JoystickButton a;
+	protected JoystickButton b;
+	protected JoystickButton x;
+	protected JoystickButton y;
+	protected JoystickButton lb;
+	protected JoystickButton rb;
+	protected JoystickButton back;
+	protected JoystickButton start;
+	protected JoystickButton leftStick;
+	protected JoystickButton rightStick;
+
+
+	protected JoystickButton climberUpButton;
+	protected JoystickButton climberDownButton;
+	protected JoystickButton upperScoreButton;
+	protected JoystickButton cancelAllButton;
+
+	protected JoystickButton extakeButton;
+	protected JoystickButton startPositionButton;
+	protected JoystickButton flexScoreButton;
+	protected JoystickButton unusedButton8;
+
+	protected JoystickButton cargoStationPositionButton;
+	protected JoystickButton hatchStationPositionButton;
+	protected JoystickButton middleScoreButton;
+	protected JoystickButton unusedButton12;
+
+	protected AxisButton cargoFloorButton;
+	protected AxisButton unusedButton14;
+	protected AxisButton lowerScoreButton;
+	protected AxisButton unusedButton16;
 
 
 //	protected JoystickButton wristJogUpButton = new JoystickButton(buttonBoxA, 12);
@@ -68,8 +130,8 @@ public abstract class ControlsProcessor extends Thread {
 
 	protected WebsocketButtonPad launchpad;
 
-	// Array list that holds all of the operator controls
-	private ArrayList<JoystickCommandPair> operatorControls = new ArrayList<JoystickCommandPair>();
+	// Operator controls grouped by the device their button is read from
+	private ArrayList<ButtonBank> buttonBanks = new ArrayList<ButtonBank>();
 	
 	/**
 	 * Has to be overridden from robot class
@@ -82,32 +144,73 @@ public abstract class ControlsProcessor extends Thread {
 	 * @param commandDivider How often the commands get processed alongside the actual control loop
 	 */
 	public ControlsProcessor(double periodNanoseconds, int commandDivider) {
+		this(periodNanoseconds, commandDivider, true);
+	}
+
+	/**
+	 * Initialize controller collection, optionally without any operator interface hardware
+	 * so it can run off the robot
+	 * @param periodNanoseconds Period in nanoseconds
+	 * @param commandDivider How often the commands get processed alongside the actual control loop
+	 * @param operatorInterface False to skip the joysticks, button pad and operator controls
+	 */
+	protected ControlsProcessor(double periodNanoseconds, int commandDivider, boolean operatorInterface) {
 		this.periodNanoseconds = periodNanoseconds;
 		this.commandDivider = commandDivider;
-		
-		try {
-			launchpad = new WebsocketButtonPad( new URI( "ws://10.27.14.507:5802" ));
-			launchpad.connect();
-		} catch (Exception e) {
-			System.out.println("Websocket failure");
-		}
-
-		registerOperatorControls();
-	}
+		this.timers = new TimerWheel(periodNanoseconds);
 
-	public void connectButtonPad(){
-		if(!launchpad.isOpen()){
-			try {
-				launchpad.connect();
-			} catch (Exception e) {
-				System.out.println("Websocket connection failure");
-			}
+		if (operatorInterface) {
+			initOperatorInterface();
+			registerOperatorControls();
 		}
-		else {
-			System.out.println("Websocket connected");
-		}	
+	}
 
+	/**
+	 * Creates the joysticks, button boxes and the websocket button pad
+	 */
+	private void initOperatorInterface() {
+		// Controllers and button boxes
+		xbox1 = new Joystick(RobotMap.p_xbox1);
+		buttonBoxA = new Joystick(RobotMap.p_newButtonBoxA);
+		buttonBoxB = new Joystick(RobotMap.p_newButtonBoxB);
+
+		// xbox1 buttons
+		a = new HIDButton(xbox1, 1);
+		b = new HIDButton(xbox1, 2);
+		x = new HIDButton(xbox1, 3);
+		y = new HIDButton(xbox1, 4);
+		lb = new HIDButton(xbox1, 5);
+		rb = new HIDButton(xbox1, 6);
+		back = new HIDButton(xbox1, 7);
+		start = new HIDButton(xbox1, 8);
+		leftStick = new HIDButton(xbox1, 9);
+		rightStick = new HIDButton(xbox1, 10);
+
+		climberUpButton = new HIDButton(buttonBoxA, 1);
+		climberDownButton = new HIDButton(buttonBoxA, 2);
+		upperScoreButton = new HIDButton(buttonBoxA, 3);
+		cancelAllButton = new HIDButton(buttonBoxA, 4);
+
+		extakeButton = new HIDButton(buttonBoxA, 5);
+		startPositionButton = new HIDButton(buttonBoxA, 6);
+		flexScoreButton = new HIDButton(buttonBoxA, 7);
+		unusedButton8 = new HIDButton(buttonBoxA, 8);
+
+		cargoStationPositionButton = new HIDButton(buttonBoxA, 9);
+		hatchStationPositionButton = new HIDButton(buttonBoxA, 10);
+		middleScoreButton = new HIDButton(buttonBoxA, 11);
+		unusedButton12 = new HIDButton(buttonBoxA, 12);
+
+		cargoFloorButton = new AxisButton(buttonBoxA, 0, true);
+		unusedButton14 = new AxisButton(buttonBoxA, 0, false);
+		lowerScoreButton = new AxisButton(buttonBoxA, 1, false);
+		unusedButton16 = new AxisButton(buttonBoxA, 1, true);
+
+		// Connects and reconnects on its own thread, the buttons are released while it is down
+		launchpad = new WebsocketButtonPad(URI.create(kButtonPadUri));
+		launchpad.start();
 	}
+
 	/**
 	 * Function to add the subsystem into the collection
 	 * All the runs are added and called periodically
@@ -115,7 +218,141 @@ public abstract class ControlsProcessor extends Thread {
 	 * @param subsystem
 	 */
 	public void registerController(String name, SubsystemModule subsystem) {
-		controllers.put(name, subsystem);
+		registerController(name, subsystem, 0);
+	}
+
+	/**
+	 * Adds the subsystem to a partition. Partition 0 runs on the controls processor thread and
+	 * every other partition gets a worker thread, all partitions run at the same time and the
+	 * command queue is processed once they have all finished. Subsystems that use each other's
+	 * state have to be in the same partition.
+	 * @param partition Index of the partition, use consecutive indexes starting at 0
+	 */
+	public void registerController(String name, SubsystemModule subsystem, int partition) {
+		SubsystemModule previous = controllers.put(name, subsystem);
+		if (previous != null) {
+			modulePartitions.remove(modules.indexOf(previous));
+			modules.remove(previous);
+		}
+		modules.add(subsystem);
+		modulePartitions.add(partition);
+
+		for (SubsystemCommand command : subsystem.getCommands()) {
+			command.addEndListener(endListener);
+		}
+
+		schedule();
+		startWorkers();
+	}
+
+	/**
+	 * Creates a worker for every partition other than 0 that doesn't have one yet
+	 */
+	private void startWorkers() {
+		int count = 0;
+		for (int partition : partitions) {
+			count = Math.max(count, partition);
+		}
+
+		if (count > workers.length) {
+			ControlsWorker[] started = new ControlsWorker[count];
+			System.arraycopy(workers, 0, started, 0, workers.length);
+
+			for (int i = workers.length; i < count; i++) {
+				started[i] = new ControlsWorker(this, i + 1);
+				started[i].start();
+			}
+			workers = started;
+		}
+	}
+
+	/**
+	 * Turns each module's rates into a divider of the controls processor period and picks the
+	 * phases. Rate monotonic: the most frequent jobs are placed first, each on the phase whose
+	 * iterations have the least work so far, so modules at the same rate don't share iterations.
+	 */
+	private void schedule() {
+		int count = modules.size();
+		runDividers = new int[count];
+		runPhases = new int[count];
+		commandDividers = new int[count];
+		commandPhases = new int[count];
+		partitions = new int[count];
+
+		double rate = 1e9 / periodNanoseconds;
+		int hyperperiod = 1;
+		int partitionCount = 1;
+
+		for (int i = 0; i < count; i++) {
+			SubsystemModule module = modules.get(i);
+			partitions[i] = modulePartitions.get(i);
+			partitionCount = Math.max(partitionCount, partitions[i] + 1);
+
+			runDividers[i] = divider(module.getRunRate(), rate, 1);
+			commandDividers[i] = divider(module.getCommandRate(), rate, commandDivider);
+			module.setRunPeriod(runDividers[i] * periodNanoseconds / 1e9);
+
+			hyperperiod = Math.min(kMaxHyperperiod, lcm(hyperperiod, lcm(runDividers[i], commandDividers[i])));
+		}
+
+		// Run and command jobs of every module, sorted by divider
+		ArrayList<int[]> jobs = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			jobs.add(new int[] {i, 0, runDividers[i]});
+			jobs.add(new int[] {i, 1, commandDividers[i]});
+		}
+		jobs.sort((a, b) -> Integer.compare(a[2], b[2]));
+
+		// Work in every iteration of each partition, the partitions run side by side
+		int[][] loads = new int[partitionCount][hyperperiod];
+		for (int[] job : jobs) {
+			int[] load = loads[partitions[job[0]]];
+			int divider = job[2];
+			int bestPhase = 0;
+			int bestLoad = Integer.MAX_VALUE;
+
+			for (int phase = 0; phase < divider; phase++) {
+				int worst = 0;
+				for (int t = phase; t < hyperperiod; t += divider) {
+					worst = Math.max(worst, load[t]);
+				}
+				if (worst < bestLoad) {
+					bestLoad = worst;
+					bestPhase = phase;
+				}
+			}
+
+			for (int t = bestPhase; t < hyperperiod; t += divider) {
+				load[t]++;
+			}
+
+			if (job[1] == 0) {
+				runPhases[job[0]] = bestPhase;
+			} else {
+				commandPhases[job[0]] = bestPhase;
+			}
+		}
+	}
+
+	private int divider(double requested, double rate, int defaultDivider) {
+		if (requested <= 0) {
+			return defaultDivider;
+		}
+		if (requested > rate) {
+			log.warn("Rate of {} Hz is faster than the controls processor, running every period", requested);
+		}
+		return Math.max(1, (int) Math.round(rate / requested));
+	}
+
+	private static int lcm(int a, int b) {
+		int x = a;
+		int y = b;
+		while (y != 0) {
+			int r = x % y;
+			x = y;
+			y = r;
+		}
+		return a / x * b;
 	}
 
 	/**
@@ -123,28 +360,91 @@ public abstract class ControlsProcessor extends Thread {
 	 */
 	public void run() {
 
-		connectButtonPad();
-		double timestamp = System.nanoTime();
+		Clock clock = Clock.getInstance();
+
+		// Periods are kept in real time, a simulation with a virtual clock calls tick itself
+		long next = System.nanoTime();
 
 		// Runs even when robot is disabled
 		while (true) {
 
 			if (!stopProcessor) {
-				timestamp = System.nanoTime();
+				tick(clock.nanoTime());
+			}
 
-				controllers.forEach((k, v) -> v.run());
+			// Sleep until the next iteration, starting again from now if a tick overran its period
+			next += periodNanoseconds;
+			long remaining = next - System.nanoTime();
+			if (remaining < 0) {
+				next -= remaining;
+			}
+			while (remaining > 0) {
+				LockSupport.parkNanos(remaining);
+				remaining = next - System.nanoTime();
+			}
+		}
+	}
 
-				if (counter % this.commandDivider == 0) {
-					controllers.forEach((k, v) -> v.runCommands());
-				}
-				counter++;
-				
-				checkButtons();
-				processCommandQueue();
-				
-				// Busy wait until the next iteration
-				while (System.nanoTime() < timestamp + periodNanoseconds) { }
-				
+	/**
+	 * Runs a single iteration of the control loop. Called by run() once per period,
+	 * or directly by an offline simulation to run faster than real time
+	 * @param timestamp Time of the iteration in nanoseconds
+	 */
+	public void tick(long timestamp) {
+		Runnable request;
+		while ((request = requests.poll()) != null) {
+			request.run();
+		}
+
+		for (int i = 0; i < workers.length; i++) {
+			workers[i].begin(counter);
+		}
+
+		runPartition(0, counter);
+
+		for (int i = 0; i < workers.length; i++) {
+			workers[i].await(counter);
+		}
+		counter++;
+
+		timers.advance();
+		checkButtons();
+		processCommandQueue();
+
+		for (int i = 0; i < groups.size(); i++) {
+			groups.get(i).update();
+		}
+
+		AutonGraph auton = this.auton;
+		if (auton != null && auton.update(this, timestamp)) {
+			auton.report(timestamp);
+			this.auton = null;
+		}
+		lastTimestamp = timestamp;
+
+		telemetry.commit(timestamp);
+	}
+
+	/**
+	 * Reads the sensors, runs and runs the commands of the partition's modules that are due
+	 * @param iteration Number of the iteration
+	 */
+	void runPartition(int partition, long iteration) {
+		for (int i = 0; i < modules.size(); i++) {
+			if (partitions[i] == partition && (iteration % runDividers[i] == runPhases[i] || iteration % commandDividers[i] == commandPhases[i])) {
+				modules.get(i).readSensors();
+			}
+		}
+
+		for (int i = 0; i < modules.size(); i++) {
+			if (partitions[i] == partition && iteration % runDividers[i] == runPhases[i]) {
+				modules.get(i).run();
+			}
+		}
+
+		for (int i = 0; i < modules.size(); i++) {
+			if (partitions[i] == partition && iteration % commandDividers[i] == commandPhases[i]) {
+				modules.get(i).runCommands();
 			}
 		}
 	}
@@ -158,41 +458,62 @@ public abstract class ControlsProcessor extends Thread {
 	 * @param command Command in reference
 	 */
 	public void callCommand(CommandDetails command) {
-		System.out.println("Received command: " + command.toString());
+		log.info("Received command: {}", command);
 		
 		controllers.forEach((k, v) -> {
 
 			// Matches the name of registered commands in the subsystem constructors
 			SubsystemCommand foundCommand = v.registeredCommands.get(command.name());
 
-			// Distinguishes based on whether or not the command contains arguments
-			if (foundCommand != null && command.args().isEmpty()) {
-				System.out.println("Found command: " + command.name());
-
-				if (command.type().equals(CommandDetails.CommandType.TIMEDELAY)) {
-					foundCommand.configureDelay(command.getDelay());
-				}
-
-				foundCommand.call();
-
-			} else if (foundCommand != null && !command.args().isEmpty()) {
-				System.out.println("Found command: " + command.name());
-
-				if (command.type().equals(CommandDetails.CommandType.TIMEDELAY)) {
-					foundCommand.configureDelay(command.getDelay());
-				}
-
-				foundCommand.call(command.args());
+			if (foundCommand == null) {
+				return;
+			}
+			log.debug("Found command: {}", command.name());
+
+			if (command.type() == CommandDetails.CommandType.TIMEDELAY && command.getDelay() > 0) {
+				TimerWheel.Task delayedStart = new TimerWheel.Task() {
+					@Override
+					public void expired() {
+						delayedStarts.remove(this);
+						startCommand(foundCommand, command);
+					}
+				};
+				delayedStarts.add(delayedStart);
+				timers.schedule(delayedStart, command.getDelay());
+			} else {
+				startCommand(foundCommand, command);
 			}
 		});
 	}
 
+	/**
+	 * Interrupts the commands using the same resources, calls the command and starts its timeout
+	 */
+	void startCommand(SubsystemCommand foundCommand, CommandDetails command) {
+		interruptConflicting(foundCommand);
+
+		// Distinguishes based on whether or not the command contains arguments
+		if (command.args().isEmpty()) {
+			foundCommand.call();
+		} else {
+			foundCommand.call(command.args());
+		}
+		foundCommand.startTimeout(timers);
+	}
+
+	/**
+	 * @return Timer wheel advanced every iteration, only to be used from the controls processor thread
+	 */
+	public TimerWheel getTimers() {
+		return timers;
+	}
+
 	// Cancel a command based on input
 	public void cancelCommand(CommandDetails command) {
 		controllers.forEach((k, v) -> {
 			SubsystemCommand foundCommand = v.registeredCommands.get(command.name());
 
-			System.out.println("Cancelling Command = " + command.name());
+			log.debug("Cancelling Command = {}", command.name());
 
 			if (foundCommand != null) {
 				foundCommand.cancel();
@@ -200,13 +521,117 @@ public abstract class ControlsProcessor extends Thread {
 		});
 	}
 
-	// Cancels all commands running
+	/**
+	 * Cancels the running commands that use any of the command's resources
+	 * @param command Command about to start, left running if it already is
+	 */
+	private void interruptConflicting(SubsystemCommand command) {
+		if (command.getRequirements() == 0) {
+			return;
+		}
+
+		for (int i = 0; i < modules.size(); i++) {
+			SubsystemCommand[] commands = modules.get(i).getCommands();
+
+			for (int j = 0; j < commands.length; j++) {
+				SubsystemCommand running = commands[j];
+
+				if (running != command && running.running && running.conflictsWith(command)) {
+					log.info("Interrupting command: {}", running.getName());
+					running.cancel();
+
+					if (running.isResumable() && !suspended.contains(running)) {
+						suspended.add(running);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return True if a running command other than this one uses any of its resources
+	 */
+	private boolean isConflicting(SubsystemCommand command) {
+		if (command.getRequirements() == 0) {
+			return false;
+		}
+
+		for (int i = 0; i < modules.size(); i++) {
+			SubsystemCommand[] commands = modules.get(i).getCommands();
+
+			for (int j = 0; j < commands.length; j++) {
+				if (commands[j] != command && commands[j].running && commands[j].conflictsWith(command)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Restarts the interrupted commands whose resources are free again
+	 */
+	private void resumeSuspended() {
+		for (int i = suspended.size() - 1; i >= 0; i--) {
+			SubsystemCommand command = suspended.get(i);
+
+			if (command.running) {
+				suspended.remove(i);
+			} else if (!isConflicting(command)) {
+				log.info("Resuming command: {}", command.getName());
+				command.call();
+				command.startTimeout(timers);
+				suspended.remove(i);
+			}
+		}
+	}
+
+	/**
+	 * @return The registered command with the name, null if no subsystem has it
+	 */
+	SubsystemCommand findCommand(String name) {
+		for (int i = 0; i < modules.size(); i++) {
+			SubsystemCommand command = modules.get(i).registeredCommands.get(name);
+
+			if (command != null) {
+				return command;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Cancels all commands running, the queue, the delayed starts, the groups and the auton at the
+	 * start of the next iteration. Can be called from any thread, the queue and the timer wheel
+	 * are only touched by the controls processor thread.
+	 */
 	public void cancelAll() {
-		commandQueue = new ArrayList<CommandDetails>(0);
+		requests.add(this::cancelNow);
+	}
+
+	private void cancelNow() {
+		commandQueue.clear();
+		suspended.clear();
+		waitingCommand = null;
+
+		for (int i = 0; i < delayedStarts.size(); i++) {
+			timers.cancel(delayedStarts.get(i));
+		}
+		delayedStarts.clear();
+
+		for (int i = 0; i < groups.size(); i++) {
+			groups.get(i).cancel();
+		}
+
+		AutonGraph auton = this.auton;
+		if (auton != null) {
+			this.auton = null;
+			auton.report(lastTimestamp);
+		}
 		controllers.forEach((k, v) -> {
 			v.registeredCommands.forEach((k1, v1) -> {
 				if(v1.running) {
-					System.out.println("Cancelling Command :- " + v1.getName());
+					log.info("Cancelling Command :- {}", v1.getName());
 					v1.cancel();
 				}
 			});
@@ -214,56 +639,69 @@ public abstract class ControlsProcessor extends Thread {
 	}
 
 	/**
-	 * Adds a command to commandQueue
+	 * @return Number that changes every time a command ends
+	 */
+	long getCommandEnds() {
+		return commandEnds.get();
+	}
+
+	/**
+	 * Runs an autonomous routine from the next iteration, replacing any routine still running.
+	 * The routine is reset and handed over on the controls processor thread.
+	 */
+	public void runAuton(AutonGraph auton) {
+		requests.add(() -> {
+			auton.reset();
+			this.auton = auton;
+		});
+	}
+
+	/**
+	 * Adds a command to commandQueue at the start of the next iteration, after anything
+	 * cancelled or queued before it
 	 */
 	public void addToQueue(CommandDetails newCommand) {
-		commandQueue.add(newCommand);
+		requests.add(() -> commandQueue.add(newCommand));
 	}
 
 	/**
-	 * Pull new command off of queue, if it is a sequential command, make sure
-	 * nothing else is running. If it is a parallel command, call it and add it to
-	 * the list.
+	 * Pull new command off of queue. A parallel command is called straight away and interrupts
+	 * the running commands that use the same resources. A sequential command waits until the
+	 * sequential command before it has finished and nothing running uses its resources, so
+	 * commands on other parts of the robot keep running alongside it.
 	 */
 	public void processCommandQueue() {
-		// TODO: Test time delay
+		resumeSuspended();
+
 		if (this.commandQueue.size() > 0 && (this.commandQueue.get(0).type().equals(CommandDetails.CommandType.PARALLEL)
 				|| this.commandQueue.get(0).type().equals(CommandDetails.CommandType.TIMEDELAY))) {
-			System.out.println("parallel" + this.commandQueue.get(0).name());
+			log.debug("parallel {}", this.commandQueue.get(0).name());
 			callCommand(this.commandQueue.get(0));
-			System.out.println("Calling Command : " + this.commandQueue.get(0));
+			log.info("Calling Command : {}", this.commandQueue.get(0));
 			this.commandQueue.remove(0);
 		}
 
-		// Checks to see if there are any commands currently running, and if there, it exits the method
-		// This would prevent any sequential commands from running
-		for(java.util.Map.Entry<String, SubsystemModule> sub : controllers.entrySet()) {
-			for (java.util.Map.Entry<String, SubsystemCommand> cmds : sub.getValue().registeredCommands.entrySet()) {
-				if (cmds.getValue().running) {
-					return;
-				}
+		if (this.commandQueue.size() > 0 && (this.commandQueue.get(0).type().equals(CommandDetails.CommandType.SERIES))) {
+			CommandDetails next = this.commandQueue.get(0);
+
+			// Only a command ending can let a waiting command start
+			if (next == waitingCommand && commandEnds.get() == waitingCommandEnds) {
+				return;
 			}
-		}
 
-		// controllers.forEach((k, v) -> {
-		// 	v.registeredCommands.forEach((a,b) -> {
-		// 		if (b.running){
-		// 			return;
-		// 		}
+			SubsystemCommand command = findCommand(next.name());
 
-		// 	});
-		// });
+			if ((lastSeries != null && lastSeries.running) || (command != null && isConflicting(command))) {
+				waitingCommand = next;
+				waitingCommandEnds = commandEnds.get();
+				return;
+			}
 
-		/**
-		 * If it is a sequential command, we can clear the list and then we add
-		 * the next sequential command.
-		 */
-		if (this.commandQueue.size() > 0 && (this.commandQueue.get(0).type().equals(CommandDetails.CommandType.SERIES))) {
-			System.out.println("series" + this.commandQueue.get(0).name());
+			log.debug("series {}", this.commandQueue.get(0).name());
 			callCommand(this.commandQueue.get(0));
+			lastSeries = command;
 			this.commandQueue.remove(0);
 		}
-
 	}
 
 	public void enable() {
@@ -276,20 +714,92 @@ public abstract class ControlsProcessor extends Thread {
 
 	// Append to the registered buttons and commands
     public void append(String command, JoystickButton button) {
-		operatorControls.add(new JoystickCommandPair(this, command, button));
+		getButtonBank(button).bind(new JoystickCommandPair(this, command, button));
     }
 
 	/**
-	 * Calls checkButton for every button on controller
+	 * Binds a command group to a button, the group starts when the button is pressed and is
+	 * interrupted when it is released. One group can be bound to several buttons.
+	 */
+	public void append(CommandGroup group, JoystickButton button) {
+		addGroup(group);
+		getButtonBank(button).bind(new JoystickCommandPair(this, group, button));
+	}
+
+	/**
+	 * Binds a command group to the controls processor without a button, so it can be started
+	 * from code and is moved on every iteration while it runs
+	 */
+	public void addGroup(CommandGroup group) {
+		group.compile(this);
+		if (!groups.contains(group)) {
+			groups.add(group);
+		}
+	}
+
+	/**
+	 * Finds the bank that reads the button, creating one for a new device
+	 * @param button Button in reference
+	 * @return Bank the button belongs to
+	 */
+	private ButtonBank getButtonBank(JoystickButton button) {
+		for (ButtonBank bank : buttonBanks) {
+			if (bank.accepts(button)) {
+				return bank;
+			}
+		}
+
+		ButtonBank bank;
+		if (button instanceof HIDButton) {
+			bank = new HIDButtonBank(((HIDButton) button).getJoystick());
+		} else if (button instanceof AxisButton) {
+			bank = new HIDButtonBank(((AxisButton) button).getJoystick());
+		} else {
+			bank = new ButtonBank();
+		}
+
+		buttonBanks.add(bank);
+		return bank;
+	}
+
+	/**
+	 * Reads every device once and dispatches the commands of the buttons that changed
 	 */
     public void checkButtons() {
-		operatorControls.forEach((k) -> k.checkButton());
+		for (int i = 0; i < buttonBanks.size(); i++) {
+			ButtonBank bank = buttonBanks.get(i);
+
+			if (replay != null && i < TelemetryRecorder.kRecordedButtonBanks) {
+				bank.poll(replay.getButtons(i));
+			} else {
+				bank.poll();
+			}
+
+			if (i < TelemetryRecorder.kRecordedButtonBanks) {
+				telemetry.setBits(TelemetryRecorder.buttonBankChannel(i), bank.getState());
+			}
+		}
+
+		if (launchpad != null) {
+			telemetry.set(TelemetryRecorder.Channel.BUTTON_PAD_STATE, launchpad.getConnectionState().ordinal());
+		}
     }
 
+	/**
+	 * Replaces the operator input with the button states of a recorded match
+	 * @param replay Recorded match, or null to go back to live input
+	 */
+	public void setReplay(SensorReplay replay) {
+		this.replay = replay;
+	}
+
 	/**
 	 * @return Returns left Joystick
 	 */
 	public double getLeftJoystick() {
+		if (xbox1 == null) {
+			return 0;
+		}
 		return xbox1.getRawAxis(1);
 	}
 
@@ -297,9 +807,19 @@ public abstract class ControlsProcessor extends Thread {
 	 * @return Returns right Joystick
 	 */
 	public double getRightJoystick() {
+		if (xbox1 == null) {
+			return 0;
+		}
 		return xbox1.getRawAxis(4);
 	}
 
+	/**
+	 * @return Returns the period subsystems run at in seconds
+	 */
+	public double getPeriod() {
+		return this.periodNanoseconds / 1000000000;
+	}
+
 	/**
 	 * @return Returns the command period with commandDivider in seconds
 	 */
@@ -0,0 +1,73 @@
+package frc.robot.util;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Thread that runs one partition of the subsystems for the controls processor. Each iteration the
+ * controls processor hands it the iteration number, runs its own partition, then waits until the
+ * worker reports the same number back. Everything the subsystems wrote before the hand-off is
+ * visible on the other side, so the command queue and telemetry can be processed after it as if
+ * the subsystems had run on one thread.
+ */
+class ControlsWorker extends Thread {
+
+	private static final Logger log = Logger.getLogger("ControlsWorker");
+
+	private final ControlsProcessor processor;
+	private final int partition;
+
+	// Thread waiting for the iteration to finish
+	private volatile Thread waiter;
+
+	// Iteration handed to the worker and the last one it finished
+	private volatile long started = -1;
+	private volatile long finished = -1;
+
+	ControlsWorker(ControlsProcessor processor, int partition) {
+		super("ControlsWorker " + partition);
+		setDaemon(true);
+		setPriority(Thread.MAX_PRIORITY);
+
+		this.processor = processor;
+		this.partition = partition;
+	}
+
+	/**
+	 * Starts the worker on an iteration, returns straight away
+	 */
+	void begin(long iteration) {
+		waiter = Thread.currentThread();
+		started = iteration;
+		LockSupport.unpark(this);
+	}
+
+	/**
+	 * Waits for the worker to finish the iteration given to begin
+	 */
+	void await(long iteration) {
+		while (finished != iteration) {
+			LockSupport.park(this);
+		}
+	}
+
+	@Override
+	public void run() {
+		long iteration = -1;
+
+		while (true) {
+			while (started == iteration) {
+				LockSupport.park(this);
+			}
+			iteration = started;
+
+			try {
+				processor.runPartition(partition, iteration);
+			} catch (RuntimeException e) {
+				log.error("Subsystem failed: {}", e);
+			}
+
+			finished = iteration;
+			LockSupport.unpark(waiter);
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package frc.robot.util;
+
+/**
+ * Running average of a motor's current draw, used by Intake to detect game pieces.
+ * Samples are kept in a ring so adding one doesn't allocate.
+ */
+public class CurrentFilter {
+
+	private final double[] currents;
+
+	// Slot of the newest current and number of currents stored
+	private int newest = 0;
+	private int count = 0;
+
+	private double average;
+
+	// Number of current values stored
+	private final int numberOfCurrents;
+
+	/**
+	 * @param numberOfCurrents Number of samples the average is taken over
+	 */
+	public CurrentFilter(int numberOfCurrents) {
+		this.numberOfCurrents = numberOfCurrents;
+		this.currents = new double[numberOfCurrents];
+	}
+
+	/**
+	 * Adds a current sample to the average
+	 * @param current Output current in amps, the sign is ignored
+	 * @return True once enough samples have been added for the average to be used
+	 */
+	public boolean add(double current) {
+		newest = (newest + 1) % numberOfCurrents;
+		currents[newest] = Math.abs(current);
+		count++;
+
+		if(count != numberOfCurrents) {
+			average += currents[newest] / numberOfCurrents;
+
+			return false;
+		}
+
+		// The ring is full, drop the oldest current which sits just past the newest
+		int oldest = (newest + 1) % numberOfCurrents;
+		average += (currents[newest] - currents[oldest]) / numberOfCurrents;
+		count--;
+
+		return true;
+	}
+
+	public double getAverage() {
+		return average;
+	}
+
+	/**
+	 * Clears the stored samples, called whenever the motor stops
+	 */
+	public void reset() {
+		count = 0;
+		average = 0;
+	}
+}
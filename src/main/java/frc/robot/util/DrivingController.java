@@ -4,6 +4,10 @@ import java.util.ArrayList;
 
 public abstract class DrivingController {
 
+	private static final Logger log = Logger.getLogger("DrivingController");
+
+	private TelemetryRecorder telemetry = TelemetryRecorder.getInstance();
+
 	/**
 	 * Controls the magnitude of angular correction
 	 * Corrects both the anglular and perpendicular error
@@ -97,6 +101,18 @@ public abstract class DrivingController {
 
 		// System.out.println("Ref Velocity: " + refVelocity);
 
+		MotionPose reference = controlPath.get(iterator);
+		telemetry.set(TelemetryRecorder.Channel.PATH_INDEX, iterator);
+		telemetry.set(TelemetryRecorder.Channel.REFERENCE_X, reference.x);
+		telemetry.set(TelemetryRecorder.Channel.REFERENCE_Y, reference.y);
+		telemetry.set(TelemetryRecorder.Channel.REFERENCE_ANGLE, reference.angle);
+		telemetry.set(TelemetryRecorder.Channel.REFERENCE_VELOCITY, refVelocity);
+		telemetry.set(TelemetryRecorder.Channel.ORTHOGONAL_ERROR, orthogonalError);
+		telemetry.set(TelemetryRecorder.Channel.TANGENTIAL_ERROR, tangentialError);
+		telemetry.set(TelemetryRecorder.Channel.ANGULAR_ERROR, angularError);
+		telemetry.set(TelemetryRecorder.Channel.SAMSON_OUTPUT, samsonOutput);
+		telemetry.set(TelemetryRecorder.Channel.TANGENTIAL_OUTPUT, tangentialOutput);
+
 		// Both +
 		driveRobot(refVelocity + tangentialOutput, samsonOutput);
 		// System.out.println(samsonOutput);
@@ -128,7 +144,7 @@ public abstract class DrivingController {
 		
 		SplineFactory nextSpline = new SplineFactory(this.period, x1, x2, x3, x4, y1, y2, y3, y4, acceleration, maxVelocity,
 			startVelocity, endVelocity, forwards);
-		System.out.println("Forwards : " + forwards);
+		log.info("Forwards : {}", forwards);
 	
 		controlPath.addAll(nextSpline.getSpline());
 
@@ -138,6 +154,52 @@ public abstract class DrivingController {
 
 	}
 
+	/**
+	 * Adds a spline driven forwards from the initial pose to the final pose
+	 * @param thetaInitial Initial heading in degrees
+	 * @param lInitial Distance of the second control point from the start
+	 * @param thetaFinal Final heading in degrees
+	 * @param lFinal Distance of the third control point from the end
+	 */
+	public void addForwardSpline(double xInitial, double yInitial, double thetaInitial, double lInitial,
+			double xFinal, double yFinal, double thetaFinal, double lFinal, double maxAcceleration,
+			double maxVelocity, double startVelocity, double endVelocity) {
+
+		thetaInitial = Math.toRadians(thetaInitial);
+		thetaFinal = Math.toRadians(thetaFinal);
+
+		double x2 = lInitial * Math.cos(thetaInitial) + xInitial;
+		double x3 = lFinal * Math.cos(thetaFinal + Math.PI) + xFinal;
+		double y2 = lInitial * Math.sin(thetaInitial) + yInitial;
+		double y3 = lFinal * Math.sin(thetaFinal + Math.PI) + yFinal;
+
+		addSpline(xInitial, x2, x3, xFinal, yInitial, y2, y3, yFinal,
+				maxAcceleration, maxVelocity, startVelocity, endVelocity, true);
+	}
+
+	/**
+	 * Adds a spline driven backwards from the initial pose to the final pose
+	 * @param thetaInitial Initial heading of the back of the robot in degrees
+	 * @param lInitial Distance of the second control point from the start
+	 * @param thetaFinal Final heading of the back of the robot in degrees
+	 * @param lFinal Distance of the third control point from the end
+	 */
+	public void addBackwardsSpline(double xInitial, double yInitial, double thetaInitial, double lInitial,
+			double xFinal, double yFinal, double thetaFinal, double lFinal, double maxAcceleration,
+			double maxVelocity, double startVelocity, double endVelocity) {
+
+		thetaInitial = Math.toRadians(thetaInitial);
+		thetaFinal = Math.toRadians(thetaFinal);
+
+		double x2 = lInitial * Math.cos(thetaInitial + Math.PI) + xInitial;
+		double x3 = lFinal * Math.cos(thetaFinal) + xFinal;
+		double y2 = lInitial * Math.sin(thetaInitial + Math.PI) + yInitial;
+		double y3 = lFinal * Math.sin(thetaFinal) + yFinal;
+
+		addSpline(xInitial, x2, x3, xFinal, yInitial, y2, y3, yFinal,
+				maxAcceleration, maxVelocity, startVelocity, endVelocity, false);
+	}
+
 	public double getAngleValues(){
 		return currentAngle;
 		
@@ -0,0 +1,27 @@
+package frc.robot.util;
+
+import edu.wpi.first.wpilibj.Joystick;
+import edu.wpi.first.wpilibj.buttons.JoystickButton;
+
+/**
+ * JoystickButton that remembers its joystick and number so it can be read through a HIDButtonBank
+ */
+public class HIDButton extends JoystickButton {
+
+	private Joystick joystick;
+	private int number;
+
+	public HIDButton(Joystick joystick, int number) {
+		super(joystick, number);
+		this.joystick = joystick;
+		this.number = number;
+	}
+
+	public Joystick getJoystick() {
+		return joystick;
+	}
+
+	public int getNumber() {
+		return number;
+	}
+}
@@ -0,0 +1,109 @@
+package frc.robot.util;
+
+import java.util.ArrayList;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Joystick;
+import edu.wpi.first.wpilibj.buttons.JoystickButton;
+
+/**
+ * Button bank for a driver station joystick. All of the digital buttons are read with
+ * a single DriverStation call, axis buttons are packed above them in the mask.
+ */
+public class HIDButtonBank extends ButtonBank {
+
+	// Digital buttons take the low bits, button n is bit n - 1
+	private static final int kMaxHIDButtons = 32;
+
+	private Joystick joystick;
+
+	private ArrayList<AxisButton> axisButtons = new ArrayList<AxisButton>();
+
+	// Distinct axes used by the axis buttons, each is read once per poll
+	private int[] axes = new int[0];
+	private double[] axisValues = new double[0];
+
+	public HIDButtonBank(Joystick joystick) {
+		this.joystick = joystick;
+	}
+
+	@Override
+	public boolean accepts(JoystickButton button) {
+		if (button instanceof HIDButton) {
+			return ((HIDButton) button).getJoystick() == joystick;
+		}
+		if (button instanceof AxisButton) {
+			return ((AxisButton) button).getJoystick() == joystick
+					&& (axisButtons.contains(button) || axisButtons.size() < kMaxButtons - kMaxHIDButtons);
+		}
+		return false;
+	}
+
+	@Override
+	protected int bitFor(JoystickButton button) {
+		if (button instanceof HIDButton) {
+			int number = ((HIDButton) button).getNumber();
+
+			if (number < 1 || number > kMaxHIDButtons) {
+				throw new IllegalArgumentException("Button number out of range: " + number);
+			}
+			return number - 1;
+		}
+
+		AxisButton axisButton = (AxisButton) button;
+		int index = axisButtons.indexOf(axisButton);
+
+		if (index < 0) {
+			axisButtons.add(axisButton);
+			index = axisButtons.size() - 1;
+			addAxis(axisButton.getAxis());
+		}
+		return kMaxHIDButtons + index;
+	}
+
+	private void addAxis(int axis) {
+		for (int i = 0; i < axes.length; i++) {
+			if (axes[i] == axis) {
+				return;
+			}
+		}
+
+		int[] newAxes = new int[axes.length + 1];
+		System.arraycopy(axes, 0, newAxes, 0, axes.length);
+		newAxes[axes.length] = axis;
+
+		axes = newAxes;
+		axisValues = new double[axes.length];
+	}
+
+	private double getAxisValue(int axis) {
+		for (int i = 0; i < axes.length; i++) {
+			if (axes[i] == axis) {
+				return axisValues[i];
+			}
+		}
+		return 0;
+	}
+
+	@Override
+	protected long read() {
+		long state = DriverStation.getInstance().getStickButtons(joystick.getPort()) & 0xFFFFFFFFL;
+
+		if (axisButtons.isEmpty()) {
+			return state;
+		}
+
+		for (int i = 0; i < axes.length; i++) {
+			axisValues[i] = joystick.getRawAxis(axes[i]);
+		}
+
+		for (int i = 0; i < axisButtons.size(); i++) {
+			AxisButton axisButton = axisButtons.get(i);
+
+			if (axisButton.isPressed(getAxisValue(axisButton.getAxis()))) {
+				state |= 1L << (kMaxHIDButtons + i);
+			}
+		}
+		return state;
+	}
+}
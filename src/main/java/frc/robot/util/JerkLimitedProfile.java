@@ -0,0 +1,192 @@
+package frc.robot.util;
+
+/**
+ * Time optimal rest to rest motion for one joint with limited velocity, acceleration and jerk.
+ * The profile is the usual seven segment s-curve: jerk up, constant acceleration, jerk down,
+ * cruise, then the same mirrored to stop at the end position.
+ *
+ * Sampling stores the result in the profile instead of returning an object so it can be called
+ * every tick without allocating.
+ */
+public class JerkLimitedProfile {
+
+	private final double maxVelocity;
+	private final double maxAcceleration;
+	private final double maxJerk;
+
+	private double start;
+	private double distance;
+	private double direction;
+
+	// Jerk time, acceleration phase time and cruise time of the fastest profile
+	private double jerkTime;
+	private double accelerationTime;
+	private double cruiseTime;
+
+	// Peak acceleration and velocity actually reached
+	private double peakAcceleration;
+	private double peakVelocity;
+
+	private double minimumDuration;
+
+	// Stretching the profile in time keeps its shape, 1 runs it as fast as possible
+	private double timeScale = 1;
+
+	private double position;
+	private double velocity;
+	private double acceleration;
+
+	/**
+	 * @param maxVelocity Units per second
+	 * @param maxAcceleration Units per second squared
+	 * @param maxJerk Units per second cubed
+	 */
+	public JerkLimitedProfile(double maxVelocity, double maxAcceleration, double maxJerk) {
+		this.maxVelocity = maxVelocity;
+		this.maxAcceleration = maxAcceleration;
+		this.maxJerk = maxJerk;
+	}
+
+	/**
+	 * Plans the fastest move between two positions, starting and ending at rest
+	 */
+	public void plan(double start, double end) {
+		this.start = start;
+		this.distance = Math.abs(end - start);
+		this.direction = end >= start ? 1 : -1;
+		this.timeScale = 1;
+
+		if (distance == 0) {
+			jerkTime = accelerationTime = cruiseTime = 0;
+			peakAcceleration = peakVelocity = 0;
+			minimumDuration = 0;
+			sample(0);
+			return;
+		}
+
+		// Acceleration phase that reaches the velocity limit
+		if (maxVelocity * maxJerk >= maxAcceleration * maxAcceleration) {
+			jerkTime = maxAcceleration / maxJerk;
+			accelerationTime = jerkTime + maxVelocity / maxAcceleration;
+		} else {
+			jerkTime = Math.sqrt(maxVelocity / maxJerk);
+			accelerationTime = 2 * jerkTime;
+		}
+		cruiseTime = distance / maxVelocity - accelerationTime;
+
+		// Too short to reach the velocity limit, accelerate then decelerate straight away
+		if (cruiseTime < 0) {
+			cruiseTime = 0;
+
+			if (distance >= 2 * Math.pow(maxAcceleration, 3) / (maxJerk * maxJerk)) {
+				jerkTime = maxAcceleration / maxJerk;
+				accelerationTime = jerkTime / 2 + Math.sqrt(jerkTime * jerkTime / 4 + distance / maxAcceleration);
+			} else {
+				jerkTime = Math.cbrt(distance / (2 * maxJerk));
+				accelerationTime = 2 * jerkTime;
+			}
+		}
+
+		peakAcceleration = maxJerk * jerkTime;
+		peakVelocity = peakAcceleration * (accelerationTime - jerkTime);
+		minimumDuration = 2 * accelerationTime + cruiseTime;
+
+		sample(0);
+	}
+
+	/**
+	 * @return Time the fastest profile takes in seconds
+	 */
+	public double getMinimumDuration() {
+		return minimumDuration;
+	}
+
+	/**
+	 * Slows the profile down to take the given time, used to make several joints arrive together.
+	 * Slowing down by a factor k divides velocity by k, acceleration by k^2 and jerk by k^3 so the
+	 * limits still hold.
+	 * @param duration Seconds, durations shorter than the fastest profile are ignored
+	 */
+	public void setDuration(double duration) {
+		timeScale = minimumDuration > 0 ? Math.max(1, duration / minimumDuration) : 1;
+	}
+
+	/**
+	 * @return Seconds the planned profile takes
+	 */
+	public double getDuration() {
+		return minimumDuration * timeScale;
+	}
+
+	/**
+	 * Evaluates the profile, read the result with getPosition, getVelocity and getAcceleration
+	 * @param time Seconds since the start of the move, clamped to the profile
+	 */
+	public void sample(double time) {
+		// Time on the fastest profile
+		double t = Math.max(0, Math.min(time / timeScale, minimumDuration));
+
+		double p, v, a;
+		if (t <= accelerationTime) {
+			p = acceleratingPosition(t);
+			v = acceleratingVelocity(t);
+			a = acceleratingAcceleration(t);
+		} else if (t <= accelerationTime + cruiseTime) {
+			p = acceleratingPosition(accelerationTime) + peakVelocity * (t - accelerationTime);
+			v = peakVelocity;
+			a = 0;
+		} else {
+			// Deceleration mirrors the acceleration phase about the end of the move
+			double remaining = minimumDuration - t;
+			p = distance - acceleratingPosition(remaining);
+			v = acceleratingVelocity(remaining);
+			a = -acceleratingAcceleration(remaining);
+		}
+
+		position = start + direction * p;
+		velocity = direction * v / timeScale;
+		acceleration = direction * a / (timeScale * timeScale);
+	}
+
+	private double acceleratingAcceleration(double t) {
+		if (t < jerkTime) {
+			return maxJerk * t;
+		} else if (t < accelerationTime - jerkTime) {
+			return peakAcceleration;
+		}
+		return maxJerk * (accelerationTime - t);
+	}
+
+	private double acceleratingVelocity(double t) {
+		if (t < jerkTime) {
+			return maxJerk * t * t / 2;
+		} else if (t < accelerationTime - jerkTime) {
+			return maxJerk * jerkTime * jerkTime / 2 + peakAcceleration * (t - jerkTime);
+		}
+		double r = accelerationTime - t;
+		return peakVelocity - maxJerk * r * r / 2;
+	}
+
+	private double acceleratingPosition(double t) {
+		if (t < jerkTime) {
+			return maxJerk * t * t * t / 6;
+		} else if (t < accelerationTime - jerkTime) {
+			double s = t - jerkTime;
+			return maxJerk * jerkTime * jerkTime * jerkTime / 6 + maxJerk * jerkTime * jerkTime / 2 * s + peakAcceleration * s * s / 2;
+		}
+		double r = accelerationTime - t;
+		return peakVelocity * accelerationTime / 2 - peakVelocity * r + maxJerk * r * r * r / 6;
+	}
+
+	public double getPosition() {
+		return position;
+	}
+
+	public double getVelocity() {
+		return velocity;
+	}
+
+	public double getAcceleration() {
+		return acceleration;
+	}
+}
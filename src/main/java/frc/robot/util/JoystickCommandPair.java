@@ -9,6 +9,9 @@ public class JoystickCommandPair {
     
     // Contains the details about the command that you are binding to the button
     private CommandDetails commandDetails;
+
+    // Group started instead of the command, null for a single command
+    private CommandGroup group;
  
     // Instance of a ControlsProcessor 
     private ControlsProcessor controlsProcessor;
@@ -16,6 +19,9 @@ public class JoystickCommandPair {
     // Save previous state to call only when on edge.
     private boolean lastState = false;
 
+    // Bit of the button in its ButtonBank
+    private int bit;
+
     /**
      * @param controlsProcessor The current ControlsProcessor object in reference
      * @param commandInput The whole command string appended
@@ -28,10 +34,38 @@ public class JoystickCommandPair {
     }
 
     /**
-     * Called periodically to check for button edges 
+     * @param controlsProcessor The current ControlsProcessor object in reference
+     * @param group Group started while the button is held
+     * @param buttonToPair The button to pair the group with
+     */
+    public JoystickCommandPair(ControlsProcessor controlsProcessor, CommandGroup group, JoystickButton buttonToPair) {
+        this.button = buttonToPair;
+        this.group = group;
+        this.controlsProcessor = controlsProcessor;
+    }
+
+    /**
+     * Reads the button and checks for edges
      */
     public void checkButton() {
-        boolean currentState = this.button.get();
+        update(this.button.get());
+    }
+
+    /**
+     * Called with the button state read by the owning ButtonBank
+     * @param currentState True if the button is pressed
+     */
+    public void update(boolean currentState) {
+        if (this.group != null) {
+            if (currentState && !this.lastState) {
+                this.group.start();
+            } else if (!currentState && this.lastState) {
+                this.group.cancel();
+            }
+
+            this.lastState = currentState;
+            return;
+        }
 
         if (currentState && !this.lastState) {
             controlsProcessor.callCommand(this.commandDetails);
@@ -44,4 +78,16 @@ public class JoystickCommandPair {
 
         this.lastState = currentState;
     }
-}
\ No newline at end of file
+
+    public JoystickButton getButton() {
+        return button;
+    }
+
+    int getBit() {
+        return bit;
+    }
+
+    void setBit(int bit) {
+        this.bit = bit;
+    }
+}
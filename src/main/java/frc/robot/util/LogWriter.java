@@ -0,0 +1,264 @@
+package frc.robot.util;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free ring buffer of fixed-size log records. Producers (the controls processor thread,
+ * the websocket thread, ...) only copy primitives and references into a preallocated slot,
+ * a background thread formats the records and writes them to the log file.
+ */
+public class LogWriter extends Thread {
+
+	// Directory the log files get written to on the roboRIO
+	private static final String kLogDirectory = "/home/lvuser/logs";
+
+	// Must be a power of two
+	private static final int kCapacity = 4096;
+
+	// Maximum number of object and double arguments per record
+	static final int kMaxReferences = 2;
+	static final int kMaxArgs = 4;
+
+	/**
+	 * One preallocated log record
+	 */
+	private static class Slot {
+		volatile long sequence;
+
+		long timestamp;
+		Logger logger;
+		Logger.Level level;
+		String message;
+		int referenceCount;
+		Object[] references = new Object[kMaxReferences];
+		int argCount;
+		double[] args = new double[kMaxArgs];
+	}
+
+	private final Slot[] slots = new Slot[kCapacity];
+	private final int mask = kCapacity - 1;
+
+	// Next sequence to be claimed by a producer
+	private final AtomicLong head = new AtomicLong(0);
+
+	// Next sequence to be read by the writer thread
+	private long tail = 0;
+
+	private final AtomicLong dropped = new AtomicLong(0);
+	private long reportedDrops = 0;
+
+	private final long startTime = System.nanoTime();
+
+	private volatile Logger.Level consoleLevel = Logger.Level.INFO;
+
+	private Writer file;
+	private PrintStream console = System.out;
+	private StringBuilder line = new StringBuilder(256);
+
+	LogWriter() {
+		super("LogWriter");
+		setDaemon(true);
+		setPriority(Thread.MIN_PRIORITY);
+
+		for (int i = 0; i < kCapacity; i++) {
+			slots[i] = new Slot();
+			slots[i].sequence = i;
+		}
+
+		file = openLogFile();
+	}
+
+	private Writer openLogFile() {
+		File directory = new File(kLogDirectory);
+
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			return null;
+		}
+
+		String name = "robot_" + new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date()) + ".log";
+
+		try {
+			return new BufferedWriter(new FileWriter(new File(directory, name)));
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Records at or above this level are also printed to the console by the writer thread
+	 * @param level Console level
+	 */
+	public void setConsoleLevel(Logger.Level level) {
+		consoleLevel = level;
+	}
+
+	/**
+	 * @return Number of records dropped because the ring buffer was full
+	 */
+	public long getDroppedCount() {
+		return dropped.get();
+	}
+
+	/**
+	 * Copies a record into the ring buffer, never blocks
+	 * @return False if the buffer was full and the record got dropped
+	 */
+	boolean offer(Logger logger, Logger.Level level, String message, int referenceCount, Object reference0,
+			Object reference1, int argCount, double arg0, double arg1, double arg2, double arg3) {
+		Slot slot;
+		long sequence;
+
+		while (true) {
+			sequence = head.get();
+			slot = slots[(int) (sequence & mask)];
+			long difference = slot.sequence - sequence;
+
+			if (difference == 0) {
+				if (head.compareAndSet(sequence, sequence + 1)) {
+					break;
+				}
+			} else if (difference < 0) {
+				dropped.incrementAndGet();
+				return false;
+			}
+		}
+
+		slot.timestamp = System.nanoTime();
+		slot.logger = logger;
+		slot.level = level;
+		slot.message = message;
+		slot.referenceCount = referenceCount;
+		slot.references[0] = reference0;
+		slot.references[1] = reference1;
+		slot.argCount = argCount;
+		slot.args[0] = arg0;
+		slot.args[1] = arg1;
+		slot.args[2] = arg2;
+		slot.args[3] = arg3;
+
+		// Publishes the record to the writer thread
+		slot.sequence = sequence + 1;
+		return true;
+	}
+
+	@Override
+	public void run() {
+		while (true) {
+			boolean wrote = false;
+
+			while (drainOne()) {
+				wrote = true;
+			}
+
+			long droppedNow = dropped.get();
+			if (droppedNow != reportedDrops) {
+				write("[LogWriter] dropped " + (droppedNow - reportedDrops) + " records\n", true);
+				reportedDrops = droppedNow;
+			}
+
+			if (wrote) {
+				flush();
+			}
+
+			try {
+				Thread.sleep(20);
+			} catch (InterruptedException e) {
+				flush();
+				return;
+			}
+		}
+	}
+
+	private boolean drainOne() {
+		Slot slot = slots[(int) (tail & mask)];
+
+		if (slot.sequence != tail + 1) {
+			return false;
+		}
+
+		format(slot);
+		Logger.Level level = slot.level;
+
+		// Releases the slot for reuse
+		slot.logger = null;
+		slot.references[0] = null;
+		slot.references[1] = null;
+		slot.sequence = tail + kCapacity;
+		tail++;
+
+		write(line.toString(), level.ordinal() >= consoleLevel.ordinal());
+		return true;
+	}
+
+	/**
+	 * Formats the record into the line buffer, each {} consumes the next argument with the
+	 * references first followed by the doubles. Whole doubles are written without a fraction,
+	 * so counts passed as doubles read as integers.
+	 */
+	private void format(Slot slot) {
+		line.setLength(0);
+		line.append('[').append(String.format("%9.3f", (slot.timestamp - startTime) / 1e9)).append("] ");
+		line.append(slot.level).append(' ').append(slot.logger.getName()).append(": ");
+
+		int nextArg = -slot.referenceCount;
+		String message = slot.message;
+		int start = 0;
+		int placeholder;
+
+		while ((placeholder = message.indexOf("{}", start)) >= 0) {
+			line.append(message, start, placeholder);
+
+			if (nextArg < 0) {
+				line.append(slot.references[slot.referenceCount + nextArg]);
+			} else if (nextArg < slot.argCount) {
+				appendDouble(slot.args[nextArg]);
+			} else {
+				line.append("{}");
+			}
+
+			nextArg++;
+			start = placeholder + 2;
+		}
+		line.append(message, start, message.length()).append('\n');
+	}
+
+	private void appendDouble(double value) {
+		if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+			line.append((long) value);
+		} else {
+			line.append(value);
+		}
+	}
+
+	private void write(String text, boolean toConsole) {
+		if (toConsole || file == null) {
+			console.print(text);
+		}
+
+		if (file != null) {
+			try {
+				file.write(text);
+			} catch (IOException e) {
+				file = null;
+			}
+		}
+	}
+
+	private void flush() {
+		if (file != null) {
+			try {
+				file.flush();
+			} catch (IOException e) {
+				file = null;
+			}
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package frc.robot.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Named logger with a level that can be changed at runtime. Calls never block or allocate,
+ * the message is a constant with {} placeholders that gets formatted on the LogWriter thread.
+ *
+ * ex: log.debug("velocity setpoint: {}", velocitySetpoint);
+ */
+public class Logger {
+
+	public enum Level {
+		DEBUG,
+		INFO,
+		WARN,
+		ERROR,
+		OFF
+	}
+
+	private static final ConcurrentHashMap<String, Logger> loggers = new ConcurrentHashMap<String, Logger>();
+
+	// Starts the writer thread the first time anything gets logged
+	private static class WriterHolder {
+		static final LogWriter writer = start();
+
+		private static LogWriter start() {
+			LogWriter writer = new LogWriter();
+			writer.start();
+			return writer;
+		}
+	}
+
+	private final String name;
+	private volatile Level level = Level.INFO;
+
+	private Logger(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @param name Name of the subsystem
+	 * @return The logger shared by everything using this name
+	 */
+	public static Logger getLogger(String name) {
+		Logger logger = loggers.get(name);
+
+		if (logger == null) {
+			loggers.putIfAbsent(name, new Logger(name));
+			logger = loggers.get(name);
+		}
+		return logger;
+	}
+
+	/**
+	 * Changes the level of a subsystem while the robot is running
+	 * @param name Name of the subsystem
+	 * @param level Lowest level that still gets recorded
+	 */
+	public static void setLevel(String name, Level level) {
+		getLogger(name).level = level;
+	}
+
+	/**
+	 * Records at or above this level are printed to the console as well as the log file
+	 * @param level Console level
+	 */
+	public static void setConsoleLevel(Level level) {
+		WriterHolder.writer.setConsoleLevel(level);
+	}
+
+	/**
+	 * @return Number of records dropped because the writer thread fell behind
+	 */
+	public static long getDroppedCount() {
+		return WriterHolder.writer.getDroppedCount();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Level getLevel() {
+		return level;
+	}
+
+	public boolean isEnabled(Level level) {
+		return level.ordinal() >= this.level.ordinal();
+	}
+
+	private void log(Level level, String message, int referenceCount, Object reference0, Object reference1,
+			int argCount, double arg0, double arg1, double arg2, double arg3) {
+		if (isEnabled(level)) {
+			WriterHolder.writer.offer(this, level, message, referenceCount, reference0, reference1,
+					argCount, arg0, arg1, arg2, arg3);
+		}
+	}
+
+	public void log(Level level, String message) {
+		log(level, message, 0, null, null, 0, 0, 0, 0, 0);
+	}
+
+	public void log(Level level, String message, Object reference) {
+		log(level, message, 1, reference, null, 0, 0, 0, 0, 0);
+	}
+
+	public void log(Level level, String message, Object reference0, Object reference1) {
+		log(level, message, 2, reference0, reference1, 0, 0, 0, 0, 0);
+	}
+
+	public void log(Level level, String message, double arg0) {
+		log(level, message, 0, null, null, 1, arg0, 0, 0, 0);
+	}
+
+	public void log(Level level, String message, double arg0, double arg1) {
+		log(level, message, 0, null, null, 2, arg0, arg1, 0, 0);
+	}
+
+	public void log(Level level, String message, double arg0, double arg1, double arg2) {
+		log(level, message, 0, null, null, 3, arg0, arg1, arg2, 0);
+	}
+
+	public void log(Level level, String message, double arg0, double arg1, double arg2, double arg3) {
+		log(level, message, 0, null, null, 4, arg0, arg1, arg2, arg3);
+	}
+
+	public void log(Level level, String message, Object reference, double arg0) {
+		log(level, message, 1, reference, null, 1, arg0, 0, 0, 0);
+	}
+
+	public void log(Level level, String message, Object reference, double arg0, double arg1) {
+		log(level, message, 1, reference, null, 2, arg0, arg1, 0, 0);
+	}
+
+	public void debug(String message) { log(Level.DEBUG, message); }
+	public void debug(String message, Object reference) { log(Level.DEBUG, message, reference); }
+	public void debug(String message, double arg0) { log(Level.DEBUG, message, arg0); }
+	public void debug(String message, double arg0, double arg1) { log(Level.DEBUG, message, arg0, arg1); }
+	public void debug(String message, double arg0, double arg1, double arg2) { log(Level.DEBUG, message, arg0, arg1, arg2); }
+	public void debug(String message, double arg0, double arg1, double arg2, double arg3) { log(Level.DEBUG, message, arg0, arg1, arg2, arg3); }
+	public void debug(String message, Object reference, double arg0) { log(Level.DEBUG, message, reference, arg0); }
+	public void debug(String message, Object reference, double arg0, double arg1) { log(Level.DEBUG, message, reference, arg0, arg1); }
+	public void debug(String message, Object reference0, Object reference1) { log(Level.DEBUG, message, reference0, reference1); }
+
+	public void info(String message) { log(Level.INFO, message); }
+	public void info(String message, Object reference) { log(Level.INFO, message, reference); }
+	public void info(String message, double arg0) { log(Level.INFO, message, arg0); }
+	public void info(String message, double arg0, double arg1) { log(Level.INFO, message, arg0, arg1); }
+	public void info(String message, double arg0, double arg1, double arg2) { log(Level.INFO, message, arg0, arg1, arg2); }
+	public void info(String message, double arg0, double arg1, double arg2, double arg3) { log(Level.INFO, message, arg0, arg1, arg2, arg3); }
+	public void info(String message, Object reference, double arg0) { log(Level.INFO, message, reference, arg0); }
+	public void info(String message, Object reference, double arg0, double arg1) { log(Level.INFO, message, reference, arg0, arg1); }
+	public void info(String message, Object reference0, Object reference1) { log(Level.INFO, message, reference0, reference1); }
+
+	public void warn(String message) { log(Level.WARN, message); }
+	public void warn(String message, Object reference) { log(Level.WARN, message, reference); }
+	public void warn(String message, double arg0) { log(Level.WARN, message, arg0); }
+	public void warn(String message, double arg0, double arg1) { log(Level.WARN, message, arg0, arg1); }
+	public void warn(String message, Object reference0, Object reference1) { log(Level.WARN, message, reference0, reference1); }
+
+	public void error(String message) { log(Level.ERROR, message); }
+	public void error(String message, Object reference) { log(Level.ERROR, message, reference); }
+	public void error(String message, Object reference0, Object reference1) { log(Level.ERROR, message, reference0, reference1); }
+}
@@ -2,6 +2,11 @@ package frc.robot.util;
 
 public abstract class Odometer {
 
+	private static final Logger log = Logger.getLogger("Odometer");
+
+	private TelemetryRecorder telemetry = TelemetryRecorder.getInstance();
+	private int resetCount = 0;
+
 	protected double headingAngle;
 	private double startOffset = 0;
 
@@ -35,6 +40,17 @@ public abstract class Odometer {
 		current_x = 0;
 		current_y = 0;
 		headingAngle = 90;
+		recordReset();
+	}
+
+	/**
+	 * Records position resets so a replayed match can apply them on the same tick
+	 */
+	private void recordReset() {
+		resetCount++;
+		telemetry.set(TelemetryRecorder.Channel.ODOMETER_RESET_COUNT, resetCount);
+		telemetry.set(TelemetryRecorder.Channel.ODOMETER_RESET_X, current_x);
+		telemetry.set(TelemetryRecorder.Channel.ODOMETER_RESET_Y, current_y);
 	}
 
 	/**
@@ -82,6 +98,7 @@ public abstract class Odometer {
 	public void setOffset(double offset) {
 
 		startOffset = offset;
+		telemetry.set(TelemetryRecorder.Channel.ODOMETER_OFFSET, offset);
 	}
 
 	public double getCurrentX() {
@@ -95,6 +112,7 @@ public abstract class Odometer {
 	public void setCurrentPosition(double inputX, double inputY) {
 		current_x = inputX;
 		current_y = inputY;
+		recordReset();
 	}
 
 	public double getHeadingAngle() {
@@ -106,10 +124,10 @@ public abstract class Odometer {
 	}
 
 	public void printEncoderPosition() {
-		System.out.println("LE: " + leftPos + " RE: " + rightPos);
+		log.info("LE: {} RE: {}", leftPos, rightPos);
 	}
 
 	public void printOdometerPosition() {
-		System.out.println("X: " + current_x + " Y: " + current_y);
+		log.info("X: {} Y: {}", current_x, current_y);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package frc.robot.util;
+
+/**
+ * Parts of the robot a command can require. Two commands that require the same resource can't
+ * run at the same time, starting one interrupts the other.
+ */
+public enum Resource {
+	DRIVETRAIN,
+	ARM,
+	INTAKE,
+	CLIMBER,
+	LIMELIGHT;
+
+	/**
+	 * @return Bit of the resource in a command's requirements
+	 */
+	public int bit() {
+		return 1 << ordinal();
+	}
+}
@@ -0,0 +1,122 @@
+package frc.robot.util;
+
+/**
+ * Steps through a recorded telemetry file one controls processor tick at a time,
+ * handing the recorded sensor and button values back to the code that read them.
+ */
+public class SensorReplay {
+
+	private TelemetryReader reader;
+
+	// Column of each channel in the file, -1 if the file was recorded before the channel existed
+	private int[] columns;
+
+	private int row = -1;
+
+	// Play back at the recorded rate instead of as fast as possible
+	private boolean realTime = false;
+	private long playbackStart;
+
+	/**
+	 * @param reader Recorded match
+	 */
+	public SensorReplay(TelemetryReader reader) {
+		this.reader = reader;
+
+		TelemetryRecorder.Channel[] channels = TelemetryRecorder.Channel.values();
+		columns = new int[channels.length];
+		for (int i = 0; i < channels.length; i++) {
+			columns[i] = reader.getColumn(channels[i].name());
+		}
+	}
+
+	/**
+	 * @param realTime True to wait for each row's recorded time before returning it
+	 */
+	public void setRealTime(boolean realTime) {
+		this.realTime = realTime;
+	}
+
+	/**
+	 * Moves to the next recorded tick
+	 * @return False once every row has been replayed
+	 */
+	public boolean next() {
+		if (row + 1 >= reader.getRowCount()) {
+			return false;
+		}
+		row++;
+
+		if (realTime) {
+			if (row == 0) {
+				playbackStart = System.nanoTime() - (long) (getTimestamp() * 1e9);
+			}
+
+			long due = playbackStart + (long) (getTimestamp() * 1e9);
+			long remaining;
+			while ((remaining = due - System.nanoTime()) > 0) {
+				try {
+					Thread.sleep(remaining / 1000000, (int) (remaining % 1000000));
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	public int getRow() {
+		return row;
+	}
+
+	public int getRowCount() {
+		return reader.getRowCount();
+	}
+
+	/**
+	 * @return Recorded time of the current row in seconds
+	 */
+	public double getTimestamp() {
+		return reader.getTimestamp(row);
+	}
+
+	/**
+	 * @return True if the file contains the channel
+	 */
+	public boolean has(TelemetryRecorder.Channel channel) {
+		return columns[channel.ordinal()] >= 0;
+	}
+
+	/**
+	 * @return Value of the channel in the current row, 0 if it wasn't recorded
+	 */
+	public double get(TelemetryRecorder.Channel channel) {
+		int column = columns[channel.ordinal()];
+		return column < 0 ? 0 : reader.get(column, row);
+	}
+
+	public boolean getBoolean(TelemetryRecorder.Channel channel) {
+		return get(channel) != 0;
+	}
+
+	/**
+	 * @return True if the channel's value differs from the previous row
+	 */
+	public boolean changed(TelemetryRecorder.Channel channel) {
+		int column = columns[channel.ordinal()];
+		if (column < 0 || row == 0) {
+			return false;
+		}
+		return Double.doubleToRawLongBits(reader.get(column, row)) != Double.doubleToRawLongBits(reader.get(column, row - 1));
+	}
+
+	/**
+	 * @param bank Index of the bank in the order they were registered
+	 * @return Recorded button state mask of the bank
+	 */
+	public long getButtons(int bank) {
+		int column = columns[TelemetryRecorder.buttonBankChannel(bank).ordinal()];
+		return column < 0 ? 0 : reader.getBits(column, row);
+	}
+}
@@ -3,6 +3,8 @@ package frc.robot.util;
 import java.util.ArrayList;
 
 public class SplineFactory {
+    private static final Logger log = Logger.getLogger("SplineFactory");
+
     private double x1, x2, x3, x4, y1, y2, y3, y4, acceleration, velocity;
     private double currentFrontVelocity, currentBackVelocity;
     private boolean forwards;
@@ -87,7 +89,7 @@ public class SplineFactory {
         xValues.add(placement - 1, (xValues.get(placement - 1) + xValues.get(placement - 2)) / 2);
         yValues.add(placement - 1, (yValues.get(placement - 1) + yValues.get(placement - 2)) / 2);
 
-        System.out.println("Done");
+        log.debug("Done");
 
         // Calculates the MotionPoses and adds them to the array list
         for (int i = 0; i < xValues.size() - 1; i++) {
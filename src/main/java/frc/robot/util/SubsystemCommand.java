@@ -2,86 +2,138 @@ package frc.robot.util;
 
 import java.util.HashMap;
 
-import edu.wpi.first.wpilibj.Timer;
-
 public abstract class SubsystemCommand {
 
+    /**
+     * Told when a command ends, on the thread that ended it
+     */
+    public interface EndListener {
+        /**
+         * @param interrupted True if the command was cancelled rather than finishing
+         */
+        void ended(SubsystemCommand command, boolean interrupted);
+    }
+
     // Store the name of the command and the number of parameters passed into the command
     private String commandName;
 
     protected boolean firstRun = false;
     protected boolean running = false;
 
-    private double delay = 0; // TODO: Test
-    private Timer delayTimer;
+    // Seconds after being called that the command is ended, 0 for none
+    private double timeout = 0;
+    private boolean timedOut = false;
+
+    // Number of times the command has been called and the call the timeout was set for
+    private int calls = 0;
+    private int timeoutCall;
+
+    private final TimerWheel.Task timeoutTask = new TimerWheel.Task() {
+        @Override
+        public void expired() {
+            if (running && calls == timeoutCall) {
+                timedOut = true;
+                stop(false);
+            }
+        }
+    };
 
     protected String[] args;
 
+    // Resources the command uses, a bit per resource
+    private int requirements = 0;
+
+    // Restarted once the command that interrupted it ends
+    private boolean resumable = false;
+
+    private EndListener[] endListeners = new EndListener[0];
+
     /**
      * Constructor for the command
      * @param commands Hashmap to add itself onto
      * @param commandName The name of the command
+     * @param requirements Resources the command uses, starting it interrupts other commands using them
      */
-    public SubsystemCommand(HashMap<String, SubsystemCommand> commands, String commandName) {
+    public SubsystemCommand(HashMap<String, SubsystemCommand> commands, String commandName, Resource... requirements) {
         this.commandName = commandName;
-        this.delayTimer = new Timer();
         commands.put(this.commandName, this);
+
+        for (Resource resource : requirements) {
+            this.requirements |= resource.bit();
+        }
     }
 
     public boolean getRunning(){
         return running;
     }
+
     /**
-     * TODO: Test
-     * @param delay Delay in seconds before calling a command
+     * @return Bits of the resources the command uses
      */
-    public void configureDelay(double delay) {
-        this.delay = delay;
+    public int getRequirements() {
+        return requirements;
+    }
 
-        if (this.delay > 0) {
-            this.delayTimer.start();
-        }
+    /**
+     * @return True if both commands use one of the same resources
+     */
+    public boolean conflictsWith(SubsystemCommand other) {
+        return (requirements & other.requirements) != 0;
+    }
+
+    /**
+     * Makes the command start again once the command that interrupted it ends, for commands
+     * the driver expects to keep running such as driver control
+     */
+    public void setResumable(boolean resumable) {
+        this.resumable = resumable;
+    }
 
+    public boolean isResumable() {
+        return resumable;
     }
 
     /**
-     *
-     * @return returns command name
+     * Ends the command once it has run for this long, whether or not isFinished returns true.
+     * Takes effect from the next call, or from this one when set in initialize
+     * @param timeout Seconds after the call, 0 for no timeout
      */
-    public String getName() {
-        return this.commandName;
+    public void setTimeout(double timeout) {
+        this.timeout = timeout;
     }
 
     /**
-     * Gets called instead of execute until the delay expires
-     * @return True if delay is expired
+     * @return True if the last run of the command was ended by its timeout
      */
-    public boolean checkDelayExpired() {
-        if (this.delay == 0) {
-            return true;
-        }
-        if (this.delayTimer.get() > this.delay) {
-            this.delayTimer.stop();
-            this.delayTimer.reset();
-            return true;
-        } else {
-            return false;
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * Starts the timeout of the call that was just made, called by the controls processor
+     */
+    void startTimeout(TimerWheel timers) {
+        if (timeout > 0) {
+            timeoutCall = calls;
+            timers.schedule(timeoutTask, timeout);
         }
     }
 
+    /**
+     *
+     * @return returns command name
+     */
+    public String getName() {
+        return this.commandName;
+    }
+
     /**
      * Starts the command
      * @param parameters Parameters for the command
      */
     public void call(String parameters) {
-        this.firstRun = true;
         this.args = parameters.split(",");
-
-        if (this.delay > 0) {
-            this.delayTimer.start();
-        }
-        this.running = true;
-        initialize();
+        call();
     }
 
     /**
@@ -90,6 +142,8 @@ public abstract class SubsystemCommand {
     public void call() {
         this.firstRun = true;
         this.running = true;
+        this.timedOut = false;
+        this.calls++;
         initialize();
     }
 
@@ -97,8 +151,52 @@ public abstract class SubsystemCommand {
      * Cancels the command and calls end
      */
     public void cancel() {
+        stop(true);
+    }
+
+    /**
+     * Ends the command as finished without waiting for isFinished to be polled, for commands
+     * finished by a sensor threshold, a timer or another command ending. Has to be called from
+     * the subsystem's run or readSensors, or on the controls processor thread. Does nothing if
+     * the command isn't running.
+     */
+    public void finish() {
+        if (this.running) {
+            stop(false);
+        }
+    }
+
+    /**
+     * Calls end and tells the listeners if the command was running
+     * @param interrupted True if the command was cancelled rather than finishing
+     */
+    void stop(boolean interrupted) {
+        boolean wasRunning = this.running;
+
         end();
         this.running = false;
+
+        if (wasRunning) {
+            for (int i = 0; i < endListeners.length; i++) {
+                endListeners[i].ended(this, interrupted);
+            }
+        }
+    }
+
+    /**
+     * Adds a listener told every time the command ends, adding the same listener twice does nothing
+     */
+    public void addEndListener(EndListener listener) {
+        for (EndListener added : endListeners) {
+            if (added == listener) {
+                return;
+            }
+        }
+
+        EndListener[] listeners = new EndListener[endListeners.length + 1];
+        System.arraycopy(endListeners, 0, listeners, 0, endListeners.length);
+        listeners[endListeners.length] = listener;
+        endListeners = listeners;
     }
 
     /**
@@ -2,10 +2,11 @@ package frc.robot.util;
 
 import java.util.HashMap;
 
-import edu.wpi.first.wpilibj.command.Subsystem;
-
 // Subsystem with a hashmap of commands and a runnable
-public abstract class SubsystemModule extends Subsystem {
+// Does not depend on the WPILib command framework so it can run off the robot
+public abstract class SubsystemModule {
+
+	private static final Logger log = Logger.getLogger("SubsystemModule");
 
 	private boolean enabled = false;
 
@@ -15,17 +16,28 @@ public abstract class SubsystemModule extends Subsystem {
 	 */
 	protected HashMap<String, SubsystemCommand> registeredCommands = new HashMap<String, SubsystemCommand>();
 
-	/**
-	 * Never gets used
-	 */
-	@Override
-	protected void initDefaultCommand() { }
+	// Registered commands in an array so the periodic loop can walk them without an iterator
+	private SubsystemCommand[] commands = new SubsystemCommand[0];
+
+	// Rates in Hz the subsystem asks for, 0 for the controls processor's own rates
+	private double runRate = 0;
+	private double commandRate = 0;
+
+	// Seconds between runs, set by the controls processor when the subsystem is registered
+	private double runPeriod = 0;
 
 	/**
 	 * Periodically called within the subsystem by the controls processor
 	 */
 	public abstract void run();
 
+	/**
+	 * Called at the start of every controls processor iteration that runs the subsystem or its
+	 * commands, before any run or command. Sensors are read into fields here so each one is read
+	 * once per iteration and every command in it sees the same values.
+	 */
+	public void readSensors() {}
+
 	/**
 	 * Empty function that has to get called in constructor
 	 * This is where all the subsystem commands get created
@@ -42,6 +54,36 @@ public abstract class SubsystemModule extends Subsystem {
 	 */
 	public abstract void destruct();
 
+	/**
+	 * Asks for run and the commands to be called at these rates. The controls processor rounds
+	 * them to a whole number of its periods. Has to be called before the subsystem is registered.
+	 * @param runRate Rate of run in Hz, 0 for every period
+	 * @param commandRate Rate of the commands in Hz, 0 for the controls processor's command rate
+	 */
+	protected void setRates(double runRate, double commandRate) {
+		this.runRate = runRate;
+		this.commandRate = commandRate;
+	}
+
+	public double getRunRate() {
+		return runRate;
+	}
+
+	public double getCommandRate() {
+		return commandRate;
+	}
+
+	/**
+	 * @return Seconds between calls to run
+	 */
+	public double getRunPeriod() {
+		return runPeriod;
+	}
+
+	void setRunPeriod(double runPeriod) {
+		this.runPeriod = runPeriod;
+	}
+
 	public void enable() {
 		enabled = true;
 	}
@@ -59,12 +101,14 @@ public abstract class SubsystemModule extends Subsystem {
 	 * Acts like the WPILIB commands
 	 */
 	public void runCommands() {
+		SubsystemCommand[] commands = getCommands();
 
 		// Loops through every value in the hashmap
-		registeredCommands.forEach((k, v) -> {
+		for (int i = 0; i < commands.length; i++) {
+			SubsystemCommand v = commands[i];
 
 			// Call the initializer if the first run is active
-			if (v.firstRun && v.checkDelayExpired()) {
+			if (v.firstRun) {
 				v.firstRun = false;
 				// v.running = true;
 			}
@@ -73,15 +117,39 @@ public abstract class SubsystemModule extends Subsystem {
 			if (v.running) {
 				// If the command is finished, exit
 				if (v.isFinished()) {
-					System.out.println("Command isFinished == true");
-					v.end();
-					v.running = false;
+					log.debug("Command isFinished == true: {}", v.getName());
+					v.stop(false);
 				}
 				
 				v.execute();
 			}
-		});
+		}
+
+	}
+
+	/**
+	 * @return True if any of the subsystem's commands is running
+	 */
+	public boolean isCommandRunning() {
+		SubsystemCommand[] commands = getCommands();
+
+		for (int i = 0; i < commands.length; i++) {
+			if (commands[i].running) {
+				return true;
+			}
+		}
+		return false;
+	}
 
+	/**
+	 * Commands register themselves in their constructors, the array is rebuilt when one is added
+	 * @return The registered commands in hashmap iteration order
+	 */
+	SubsystemCommand[] getCommands() {
+		if (commands.length != registeredCommands.size()) {
+			commands = registeredCommands.values().toArray(new SubsystemCommand[registeredCommands.size()]);
+		}
+		return commands;
 	}
 
 }
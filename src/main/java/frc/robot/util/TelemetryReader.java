@@ -0,0 +1,171 @@
+package frc.robot.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads files written by TelemetryRecorder for offline analysis
+ *
+ * Usage: java -cp robot.jar frc.robot.util.TelemetryReader telemetry.bin [CHANNEL ...] > match.csv
+ */
+public class TelemetryReader {
+
+	private MappedByteBuffer buffer;
+
+	private String[] channelNames;
+	private int blockRows;
+	private int rowCount;
+
+	/**
+	 * Maps the file and reads its header
+	 * @param file File written by a TelemetryRecorder
+	 * @throws IOException If the file can't be read or isn't a telemetry file
+	 */
+	public TelemetryReader(File file) throws IOException {
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+			buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, randomAccessFile.length());
+		}
+
+		if (buffer.getInt(0) != TelemetryRecorder.kMagic) {
+			throw new IOException("Not a telemetry file: " + file);
+		}
+		if (buffer.getInt(4) != TelemetryRecorder.kVersion) {
+			throw new IOException("Unsupported telemetry version " + buffer.getInt(4));
+		}
+
+		channelNames = new String[buffer.getInt(8)];
+		blockRows = buffer.getInt(12);
+		rowCount = (int) buffer.getLong(TelemetryRecorder.kRowCountOffset);
+
+		ByteBuffer header = buffer.duplicate();
+		header.position(TelemetryRecorder.kRowCountOffset + 8);
+		for (int i = 0; i < channelNames.length; i++) {
+			byte[] name = new byte[header.get()];
+			header.get(name);
+			channelNames[i] = new String(name, StandardCharsets.US_ASCII);
+		}
+	}
+
+	public String[] getChannelNames() {
+		return channelNames.clone();
+	}
+
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * @param name Name of the channel
+	 * @return Column of the channel, -1 if it isn't in the file
+	 */
+	public int getColumn(String name) {
+		for (int i = 0; i < channelNames.length; i++) {
+			if (channelNames[i].equals(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param row Row in reference
+	 * @return Time of the row in seconds since the recorder started
+	 */
+	public double getTimestamp(int row) {
+		return read(0, row);
+	}
+
+	/**
+	 * @param column Channel column from getColumn
+	 * @param row Row in reference
+	 * @return Recorded value
+	 */
+	public double get(int column, int row) {
+		return read(column + 1, row);
+	}
+
+	/**
+	 * @param column Bitmask channel column from getColumn
+	 * @param row Row in reference
+	 * @return Recorded bits
+	 */
+	public long getBits(int column, int row) {
+		return Double.doubleToRawLongBits(get(column, row));
+	}
+
+	/**
+	 * @param name Name of the channel
+	 * @return Every recorded value of the channel
+	 */
+	public double[] getChannel(String name) {
+		int column = getColumn(name);
+		if (column < 0) {
+			throw new IllegalArgumentException("Unknown channel " + name);
+		}
+
+		double[] values = new double[rowCount];
+		for (int row = 0; row < rowCount; row++) {
+			values[row] = get(column, row);
+		}
+		return values;
+	}
+
+	private double read(int fileColumn, int row) {
+		int columns = channelNames.length + 1;
+		long blockBytes = (long) blockRows * columns * 8;
+
+		long offset = TelemetryRecorder.kHeaderBytes + (row / blockRows) * blockBytes
+				+ ((long) fileColumn * blockRows + row % blockRows) * 8;
+
+		return buffer.getDouble((int) offset);
+	}
+
+	/**
+	 * Writes the selected channels, or all of them, as CSV
+	 * @param out Stream to write to
+	 * @param names Channels to include
+	 */
+	public void writeCsv(PrintStream out, String... names) {
+		if (names.length == 0) {
+			names = channelNames;
+		}
+
+		int[] columns = new int[names.length];
+		StringBuilder line = new StringBuilder("time");
+		for (int i = 0; i < names.length; i++) {
+			columns[i] = getColumn(names[i]);
+			if (columns[i] < 0) {
+				throw new IllegalArgumentException("Unknown channel " + names[i]);
+			}
+			line.append(',').append(names[i]);
+		}
+		out.println(line);
+
+		for (int row = 0; row < rowCount; row++) {
+			line.setLength(0);
+			line.append(getTimestamp(row));
+			for (int column : columns) {
+				line.append(',').append(get(column, row));
+			}
+			out.println(line);
+		}
+	}
+
+	public static void main(String... args) throws IOException {
+		if (args.length == 0) {
+			System.err.println("Usage: TelemetryReader <telemetry file> [channel ...]");
+			System.exit(1);
+		}
+
+		String[] names = new String[args.length - 1];
+		System.arraycopy(args, 1, names, 0, names.length);
+
+		new TelemetryReader(new File(args[0])).writeCsv(System.out, names);
+	}
+}
@@ -0,0 +1,298 @@
+package frc.robot.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Records every control-loop signal once per controls processor tick into a memory-mapped file.
+ *
+ * Signals are sample-and-hold: subsystems call set() whenever they compute a value and the
+ * controls processor commits one row per tick. Rows are stored in blocks, column-major inside
+ * each block, so a single signal can be read back without touching the others.
+ * Use TelemetryReader to read the file offline.
+ */
+public class TelemetryRecorder {
+
+	/**
+	 * Fixed schema of recorded signals, the ordinal is the column
+	 * New channels must be added at the end to keep old files readable
+	 */
+	public enum Channel {
+		ODOMETRY_X,
+		ODOMETRY_Y,
+		ODOMETRY_HEADING,
+		ODOMETRY_VELOCITY,
+
+		PATH_INDEX,
+		REFERENCE_X,
+		REFERENCE_Y,
+		REFERENCE_ANGLE,
+		REFERENCE_VELOCITY,
+		ORTHOGONAL_ERROR,
+		TANGENTIAL_ERROR,
+		ANGULAR_ERROR,
+		SAMSON_OUTPUT,
+		TANGENTIAL_OUTPUT,
+
+		LEFT_VELOCITY_COMMAND,
+		RIGHT_VELOCITY_COMMAND,
+
+		SHOULDER_SETPOINT,
+		SHOULDER_POSITION,
+		WRIST_SETPOINT,
+		WRIST_POSITION,
+
+		CARGO_CURRENT,
+		PUMP_CURRENT,
+		CARGO_STATE,
+		HATCH_STATE,
+
+		LIMELIGHT_TX,
+		LIMELIGHT_TA,
+
+		// Raw inputs, used by SensorReplay to re-run a match
+		LEFT_ENCODER_DISTANCE,
+		RIGHT_ENCODER_DISTANCE,
+		LEFT_ENCODER_RATE,
+		RIGHT_ENCODER_RATE,
+		NAVX_YAW,
+		DRIVING_CONTROLLER_ACTIVE,
+		ODOMETER_OFFSET,
+		ODOMETER_RESET_COUNT,
+		ODOMETER_RESET_X,
+		ODOMETER_RESET_Y,
+
+		// Button bank state masks, stored as raw long bits
+		BUTTON_BANK_0,
+		BUTTON_BANK_1,
+		BUTTON_BANK_2,
+		BUTTON_BANK_3,
+
+		// Ordinal of the websocket button pad's connection state
+		BUTTON_PAD_STATE
+	}
+
+	private static final Channel[] kButtonBankChannels = {
+		Channel.BUTTON_BANK_0,
+		Channel.BUTTON_BANK_1,
+		Channel.BUTTON_BANK_2,
+		Channel.BUTTON_BANK_3
+	};
+
+	// Number of button banks that fit in the BUTTON_BANK channels
+	public static final int kRecordedButtonBanks = kButtonBankChannels.length;
+
+	static final int kMagic = 0x46524354; // "FRCT"
+	static final int kVersion = 1;
+
+	// Header layout
+	static final int kHeaderBytes = 4096;
+	static final int kRowCountOffset = 16;
+
+	// Rows per block, every column of a block is stored contiguously
+	static final int kBlockRows = 256;
+
+	// Size of the mapped file, about 20 minutes at 100 Hz
+	private static final long kFileBytes = 32L * 1024 * 1024;
+
+	private static final String kTelemetryDirectory = "/home/lvuser/logs";
+
+	// Flash given to recordings, a quarter of the roboRIO's 512 MB which it shares with the system
+	// image, the JRE and the text logs. The oldest recordings are deleted at boot to make room.
+	private static final long kTelemetryBytes = 128L * 1024 * 1024;
+	private static final int kKeptFiles = (int) (kTelemetryBytes / kFileBytes);
+
+	// Recordings are numbered in the order they were made, the clock isn't set until the driver
+	// station connects so the date can't be used
+	private static final Pattern kFileName = Pattern.compile("telemetry_(\\d+)\\.bin");
+
+	private static final Logger log = Logger.getLogger("TelemetryRecorder");
+
+	// Timestamp column plus one column per channel
+	private static final int kColumns = Channel.values().length + 1;
+	private static final int kBlockBytes = kBlockRows * kColumns * 8;
+
+	private static TelemetryRecorder instance;
+
+	private MappedByteBuffer buffer;
+	private final double[] row = new double[kColumns];
+
+	private long rowCount = 0;
+	private long maxRows;
+	private final long startTime;
+
+	/**
+	 * @return The recorder fed by the subsystems, disabled if the log directory is unavailable
+	 */
+	public static synchronized TelemetryRecorder getInstance() {
+		if (instance == null) {
+			instance = new TelemetryRecorder(defaultFile());
+		}
+		return instance;
+	}
+
+	/**
+	 * Replaces the shared recorder, has to be called before the subsystems are created
+	 * @param recorder Recorder the subsystems will write to
+	 */
+	public static synchronized void setInstance(TelemetryRecorder recorder) {
+		instance = recorder;
+	}
+
+	/**
+	 * @param bank Index of the bank in the order ControlsProcessor registered it
+	 * @return Channel holding the bank's state mask
+	 */
+	public static Channel buttonBankChannel(int bank) {
+		return kButtonBankChannels[bank];
+	}
+
+	private static File defaultFile() {
+		File directory = new File(kTelemetryDirectory);
+
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			return null;
+		}
+
+		File[] files = directory.listFiles((dir, name) -> kFileName.matcher(name).matches());
+		if (files == null) {
+			files = new File[0];
+		}
+		Arrays.sort(files, (a, b) -> Long.compare(fileIndex(a), fileIndex(b)));
+
+		// Leaves room for the new recording
+		for (int i = 0; i < files.length - (kKeptFiles - 1); i++) {
+			if (!files[i].delete()) {
+				log.warn("Could not delete old telemetry file {}", files[i]);
+			}
+		}
+
+		long index = files.length > 0 ? fileIndex(files[files.length - 1]) + 1 : 1;
+		return new File(directory, String.format("telemetry_%05d.bin", index));
+	}
+
+	private static long fileIndex(File file) {
+		Matcher matcher = kFileName.matcher(file.getName());
+		return matcher.matches() ? Long.parseLong(matcher.group(1)) : 0;
+	}
+
+	/**
+	 * Creates a recorder writing to the file, the recorder does nothing if file is null
+	 * @param file File to map
+	 */
+	public TelemetryRecorder(File file) {
+		this(file, Clock.getInstance().nanoTime());
+	}
+
+	/**
+	 * Creates a recorder whose timestamps are relative to startTime, used when replaying a match
+	 * @param file File to map, or null for a recorder that does nothing
+	 * @param startTime Timestamp in nanoseconds recorded as time zero
+	 */
+	public TelemetryRecorder(File file, long startTime) {
+		this.startTime = startTime;
+
+		if (file == null) {
+			return;
+		}
+
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+			buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, kFileBytes);
+		} catch (IOException e) {
+			log.error("Could not map telemetry file {}", file);
+			return;
+		}
+
+		maxRows = (kFileBytes - kHeaderBytes) / kBlockBytes * kBlockRows;
+		writeHeader();
+	}
+
+	private void writeHeader() {
+		buffer.putInt(0, kMagic);
+		buffer.putInt(4, kVersion);
+		buffer.putInt(8, kColumns - 1);
+		buffer.putInt(12, kBlockRows);
+		buffer.putLong(kRowCountOffset, 0);
+
+		buffer.position(kRowCountOffset + 8);
+		for (Channel channel : Channel.values()) {
+			byte[] name = channel.name().getBytes(StandardCharsets.US_ASCII);
+			buffer.put((byte) name.length);
+			buffer.put(name);
+		}
+	}
+
+	/**
+	 * @return True if rows are being written to a file
+	 */
+	public boolean isEnabled() {
+		return buffer != null;
+	}
+
+	/**
+	 * Sets the value of a channel for the current row, it is held until set again
+	 * @param channel Channel in reference
+	 * @param value New value
+	 */
+	public void set(Channel channel, double value) {
+		row[channel.ordinal() + 1] = value;
+	}
+
+	/**
+	 * Sets a boolean channel as 1 or 0
+	 */
+	public void set(Channel channel, boolean value) {
+		row[channel.ordinal() + 1] = value ? 1 : 0;
+	}
+
+	/**
+	 * Sets a bitmask channel, the bits are kept exactly
+	 */
+	public void setBits(Channel channel, long bits) {
+		row[channel.ordinal() + 1] = Double.longBitsToDouble(bits);
+	}
+
+	/**
+	 * @return Current value of a channel
+	 */
+	public double get(Channel channel) {
+		return row[channel.ordinal() + 1];
+	}
+
+	/**
+	 * Writes the current row, called once at the end of each controls processor tick
+	 * @param timestamp Clock time of the tick
+	 */
+	public void commit(long timestamp) {
+		if (buffer == null || rowCount >= maxRows) {
+			return;
+		}
+
+		row[0] = (timestamp - startTime) / 1e9;
+
+		int block = (int) (rowCount / kBlockRows);
+		int blockRow = (int) (rowCount % kBlockRows);
+		int base = kHeaderBytes + block * kBlockBytes + blockRow * 8;
+
+		for (int column = 0; column < kColumns; column++) {
+			buffer.putDouble(base + column * kBlockRows * 8, row[column]);
+		}
+
+		rowCount++;
+		buffer.putLong(kRowCountOffset, rowCount);
+	}
+
+	/**
+	 * @return Number of rows written so far
+	 */
+	public long getRowCount() {
+		return rowCount;
+	}
+}
@@ -0,0 +1,139 @@
+package frc.robot.util;
+
+/**
+ * Hashed timer wheel advanced once per controls processor iteration. Tasks are linked into the
+ * slot of the iteration they are due on, so scheduling, cancelling and checking for expired tasks
+ * are constant time no matter how many tasks are waiting. A task due more than one turn of the
+ * wheel away stays in its slot until the turn it is due on. Tasks are linked in place so nothing
+ * is allocated once they have been created.
+ *
+ * Only used from the controls processor thread.
+ */
+public class TimerWheel {
+
+	// Slots in the wheel, a power of two. At 100 Hz one turn is 5.12 s
+	private static final int kSlots = 512;
+	private static final int kMask = kSlots - 1;
+
+	private final double periodNanoseconds;
+
+	// Head of the list of tasks in every slot
+	private final Task[] slots = new Task[kSlots];
+
+	// Number of the last iteration processed
+	private long iteration = 0;
+
+	/**
+	 * Something to do once, or periodically, after a delay
+	 */
+	public static abstract class Task {
+		private Task previous;
+		private Task next;
+
+		// Iteration the task is due on, and its period in iterations or 0 if it only runs once
+		private long due;
+		private long period;
+		private boolean scheduled = false;
+
+		/**
+		 * Called on the controls processor thread when the task is due
+		 */
+		public abstract void expired();
+
+		public boolean isScheduled() {
+			return scheduled;
+		}
+	}
+
+	/**
+	 * @param periodNanoseconds Time between calls to advance
+	 */
+	public TimerWheel(double periodNanoseconds) {
+		this.periodNanoseconds = periodNanoseconds;
+	}
+
+	/**
+	 * Runs the task once after the delay, replacing the time it was scheduled for if it already was
+	 * @param delay Seconds from now, rounded up to whole iterations
+	 */
+	public void schedule(Task task, double delay) {
+		schedule(task, delay, 0);
+	}
+
+	/**
+	 * Runs the task after the delay and then every period until it is cancelled
+	 * @param delay Seconds until the first run, rounded up to whole iterations
+	 * @param period Seconds between runs, 0 to only run once
+	 */
+	public void schedule(Task task, double delay, double period) {
+		cancel(task);
+
+		task.due = iteration + toIterations(delay);
+		task.period = period > 0 ? toIterations(period) : 0;
+		link(task);
+	}
+
+	/**
+	 * Stops the task from running, does nothing if it isn't scheduled
+	 */
+	public void cancel(Task task) {
+		if (!task.scheduled) {
+			return;
+		}
+
+		if (task.previous != null) {
+			task.previous.next = task.next;
+		} else {
+			slots[(int) (task.due & kMask)] = task.next;
+		}
+		if (task.next != null) {
+			task.next.previous = task.previous;
+		}
+
+		task.previous = null;
+		task.next = null;
+		task.scheduled = false;
+	}
+
+	/**
+	 * Moves on to the next iteration and runs the tasks due on it
+	 */
+	public void advance() {
+		iteration++;
+		int slot = (int) (iteration & kMask);
+
+		// Tasks can schedule and cancel others while running, so start over from the head after each
+		Task task = slots[slot];
+		while (task != null) {
+			if (task.due <= iteration) {
+				cancel(task);
+
+				if (task.period > 0) {
+					task.due = iteration + task.period;
+					link(task);
+				}
+
+				task.expired();
+				task = slots[slot];
+			} else {
+				task = task.next;
+			}
+		}
+	}
+
+	private void link(Task task) {
+		int slot = (int) (task.due & kMask);
+
+		task.previous = null;
+		task.next = slots[slot];
+		if (task.next != null) {
+			task.next.previous = task;
+		}
+		slots[slot] = task;
+		task.scheduled = true;
+	}
+
+	private long toIterations(double seconds) {
+		return Math.max(1, (long) Math.ceil(seconds * 1e9 / periodNanoseconds - 1e-9));
+	}
+}
@@ -0,0 +1,36 @@
+package frc.robot.util;
+
+/**
+ * Clock that only moves when it is told to, used to run the control code faster than real time
+ */
+public class VirtualClock extends Clock {
+
+	// Written by the simulation thread, read by the controls processor's workers
+	private volatile long time;
+
+	public VirtualClock() {
+		this(0);
+	}
+
+	/**
+	 * @param time Starting time in nanoseconds
+	 */
+	public VirtualClock(long time) {
+		this.time = time;
+	}
+
+	@Override
+	public long nanoTime() {
+		return time;
+	}
+
+	/**
+	 * Moves the time forward
+	 * @param nanoseconds Time step, negative steps are ignored
+	 */
+	public void advance(long nanoseconds) {
+		if (nanoseconds > 0) {
+			time += nanoseconds;
+		}
+	}
+}
@@ -0,0 +1,175 @@
+package frc.robot.util;
+
+/**
+ * Tracks a vision target between camera frames. Each new frame is turned into a bearing using the
+ * robot's yaw when the image was captured, so the robot turning while the frame is processed
+ * doesn't show up as target motion. The target's offset is then predicted for when the output
+ * computed from it reaches the motors. A frame offered again is ignored and a target that hasn't
+ * been seen for a while is dropped.
+ *
+ * Angles follow the navX, clockwise positive, and a target to the right has a positive tx.
+ */
+public class VisionTracker {
+
+	// Yaw history kept to look up where the robot pointed when a frame was captured
+	private static final int kHistorySize = 64;
+
+	private final long[] times = new long[kHistorySize];
+	private final double[] yaws = new double[kHistorySize];
+
+	// Slot of the newest yaw and number of yaws stored
+	private int newest = -1;
+	private int count = 0;
+
+	private final double actuationDelay;
+	private final long maxAgeNanoseconds;
+
+	// Latest accepted frame
+	private long frame = 0;
+	private long captureTime;
+	private double frameTx;
+	private double frameTa;
+	private boolean valid = false;
+
+	// Target bearing in degrees, yaw at capture plus tx
+	private double bearing;
+
+	// Prediction from the last update
+	private double predictedTx;
+
+	/**
+	 * @param actuationDelay Seconds from a sensor read to the output computed from it taking effect
+	 * @param maxAge Seconds after capture that a frame can still be used
+	 */
+	public VisionTracker(double actuationDelay, double maxAge) {
+		this.actuationDelay = actuationDelay;
+		this.maxAgeNanoseconds = (long) (maxAge * 1e9);
+	}
+
+	/**
+	 * Stores the robot's yaw, has to be called every controls processor period
+	 * @param time Clock time of the reading
+	 * @param yaw Yaw in degrees
+	 */
+	public void recordYaw(long time, double yaw) {
+		newest = (newest + 1) % kHistorySize;
+		times[newest] = time;
+		yaws[newest] = yaw;
+		count = Math.min(count + 1, kHistorySize);
+	}
+
+	/**
+	 * Offers a camera frame, a frame already seen is ignored. A frame with the same values as the
+	 * last one is still a new sighting of a target that isn't moving.
+	 * @param frame Number of the frame, 0 if nothing has been received
+	 * @param captureTime Clock time the image was captured
+	 * @param valid True if the camera sees a target
+	 * @return True if the frame was accepted
+	 */
+	public boolean addFrame(long frame, long captureTime, boolean valid, double tx, double ta) {
+		if (frame == this.frame || frame == 0) {
+			return false;
+		}
+
+		this.frame = frame;
+		this.captureTime = captureTime;
+		this.valid = valid;
+		frameTx = tx;
+		frameTa = ta;
+		bearing = getYawAt(captureTime) + tx;
+		return true;
+	}
+
+	/**
+	 * Predicts the target's offset for when the next output takes effect
+	 * @param time Clock time now
+	 * @param yaw Yaw in degrees now
+	 * @param yawRate Yaw rate in degrees per second
+	 */
+	public void update(long time, double yaw, double yawRate) {
+		if (!hasTarget(time)) {
+			predictedTx = 0;
+			return;
+		}
+
+		double predictedYaw = yaw + yawRate * actuationDelay;
+		predictedTx = wrap(bearing - predictedYaw);
+	}
+
+	/**
+	 * @return True if the last frame saw a target and isn't too old
+	 */
+	public boolean hasTarget(long time) {
+		return valid && time - captureTime <= maxAgeNanoseconds;
+	}
+
+	/**
+	 * @return Predicted tx in degrees from the last update, 0 without a target
+	 */
+	public double getPredictedTx() {
+		return predictedTx;
+	}
+
+	/**
+	 * @return tx of the last frame as the camera measured it
+	 */
+	public double getMeasuredTx() {
+		return frameTx;
+	}
+
+	/**
+	 * @return Target area of the last frame, 0 without a target
+	 */
+	public double getTa(long time) {
+		return hasTarget(time) ? frameTa : 0;
+	}
+
+	/**
+	 * Forgets the target and the yaw history, called when the yaw is zeroed
+	 */
+	public void reset() {
+		newest = -1;
+		count = 0;
+		valid = false;
+		frameTx = 0;
+		frameTa = 0;
+		predictedTx = 0;
+	}
+
+	/**
+	 * @return Yaw interpolated from the history, the closest end if the time is outside it
+	 */
+	private double getYawAt(long time) {
+		if (count == 0) {
+			return 0;
+		}
+
+		int later = newest;
+		for (int i = 1; i < count; i++) {
+			int earlier = (newest - i + kHistorySize) % kHistorySize;
+
+			if (times[earlier] <= time) {
+				if (times[later] <= time) {
+					return yaws[later];
+				}
+				double fraction = (double) (time - times[earlier]) / (times[later] - times[earlier]);
+				return yaws[earlier] + wrap(yaws[later] - yaws[earlier]) * fraction;
+			}
+			later = earlier;
+		}
+		return yaws[later];
+	}
+
+	/**
+	 * @return Angle between -180 and 180 degrees
+	 */
+	private static double wrap(double angle) {
+		angle %= 360;
+		if (angle > 180) {
+			angle -= 360;
+		} else if (angle < -180) {
+			angle += 360;
+		}
+		return angle;
+	}
+}
@@ -6,7 +6,7 @@ import edu.wpi.first.wpilibj.buttons.JoystickButton;
 public class WebsocketButton extends JoystickButton {
 
     private static final GenericHID m_joystick = null;
-    private boolean buttonState = false;
+    private volatile boolean buttonState = false;
 
     WebsocketButton() {
         super(m_joystick, 0);
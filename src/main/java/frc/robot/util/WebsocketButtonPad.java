@@ -1,64 +1,247 @@
 package frc.robot.util;
 
 import java.net.URI;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+import org.java_websocket.WebSocket;
 import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.framing.Framedata;
 import org.java_websocket.handshake.ServerHandshake;
 
-/** This example demonstrates how to create a websocket connection to a server. Only the most important callbacks are overloaded. */
-public class WebsocketButtonPad extends WebSocketClient {
+/**
+ * Launchpad button pad served over a websocket from the driver station. The connection is made
+ * and kept up on this thread, reconnecting with exponential backoff after a drop, so the controls
+ * processor only ever reads button states and a network hiccup can't delay a control tick.
+ *
+ * The pad only sends a message when a button changes, so it is pinged while connected. If nothing
+ * has been heard from it for the staleness timeout, or the connection drops, the held buttons are
+ * released and the connection is made again.
+ */
+public class WebsocketButtonPad extends Thread {
 
-    private WebsocketButton[][] buttons = new WebsocketButton[9][9];
-    
-	public WebsocketButtonPad(URI serverURI) {
-        super( serverURI );
+	private static final Logger log = Logger.getLogger("WebsocketButtonPad");
 
-        for (int i = 0; i < 9; i++) {
-            for (int j = 0; j < 9; j++) {
-                this.buttons[i][j] = new WebsocketButton();
-            }
-        }
+	// Time allowed for one connection attempt
+	private static final long kConnectTimeoutMilliseconds = 1000;
+
+	// Wait before reconnecting, doubled after every failed attempt up to the maximum
+	private static final long kMinBackoffMilliseconds = 100;
+	private static final long kMaxBackoffMilliseconds = 5000;
+
+	// Time between pings, and time without hearing from the pad before its buttons are released
+	private static final long kPingPeriodMilliseconds = 100;
+	private static final long kStaleTimeoutNanoseconds = 500000000;
+
+	public enum ConnectionState {
+		DISCONNECTED,
+		CONNECTING,
+		CONNECTED
+	}
+
+	private final URI serverUri;
+	private final WebsocketButton[][] buttons = new WebsocketButton[9][9];
+
+	private Clock clock = Clock.getInstance();
+
+	private volatile ConnectionState connectionState = ConnectionState.DISCONNECTED;
+
+	// Clock time of the last message or pong from the pad
+	private volatile long lastHeard;
+
+	// Connection metrics, each only written by one thread
+	private volatile int attempts = 0;
+	private volatile int connections = 0;
+	private volatile int drops = 0;
+	private volatile int staleReleases = 0;
+	private volatile long messages = 0;
+
+	/**
+	 * One connection to the pad, a websocket client can't be connected again once it has closed
+	 */
+	private class Connection extends WebSocketClient {
+
+		Connection() {
+			super(serverUri);
+		}
+
+		@Override
+		public void onOpen(ServerHandshake handshakedata) {
+			lastHeard = clock.nanoTime();
+		}
+
+		@Override
+		public void onMessage(String message) {
+			lastHeard = clock.nanoTime();
+			messages++;
+			setButton(message);
+		}
+
+		@Override
+		public void onWebsocketPong(WebSocket conn, Framedata f) {
+			lastHeard = clock.nanoTime();
+		}
+
+		@Override
+		public void onClose(int code, String reason, boolean remote) {
+			releaseButtons();
+		}
+
+		@Override
+		public void onError(Exception ex) {
+			log.debug("Websocket error: {}", ex.getMessage());
+		}
 	}
 
-	public WebsocketButtonPad(URI serverUri, Map<String, String> httpHeaders) {
-		super(serverUri, httpHeaders);
+	/**
+	 * Creates the buttons, the pad isn't connected to until the thread is started
+	 * @param serverUri Websocket the driver station serves the pad on
+	 */
+	public WebsocketButtonPad(URI serverUri) {
+		super("WebsocketButtonPad");
+		setDaemon(true);
+		setPriority(Thread.MIN_PRIORITY);
+
+		this.serverUri = serverUri;
+
+		for (int i = 0; i < 9; i++) {
+			for (int j = 0; j < 9; j++) {
+				this.buttons[i][j] = new WebsocketButton();
+			}
+		}
 	}
 
-	@Override
-	public void onOpen( ServerHandshake handshakedata ) {
-        System.out.println("Opened button server");   
-    }
+	public WebsocketButton getButtonInstance(int x, int y) {
+		return buttons[x][y];
+	}
 
-	@Override
-	public void onMessage( String message ) {
-        System.out.println( "received: " + message );
-        String[] args = message.split(":");
-
-        int x = Integer.parseInt(args[0]);
-        int y = Integer.parseInt(args[1]);
-        int val = Integer.parseInt(args[2]);
-
-        if (val > 0) {
-            buttons[x][y].set(true);
-        } else {
-            buttons[x][y].set(false);
-        }
-
-    }
-    
-    public WebsocketButton getButtonInstance (int x, int y) {
-        return buttons[x][y];
-    }
+	public ConnectionState getConnectionState() {
+		return connectionState;
+	}
 
-	@Override
-	public void onClose( int code, String reason, boolean remote ) {
-        System.out.println("Closing button server");
-    }
+	public boolean isConnected() {
+		return connectionState == ConnectionState.CONNECTED;
+	}
+
+	/**
+	 * @return Connection attempts made, successful or not
+	 */
+	public int getAttempts() {
+		return attempts;
+	}
+
+	/**
+	 * @return Times a connection was made
+	 */
+	public int getConnections() {
+		return connections;
+	}
+
+	/**
+	 * @return Times a connection was lost or dropped for being stale
+	 */
+	public int getDrops() {
+		return drops;
+	}
+
+	/**
+	 * @return Times the buttons were released because nothing was heard from the pad
+	 */
+	public int getStaleReleases() {
+		return staleReleases;
+	}
+
+	/**
+	 * @return Button messages received
+	 */
+	public long getMessages() {
+		return messages;
+	}
+
+	/**
+	 * Sets a button from a message, x:y:value
+	 */
+	private void setButton(String message) {
+		String[] args = message.split(":");
+
+		try {
+			int x = Integer.parseInt(args[0]);
+			int y = Integer.parseInt(args[1]);
+			int val = Integer.parseInt(args[2]);
+
+			buttons[x][y].set(val > 0);
+		} catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+			log.warn("Bad button pad message: {}", message);
+		}
+	}
+
+	private void releaseButtons() {
+		for (int i = 0; i < 9; i++) {
+			for (int j = 0; j < 9; j++) {
+				buttons[i][j].set(false);
+			}
+		}
+	}
 
 	@Override
-	public void onError( Exception ex ) {
-		ex.printStackTrace();
-    }
+	public void run() {
+		long backoff = kMinBackoffMilliseconds;
+
+		while (true) {
+			Connection connection = new Connection();
+			connection.setConnectionLostTimeout(0);
+
+			connectionState = ConnectionState.CONNECTING;
+			attempts++;
+
+			try {
+				if (connection.connectBlocking(kConnectTimeoutMilliseconds, TimeUnit.MILLISECONDS)) {
+					connections++;
+					backoff = kMinBackoffMilliseconds;
+					connectionState = ConnectionState.CONNECTED;
+					log.info("Connected to the button pad on attempt {}", attempts);
+
+					keepAlive(connection);
+
+					drops++;
+					log.warn("Lost the button pad, {} drops so far", drops);
+				} else if (attempts == connections + 1) {
+					log.warn("Can't reach the button pad at {}, retrying", serverUri);
+				}
 
-}
\ No newline at end of file
+				connection.close();
+				releaseButtons();
+				connectionState = ConnectionState.DISCONNECTED;
+
+				Thread.sleep(backoff);
+				backoff = Math.min(backoff * 2, kMaxBackoffMilliseconds);
+			} catch (InterruptedException e) {
+				connection.close();
+				releaseButtons();
+				connectionState = ConnectionState.DISCONNECTED;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Pings the pad until the connection closes or goes stale
+	 */
+	private void keepAlive(Connection connection) throws InterruptedException {
+		while (connection.isOpen()) {
+			if (clock.nanoTime() - lastHeard > kStaleTimeoutNanoseconds) {
+				staleReleases++;
+				log.warn("Nothing heard from the button pad, releasing its buttons");
+				return;
+			}
+
+			try {
+				connection.sendPing();
+			} catch (RuntimeException e) {
+				// Closed since isOpen was checked
+				return;
+			}
+
+			Thread.sleep(kPingPeriodMilliseconds);
+		}
+	}
+}
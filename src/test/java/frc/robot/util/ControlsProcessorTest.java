@@ -0,0 +1,113 @@
+package frc.robot.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ControlsProcessorTest {
+
+	private static final long kPeriodNanoseconds = 10000000;
+
+	private ControlsProcessor controlsProcessor;
+	private SubsystemCommand hold;
+	private int starts;
+	private long timestamp;
+
+	/**
+	 * Subsystem with one command that runs until it is cancelled and counts its starts
+	 */
+	private class HoldModule extends SubsystemModule {
+		HoldModule() {
+			registerCommands();
+		}
+
+		@Override
+		public void run() {}
+
+		@Override
+		public void registerCommands() {
+			hold = new SubsystemCommand(this.registeredCommands, "hold") {
+				@Override
+				public void initialize() {
+					starts++;
+				}
+
+				@Override
+				public boolean isFinished() {
+					return false;
+				}
+			};
+		}
+
+		@Override
+		public void init() {}
+
+		@Override
+		public void destruct() {}
+	}
+
+	@Before
+	public void setUp() {
+		TelemetryRecorder.setInstance(new TelemetryRecorder(null));
+
+		controlsProcessor = new ControlsProcessor(kPeriodNanoseconds, 1, false) {
+			@Override
+			public void registerOperatorControls() {}
+		};
+		controlsProcessor.registerController("Hold", new HoldModule());
+	}
+
+	private void tick(int iterations) {
+		for (int i = 0; i < iterations; i++) {
+			controlsProcessor.tick(timestamp += kPeriodNanoseconds);
+		}
+	}
+
+	@Test
+	public void delayedCommandStartsAfterItsDelay() {
+		controlsProcessor.callCommand(new CommandDetails("hold -t 0.5"));
+
+		tick(40);
+		assertEquals(0, starts);
+
+		tick(20);
+		assertEquals(1, starts);
+		assertTrue(hold.getRunning());
+	}
+
+	@Test
+	public void cancelAllCancelsDelayedStarts() {
+		controlsProcessor.callCommand(new CommandDetails("hold -t 0.5"));
+
+		tick(10);
+		controlsProcessor.cancelAll();
+		tick(100);
+
+		assertEquals(0, starts);
+		assertFalse(hold.getRunning());
+	}
+
+	@Test
+	public void cancelAllFromAnotherThreadWaitsForTheTick() throws InterruptedException {
+		controlsProcessor.callCommand(new CommandDetails("hold"));
+		controlsProcessor.callCommand(new CommandDetails("hold -t 0.5"));
+		tick(1);
+
+		Thread robot = new Thread(controlsProcessor::cancelAll);
+		robot.start();
+		robot.join();
+
+		// Nothing the controls processor thread owns is touched until it ticks
+		assertTrue(hold.getRunning());
+
+		tick(1);
+		assertFalse(hold.getRunning());
+
+		tick(100);
+		assertEquals(1, starts);
+		assertFalse(hold.getRunning());
+	}
+}
@@ -0,0 +1,39 @@
+package frc.robot.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class VisionTrackerTest {
+
+	private static final long kPeriodNanoseconds = 10000000;
+
+	@Test
+	public void stillTargetStaysTracked() {
+		VisionTracker tracker = new VisionTracker(0.02, 0.25);
+
+		// The same values every frame for a second, as from a target that isn't moving
+		long time = 0;
+		for (long frame = 1; frame <= 100; frame++) {
+			time += kPeriodNanoseconds;
+			tracker.recordYaw(time, 0);
+			assertTrue(tracker.addFrame(frame, time, true, 3.5, 1.2));
+		}
+
+		assertTrue(tracker.hasTarget(time));
+		assertEquals(1.2, tracker.getTa(time), 1e-9);
+	}
+
+	@Test
+	public void repeatedFrameIsIgnored() {
+		VisionTracker tracker = new VisionTracker(0.02, 0.25);
+
+		assertTrue(tracker.addFrame(1, kPeriodNanoseconds, true, 3.5, 1.2));
+		assertFalse(tracker.addFrame(1, kPeriodNanoseconds, true, 3.5, 1.2));
+
+		// Nothing new arrives, so the target is dropped once it is too old
+		assertFalse(tracker.hasTarget(kPeriodNanoseconds + 300000000));
+	}
+}